@@ -0,0 +1,70 @@
+package com.example.demo.availability;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// DESIGN PATTERN: Utility Pattern
+// Bir günü 30 dakikalık 48 slota böler; bir günün doluluğu tek bir long bit maskesinde tutulur
+// (bit i = i. slot). Çalışma saatleri (WeeklyHours) ve hizmet süresi de aynı maske biçimine çevrilir.
+public final class DaySlots {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
+    private DaySlots() {
+    }
+
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    public static LocalTime timeOf(int slot) {
+        return LocalTime.MIN.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    public static boolean isSlotStart(LocalTime time) {
+        return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    // Hizmet süresini kaplayan slot sayısı (yukarı yuvarlanır, en az 1)
+    public static int slotCount(Integer durationMinutes) {
+        int minutes = durationMinutes == null || durationMinutes <= 0 ? DEFAULT_DURATION_MINUTES : durationMinutes;
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // [startSlot, startSlot + count) aralığı; gün sonunu aşarsa 0 (geçersiz)
+    public static long range(int startSlot, int count) {
+        if (startSlot < 0 || count <= 0 || startSlot + count > SLOTS_PER_DAY) {
+            return 0L;
+        }
+        long bits = count == Long.SIZE ? -1L : (1L << count) - 1;
+        return bits << startSlot;
+    }
+
+    // start saatinden durationMinutes boyunca dokunulan tüm slotlar (slot sınırına oturmayan saatler dahil)
+    public static long cover(LocalTime start, Integer durationMinutes) {
+        int minutes = durationMinutes == null || durationMinutes <= 0 ? DEFAULT_DURATION_MINUTES : durationMinutes;
+        int startMinute = start.getHour() * 60 + start.getMinute();
+        int first = startMinute / SLOT_MINUTES;
+        int last = (startMinute + minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        return range(first, last - first);
+    }
+
+    // Haftalık saatlerden o günün açık slotları: slotun tüm çeyrekleri açıksa açık. Saat yorumu tek yerde
+    // (WeeklyHours); gece yarısını aşan saatler ve 24 saat açık dükkanlar /nearby?openAt= ile aynı sonucu verir
+    public static long openMask(WeeklyHours hours, DayOfWeek day) {
+        int dayStart = (day.getValue() - DayOfWeek.MONDAY.getValue()) * 24 * 60;
+        long mask = 0L;
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            boolean open = true;
+            for (int minute = 0; minute < SLOT_MINUTES && open; minute += WeeklyHours.QUARTER_MINUTES) {
+                open = hours.isOpenAt(dayStart + slot * SLOT_MINUTES + minute);
+            }
+            if (open) {
+                mask |= 1L << slot;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.availability;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// DESIGN PATTERN: Registry Pattern (in-memory occupancy)
+// (dükkan, gün) başına dolu slotları tek bir AtomicLong bit maskesinde tutar
+// Rezervasyon compare-and-set ile yapılır: aynı slotu isteyen iki istekten sadece biri kazanır, tablo kilidi gerekmez.
+// Gün ilk kez sorulduğunda veritabanındaki randevulardan doldurulur.
+@Component
+public class SlotCalendar {
+
+    private final Map<Key, AtomicLong> days = new ConcurrentHashMap<>();
+
+    public record Key(int shopId, LocalDate date) {
+    }
+
+    // Günün dolu slotları; yoksa loader ile (tek sefer) yüklenir
+    public long occupied(Key key, LongSupplier loader) {
+        return day(key, loader).get();
+    }
+
+    // Maskedeki slotların hepsi boşsa atomik olarak doldurur
+    public boolean tryReserve(Key key, long mask, LongSupplier loader) {
+        AtomicLong day = day(key, loader);
+        while (true) {
+            long current = day.get();
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (day.compareAndSet(current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    // Aynı gün içinde taşıma: eski slotlar bırakılıp yenileri tek CAS ile alınır (kendi slotlarıyla çakışmaz)
+    public boolean tryMove(Key key, long oldMask, long newMask, LongSupplier loader) {
+        AtomicLong day = day(key, loader);
+        while (true) {
+            long current = day.get();
+            long withoutOld = current & ~oldMask;
+            if ((withoutOld & newMask) != 0) {
+                return false;
+            }
+            if (day.compareAndSet(current, withoutOld | newMask)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(Key key, long mask) {
+        AtomicLong day = days.get(key);
+        if (day != null) {
+            day.getAndUpdate(current -> current & ~mask);
+        }
+    }
+
+    // Bellekteki durum veritabanıyla uyuşmadığında (başka node'un kaydı) gün bir sonraki istekte yeniden yüklenir
+    public void evict(Key key) {
+        days.remove(key);
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private AtomicLong day(Key key, LongSupplier loader) {
+        return days.computeIfAbsent(key, k -> new AtomicLong(loader.getAsLong()));
+    }
+
+    // Geçmiş günler artık rezerve edilemez, bellekte tutulmaz
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.availability;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DESIGN PATTERN: Value Object Pattern
+// Dükkanın haftalık açık olduğu zamanlar: hafta 15 dakikalık 672 çeyreğe bölünür (bit i = Pazartesi 00:00'dan
+// itibaren i. çeyrek). Serbest metin açılış/kapanış saatleri kayıtta bir kez bu maskeye derlenir;
+// "şu an açık mı" sorusu tek bit testiyle cevaplanır. Gece yarısını aşan saatler ertesi güne taşar.
+public final class WeeklyHours {
+
+    public static final int QUARTER_MINUTES = 15;
+    public static final int QUARTERS_PER_DAY = 24 * 60 / QUARTER_MINUTES;
+    public static final int QUARTERS_PER_WEEK = 7 * QUARTERS_PER_DAY;
+    public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+    public static final int BYTES = QUARTERS_PER_WEEK / Byte.SIZE;
+
+    // Saat girilmemiş/okunamayan dükkan 09:00-18:00 açık sayılır (kayıt ekranındaki varsayılanlarla aynı)
+    private static final int DEFAULT_OPENING_MINUTE = 9 * 60;
+    private static final int DEFAULT_CLOSING_MINUTE = 18 * 60;
+
+    // "9", "09", "9:30", "09.30", "0930", "24:00"
+    private static final Pattern TIME = Pattern.compile("^(\\d{1,2})(?:[:.]?(\\d{2}))?$");
+
+    public static final WeeklyHours DEFAULT = daily(DEFAULT_OPENING_MINUTE, DEFAULT_CLOSING_MINUTE);
+
+    private final long[] bits;
+
+    private WeeklyHours(long[] bits) {
+        this.bits = bits;
+    }
+
+    public static WeeklyHours parse(String openingHour, String closingHour) {
+        int opening = parseMinute(openingHour);
+        int closing = parseMinute(closingHour);
+        if (opening < 0 || closing < 0) {
+            return DEFAULT;
+        }
+        return daily(opening, closing);
+    }
+
+    // Saklanan maske varsa onu, yoksa (eski kayıtlar) metin saatleri kullanır
+    public static WeeklyHours of(byte[] mask, String openingHour, String closingHour) {
+        if (mask != null && mask.length == BYTES) {
+            long[] bits = new long[(QUARTERS_PER_WEEK + Long.SIZE - 1) / Long.SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(mask, bits.length * Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = buffer.getLong();
+            }
+            return new WeeklyHours(bits);
+        }
+        return parse(openingHour, closingHour);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        return Arrays.copyOf(buffer.array(), BYTES);
+    }
+
+    public boolean isOpenAt(int minuteOfWeek) {
+        int quarter = Math.floorMod(minuteOfWeek, MINUTES_PER_WEEK) / QUARTER_MINUTES;
+        return (bits[quarter >>> 6] & (1L << quarter)) != 0;
+    }
+
+    public boolean isOpenAt(LocalDateTime time) {
+        return isOpenAt(minuteOfWeek(time));
+    }
+
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()) * 24 * 60
+                + time.getHour() * 60 + time.getMinute();
+    }
+
+    // Her gün aynı saatler; kapanış açılıştan önceyse ertesi güne taşar, eşitse 24 saat açık.
+    // Kısmen açık çeyrekler kapalı sayılır (09:10 açılış -> 09:15'ten itibaren açık)
+    private static WeeklyHours daily(int openingMinute, int closingMinute) {
+        long[] bits = new long[(QUARTERS_PER_WEEK + Long.SIZE - 1) / Long.SIZE];
+        int first = (openingMinute + QUARTER_MINUTES - 1) / QUARTER_MINUTES;
+        int last = closingMinute / QUARTER_MINUTES;
+        if (closingMinute == openingMinute) {
+            first = 0;
+            last = QUARTERS_PER_DAY;
+        } else if (closingMinute < openingMinute) {
+            last += QUARTERS_PER_DAY;
+        }
+        for (int day = 0; day < 7; day++) {
+            for (int quarter = first; quarter < last; quarter++) {
+                int index = (day * QUARTERS_PER_DAY + quarter) % QUARTERS_PER_WEEK;
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return new WeeklyHours(bits);
+    }
+
+    // Dakika (0..1440) ya da okunamıyorsa -1
+    private static int parseMinute(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Matcher matcher = TIME.matcher(value.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+        if (hour > 24 || minute > 59 || (hour == 24 && minute != 0)) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof WeeklyHours hours && Arrays.equals(bits, hours.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.demo.catalog;
+
+import com.example.demo.dto.TireSearchResult;
+import com.example.demo.entity.Tire;
+import com.example.demo.repository.TireRepository;
+import com.example.demo.support.TransactionHooks;
+import com.example.demo.support.WarmUpBuffer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DESIGN PATTERN: Inverted Index Pattern
+// Lastik kataloğunu bellekte arar: her lastik sıralı bir doküman numarası alır, marka/model/ebat kelimeleri
+// BitSet posting listelerine yazılır. Kelimeler TreeMap'te durur; önek araması alt haritadaki listelerin
+// birleşimidir. Sorgu kelimeleri ve filtreler BitSet AND ile daraltılır, facet'ler eşleşenler üzerinden sayılır.
+@Component
+public class TireCatalogIndex {
+
+    // Fiyat facet aralıkları (TL): [0, 1000), [1000, 2000), ... , 5000+
+    private static final double[] PRICE_BUCKET_EDGES = {1000, 2000, 3000, 5000};
+    private static final String[] PRICE_BUCKET_LABELS = {"0-1000", "1000-2000", "2000-3000", "3000-5000", "5000+"};
+    private static final int NO_RIM = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // "205/55R16", "205/55 R 16", "225/40ZR18" -> jant çapı; R yoksa son iki haneli sayı ("205/55/16")
+    private static final Pattern RIM = Pattern.compile("(?i)R\\s*(\\d{2})(?!\\d)");
+    private static final Pattern TRAILING_RIM = Pattern.compile("(\\d{2})\\D*$");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TireRepository tireRepository;
+
+    // Posting listeleri yazarken değişir; aramalar okuma kilidiyle paralel çalışır
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, BitSet> terms = new TreeMap<>();
+    private final Map<String, Integer> brandIds = new HashMap<>();
+    private final List<String> brandNames = new ArrayList<>();
+    private final List<BitSet> brandDocs = new ArrayList<>();
+    private final Map<Integer, BitSet> rimDocs = new HashMap<>();
+    private final Map<Integer, Integer> docsByTireId = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    // Doküman numarasına göre alanlar (structure-of-arrays)
+    private int[] tireIds = new int[INITIAL_CAPACITY];
+    private int[] brandOf = new int[INITIAL_CAPACITY];
+    private int[] rimOf = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private String[] models = new String[INITIAL_CAPACITY];
+    private String[] sizes = new String[INITIAL_CAPACITY];
+    private int nextDoc;
+
+    private final WarmUpBuffer warmUpBuffer = new WarmUpBuffer();
+    private volatile boolean ready;
+
+    public TireCatalogIndex(TireRepository tireRepository) {
+        this.tireRepository = tireRepository;
+    }
+
+    public record TireEntry(int tireId, String brand, String model, double price, String size) {
+    }
+
+    // text: boşlukla ayrılmış kelimeler, her biri önek olarak eşleşir ve hepsi sağlanmalı (AND)
+    public record Query(String text, String brand, Integer rimSize, Double minPrice, Double maxPrice, int page,
+                        int size) {
+    }
+
+    // Katalog okunurken commit edilen lastik değişiklikleri biriktirilir, rebuild'den sonra sırayla uygulanır
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUpBuffer.warmUp(() -> toEntries(tireRepository.findAllCatalogRows()), this::rebuild);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // İndeks ısınırken: veritabanı ön filtresinden gelen satırlar geçici bir indekste aynı kurallarla aranır
+    // (önek eşleşmesi, jant filtresi, facet'ler). Paylaşılan indeks sadece warmUp ile kurulur
+    public static TireSearchResult searchRows(List<Object[]> rows, Query query) {
+        TireCatalogIndex scratch = new TireCatalogIndex(null);
+        scratch.rebuild(toEntries(rows));
+        return scratch.search(query);
+    }
+
+    // Ön filtre için en uzun sorgu kelimesi (en seçici LIKE); kelime yoksa null
+    public static String longestWord(String text) {
+        String longest = null;
+        for (String token : tokenize(text)) {
+            if (longest == null || token.length() > longest.length()) {
+                longest = token;
+            }
+        }
+        return longest;
+    }
+
+    public static String normalizedBrand(String brand) {
+        return brand != null && !brand.isBlank() ? normalize(brand) : null;
+    }
+
+    // Doküman numaraları sıfırdan, listedeki sırayla verilir (warmUp'ta lastik id sırası)
+    public void rebuild(List<TireEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            brandIds.clear();
+            brandNames.clear();
+            brandDocs.clear();
+            rimDocs.clear();
+            docsByTireId.clear();
+            live.clear();
+            nextDoc = 0;
+            int capacity = Math.max(INITIAL_CAPACITY, entries.size());
+            tireIds = new int[capacity];
+            brandOf = new int[capacity];
+            rimOf = new int[capacity];
+            prices = new double[capacity];
+            models = new String[capacity];
+            sizes = new String[capacity];
+            for (TireEntry entry : entries) {
+                add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Transaction içindeyse commit sonrasına ertelenir, rollback olursa indeks bozulmaz.
+    // Ebat sadece id ile bağlanmışsa yazımı nesnede yoktur; satır veritabanından okunur
+    public void index(Tire tire) {
+        if (tire.getTireSize() != null && tire.getTireSize().getSize() == null) {
+            refresh(tire.getId());
+            return;
+        }
+        TireEntry entry = new TireEntry(tire.getId(), tire.getBrand(), tire.getModel(), tire.getPrice(),
+                tire.getTireSize() != null ? tire.getTireSize().getSize() : null);
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> put(entry)));
+    }
+
+    public void refresh(int tireId) {
+        applyRows(tireRepository.findCatalogRowsById(tireId));
+    }
+
+    // Ebat yeniden adlandırılınca o ebattaki lastikler yeni yazımla yeniden yazılır
+    public void refreshSize(int sizeId) {
+        applyRows(tireRepository.findCatalogRowsBySizeId(sizeId));
+    }
+
+    private void applyRows(List<Object[]> rows) {
+        List<TireEntry> entries = toEntries(rows);
+        if (!entries.isEmpty()) {
+            TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> entries.forEach(this::put)));
+        }
+    }
+
+    private static List<TireEntry> toEntries(List<Object[]> rows) {
+        List<TireEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(toEntry(row));
+        }
+        return entries;
+    }
+
+    private static TireEntry toEntry(Object[] row) {
+        return new TireEntry((Integer) row[0], (String) row[1], (String) row[2], (Double) row[3], (String) row[4]);
+    }
+
+    public void unindex(int tireId) {
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> remove(tireId)));
+    }
+
+    // Yeni lastik sona eklenir; güncellemede aynı doküman numarası eski kelimelerden silinip yeniden yazılır
+    public void put(TireEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByTireId.get(entry.tireId());
+            if (doc == null) {
+                add(entry);
+            } else {
+                clearPostings(doc);
+                write(doc, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Silinen numara boş kalır (sıra bozulmasın diye yeniden kullanılmaz), bir sonraki rebuild'de sıkışır
+    public void remove(int tireId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByTireId.remove(tireId);
+            if (doc != null) {
+                clearPostings(doc);
+                live.clear(doc);
+                models[doc] = null;
+                sizes[doc] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByTireId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TireSearchResult search(Query query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            for (String token : tokenize(query.text())) {
+                matches.and(prefixPostings(token));
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+            if (query.brand() != null && !query.brand().isBlank()) {
+                Integer brandId = brandIds.get(normalize(query.brand()));
+                matches.and(brandId != null ? brandDocs.get(brandId) : new BitSet());
+            }
+            if (query.rimSize() != null) {
+                matches.and(rimDocs.getOrDefault(query.rimSize(), new BitSet()));
+            }
+            return collect(matches, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Fiyat aralığı eşleşenler gezilirken uygulanır; aynı geçişte facet'ler sayılır ve istenen sayfa toplanır
+    private TireSearchResult collect(BitSet matches, Query query) {
+        double minPrice = query.minPrice() != null ? query.minPrice() : Double.NEGATIVE_INFINITY;
+        double maxPrice = query.maxPrice() != null ? query.maxPrice() : Double.POSITIVE_INFINITY;
+        int skip = query.page() * query.size();
+        int[] brandCounts = new int[brandNames.size()];
+        Map<Integer, Integer> rimCounts = new TreeMap<>();
+        int[] priceCounts = new int[PRICE_BUCKET_LABELS.length];
+        List<TireSearchResult.TireDto> items = new ArrayList<>(query.size());
+        int total = 0;
+
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            double price = prices[doc];
+            if (price < minPrice || price > maxPrice) {
+                continue;
+            }
+            if (total >= skip && items.size() < query.size()) {
+                items.add(new TireSearchResult.TireDto(tireIds[doc], brandNames.get(brandOf[doc]), models[doc], price,
+                        sizes[doc]));
+            }
+            total++;
+            brandCounts[brandOf[doc]]++;
+            if (rimOf[doc] != NO_RIM) {
+                rimCounts.merge(rimOf[doc], 1, Integer::sum);
+            }
+            priceCounts[priceBucket(price)]++;
+        }
+
+        Map<String, Integer> brands = new LinkedHashMap<>();
+        Integer[] byCount = new Integer[brandCounts.length];
+        for (int i = 0; i < byCount.length; i++) {
+            byCount[i] = i;
+        }
+        Arrays.sort(byCount, (a, b) -> Integer.compare(brandCounts[b], brandCounts[a]));
+        for (int brandId : byCount) {
+            if (brandCounts[brandId] > 0 && !brandNames.get(brandId).isEmpty()) {
+                brands.put(brandNames.get(brandId), brandCounts[brandId]);
+            }
+        }
+        Map<String, Integer> priceRanges = new LinkedHashMap<>();
+        for (int i = 0; i < PRICE_BUCKET_LABELS.length; i++) {
+            if (priceCounts[i] > 0) {
+                priceRanges.put(PRICE_BUCKET_LABELS[i], priceCounts[i]);
+            }
+        }
+        return new TireSearchResult(items, total, query.page(), query.size(), brands, rimCounts, priceRanges);
+    }
+
+    // Öneki paylaşan tüm kelimelerin posting listelerinin birleşimi
+    private BitSet prefixPostings(String prefix) {
+        BitSet exact = terms.get(prefix);
+        Map<String, BitSet> range = terms.subMap(prefix, false, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return exact != null ? exact : new BitSet();
+        }
+        BitSet union = exact != null ? (BitSet) exact.clone() : new BitSet();
+        for (BitSet postings : range.values()) {
+            union.or(postings);
+        }
+        return union;
+    }
+
+    private void add(TireEntry entry) {
+        int doc = nextDoc++;
+        ensureCapacity(nextDoc);
+        docsByTireId.put(entry.tireId(), doc);
+        live.set(doc);
+        write(doc, entry);
+    }
+
+    private void write(int doc, TireEntry entry) {
+        tireIds[doc] = entry.tireId();
+        String brand = entry.brand() != null ? entry.brand().trim() : "";
+        int brandId = brandIds.computeIfAbsent(normalize(brand), key -> {
+            brandNames.add(brand);
+            brandDocs.add(new BitSet());
+            return brandNames.size() - 1;
+        });
+        brandOf[doc] = brandId;
+        brandDocs.get(brandId).set(doc);
+        rimOf[doc] = rimSize(entry.size());
+        if (rimOf[doc] != NO_RIM) {
+            rimDocs.computeIfAbsent(rimOf[doc], key -> new BitSet()).set(doc);
+        }
+        prices[doc] = entry.price();
+        models[doc] = entry.model();
+        sizes[doc] = entry.size();
+        for (String term : documentTerms(brand, entry.model(), entry.size())) {
+            terms.computeIfAbsent(term, key -> new BitSet()).set(doc);
+        }
+    }
+
+    // Eski alanlardan kelimeleri yeniden üretip dokümanı listelerden siler; boşalan listeler atılır
+    private void clearPostings(int doc) {
+        String brand = brandNames.get(brandOf[doc]);
+        for (String term : documentTerms(brand, models[doc], sizes[doc])) {
+            BitSet postings = terms.get(term);
+            if (postings != null) {
+                postings.clear(doc);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        brandDocs.get(brandOf[doc]).clear(doc);
+        if (rimOf[doc] != NO_RIM) {
+            BitSet rim = rimDocs.get(rimOf[doc]);
+            rim.clear(doc);
+            if (rim.isEmpty()) {
+                rimDocs.remove(rimOf[doc]);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= tireIds.length) {
+            return;
+        }
+        int grown = Math.max(capacity, tireIds.length * 2);
+        tireIds = Arrays.copyOf(tireIds, grown);
+        brandOf = Arrays.copyOf(brandOf, grown);
+        rimOf = Arrays.copyOf(rimOf, grown);
+        prices = Arrays.copyOf(prices, grown);
+        models = Arrays.copyOf(models, grown);
+        sizes = Arrays.copyOf(sizes, grown);
+    }
+
+    // Ebat hem bütün halde ("205/55r16") hem parçalarıyla ("205", "55r16") aranabilir
+    private static Set<String> documentTerms(String brand, String model, String size) {
+        Set<String> result = new LinkedHashSet<>(tokenize(brand));
+        result.addAll(tokenize(model));
+        if (size != null && !size.isBlank()) {
+            result.add(normalize(size).replace(" ", ""));
+            result.addAll(tokenize(size));
+        }
+        return result;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static int rimSize(String size) {
+        TireSizeNotation notation = TireSizeNotation.parse(size);
+        if (notation != null) {
+            return notation.rimDiameter();
+        }
+        if (size == null) {
+            return NO_RIM;
+        }
+        Matcher matcher = RIM.matcher(size);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+        matcher = TRAILING_RIM.matcher(size.trim());
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : NO_RIM;
+    }
+
+    private static int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_EDGES.length && price >= PRICE_BUCKET_EDGES[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
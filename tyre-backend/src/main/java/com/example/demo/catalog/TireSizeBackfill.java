@@ -0,0 +1,165 @@
+package com.example.demo.catalog;
+
+import com.example.demo.entity.TireSize;
+import com.example.demo.repository.TireRepository;
+import com.example.demo.repository.TireSizeRepository;
+import com.example.demo.repository.UserTireRepository;
+import com.example.demo.repository.UserVehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// DESIGN PATTERN: Batch Migration
+// Sayısal ebat kolonları eklenmeden önce kaydedilmiş TireSize satırlarını doldurur (ddl-auto kolonları boş ekler).
+// Satırlar id sırasıyla parça parça okunur, her parça kendi kısa transaction'ında çözülüp yazılır.
+// Okunamayan yazımlar sadece normalize anahtarını alır. Başlangıçta hiçbir satır silinmez: anahtarı başka bir
+// satıra ait olan mükerrer satırlar (unique kısıt öncesi eşzamanlı yüklemelerden kalan) anahtarsız bırakılıp
+// raporlanır. Birleştirme tek seferlik, açıkça istenen bir adımdır (tire-sizes.backfill.merge-duplicates=true):
+// lastik/araç referansları en küçük id'li satıra taşınır, mükerrer satır silinir.
+@Component
+public class TireSizeBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(TireSizeBackfill.class);
+
+    private final TireSizeRepository tireSizeRepository;
+    private final TireRepository tireRepository;
+    private final UserTireRepository userTireRepository;
+    private final UserVehicleRepository userVehicleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final boolean mergeDuplicatesOnStartup;
+
+    public TireSizeBackfill(TireSizeRepository tireSizeRepository, TireRepository tireRepository,
+                            UserTireRepository userTireRepository, UserVehicleRepository userVehicleRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${tire-sizes.backfill.chunk-size:500}") int chunkSize,
+                            @Value("${tire-sizes.backfill.merge-duplicates:false}") boolean mergeDuplicatesOnStartup) {
+        this.tireSizeRepository = tireSizeRepository;
+        this.tireRepository = tireRepository;
+        this.userTireRepository = userTireRepository;
+        this.userVehicleRepository = userVehicleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.mergeDuplicatesOnStartup = mergeDuplicatesOnStartup;
+    }
+
+    // Ebat sözlüğü ve katalog indeksi ısınmadan önce çalışır
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            backfill();
+            if (mergeDuplicatesOnStartup) {
+                log.warn("tire-sizes.backfill.merge-duplicates is set; merging duplicate tire sizes. "
+                        + "Remove the property once the merge has run");
+                mergeDuplicates();
+            }
+        } catch (RuntimeException e) {
+            log.error("Tire size backfill failed", e);
+        }
+    }
+
+    // Çözülüp yazılan satır sayısını döner; mükerrer satırlara dokunmaz
+    public int backfill() {
+        ChunkResult total = run(false);
+        if (total.duplicates() > 0) {
+            log.warn("{} tire size row(s) share a key with an existing size and were left unkeyed; "
+                    + "run the merge with tire-sizes.backfill.merge-duplicates=true", total.duplicates());
+        }
+        return total.parsed();
+    }
+
+    // Tek seferlik: anahtarı başka satıra ait olan satırları o satıra birleştirir, birleştirilen satır sayısını döner
+    public int mergeDuplicates() {
+        ChunkResult total = run(true);
+        if (total.duplicates() > 0) {
+            log.info("Merged {} duplicate tire size(s)", total.duplicates());
+        }
+        return total.duplicates();
+    }
+
+    private ChunkResult run(boolean merge) {
+        int parsed = 0;
+        int duplicates = 0;
+        int chunks = 0;
+        int afterId = 0;
+        while (true) {
+            int from = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> backfillChunk(from, merge));
+            if (result.selected() == 0) {
+                break;
+            }
+            parsed += result.parsed();
+            duplicates += result.duplicates();
+            chunks++;
+            afterId = result.lastId();
+            if (result.selected() < chunkSize) {
+                break;
+            }
+        }
+        if (parsed > 0) {
+            log.info("Backfilled {} tire size(s) in {} chunk(s)", parsed, chunks);
+        }
+        return new ChunkResult(0, parsed, duplicates, afterId);
+    }
+
+    private record ChunkResult(int selected, int parsed, int duplicates, int lastId) {
+    }
+
+    private ChunkResult backfillChunk(int afterId, boolean merge) {
+        List<Integer> ids = tireSizeRepository.findUnparsedIdsAfter(afterId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0, 0, afterId);
+        }
+        List<TireSize> sizes = new ArrayList<>(tireSizeRepository.findAllById(ids));
+        sizes.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        List<String> keys = sizes.stream().map(size -> TireSizeNotation.normalize(size.getSize()))
+                .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        // Anahtarın sahibi: daha önce yazılmış satır ya da bu parçada ilk görülen
+        Map<String, TireSize> owners = new HashMap<>();
+        for (Object[] row : tireSizeRepository.findIdsByNormalizedSizeIn(keys)) {
+            owners.put((String) row[0], tireSizeRepository.getReferenceById((Integer) row[1]));
+        }
+
+        int parsed = 0;
+        int duplicates = 0;
+        for (TireSize size : sizes) {
+            String key = TireSizeNotation.normalize(size.getSize());
+            TireSize owner = key != null ? owners.get(key) : null;
+            if (owner != null && owner.getId() != size.getId()) {
+                duplicates++;
+                if (merge) {
+                    tireRepository.reassignTireSize(size, owner);
+                    userTireRepository.reassignTireSize(size, owner);
+                    userVehicleRepository.reassignTireSize(size, owner);
+                    tireSizeRepository.delete(size);
+                }
+                continue;
+            }
+            if (key != null) {
+                owners.put(key, size);
+            }
+            size.parseSize();
+            if (size.getWidth() != null) {
+                parsed++;
+            }
+        }
+        // Değişen satırlar commit'te dirty checking ile tek flush'ta yazılır
+        return new ChunkResult(ids.size(), parsed, duplicates, ids.get(ids.size() - 1));
+    }
+}
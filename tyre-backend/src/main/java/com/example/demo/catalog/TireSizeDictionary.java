@@ -0,0 +1,115 @@
+package com.example.demo.catalog;
+
+import com.example.demo.entity.TireSize;
+import com.example.demo.repository.TireSizeRepository;
+import com.example.demo.support.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// DESIGN PATTERN: Flyweight Pattern (interned dictionary)
+// Normalize edilmiş ebat yazımı -> TireSize id eşlemesi bellekte tutulur; lastik eklerken ebat için sorgu atılmaz.
+// Sözlükte olmayan ebat kendi kısa transaction'ında (REQUIRES_NEW) eklenir. Aynı anda başka bir yükleme aynı
+// ebadı eklediyse normalized_size unique kısıtı ikinci INSERT'i reddeder; kazanan satır okunup kullanılır.
+// intern, çağıranın transaction'ı açılmadan önce çağrılmalı; yoksa istek başına iki bağlantı tutulur.
+@Component
+public class TireSizeDictionary {
+
+    private final TireSizeRepository tireSizeRepository;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate freshRead;
+
+    // Sadece commit edilmiş satırlar girer
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public TireSizeDictionary(TireSizeRepository tireSizeRepository, PlatformTransactionManager transactionManager) {
+        this.tireSizeRepository = tireSizeRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshRead = new TransactionTemplate(transactionManager);
+        this.freshRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshRead.setReadOnly(true);
+    }
+
+    private record Entry(int id, String size) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Object[] row : tireSizeRepository.findAllDictionaryRows()) {
+            entries.put((String) row[0], new Entry((Integer) row[1], (String) row[2]));
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Ebadın kayıtlı satırını döner, yoksa ekler. Dönen nesne veritabanından okunmaz: id ve yazımdan kurulan
+    // ayrık (detached) bir kopyadır, ilişki alanına FK olarak yazılmaya yeter. Ebat boşsa null
+    public TireSize intern(String size) {
+        String key = TireSizeNotation.normalize(size);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = insertOrGet(key, size.trim());
+            entries.put(key, entry);
+        }
+        return toDetached(entry);
+    }
+
+    // Ebat güncellenir/silinirse eski anahtar commit sonrası düşer; bir sonraki istek veritabanından okur
+    public void evict(String size) {
+        String key = TireSizeNotation.normalize(size);
+        if (key != null) {
+            TransactionHooks.afterCommit(() -> entries.remove(key));
+        }
+    }
+
+    private Entry insertOrGet(String key, String size) {
+        Entry existing = find(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            return requiresNew.execute(status -> {
+                TireSize created = new TireSize();
+                created.setSize(size);
+                TireSize saved = tireSizeRepository.saveAndFlush(created);
+                return new Entry(saved.getId(), saved.getSize());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Yarışı kaybettik: kazananın satırı artık commit edilmiş durumda
+            Entry winner = find(key);
+            if (winner == null) {
+                throw e;
+            }
+            return winner;
+        }
+    }
+
+    // Çağıranın transaction'ından bağımsız okunur; yarışı kaybeden tarafta dış transaction'ın eski görüntüsüne
+    // (REPEATABLE READ) takılmamak için
+    private Entry find(String key) {
+        return freshRead.execute(status -> tireSizeRepository.findByNormalizedSize(key)
+                .map(found -> new Entry(found.getId(), found.getSize()))
+                .orElse(null));
+    }
+
+    private static TireSize toDetached(Entry entry) {
+        TireSize tireSize = new TireSize();
+        tireSize.setId(entry.id());
+        tireSize.setSize(entry.size());
+        tireSize.parseSize();
+        return tireSize;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.catalog;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DESIGN PATTERN: Value Object Pattern
+// Lastik ebadı yazımını ("205/55R16 91V") sayısal alanlara ayırır: genişlik (mm), yanak oranı (%),
+// yapı (R, ZR, D, B), jant çapı (inç), yük endeksi ve hız sembolü. Kayıtta bir kez çözülür, sorgular
+// indeksli sayısal kolonlar üzerinden çalışır. Dış çap plus-size (eşdeğer ebat) karşılaştırmasında kullanılır.
+public record TireSizeNotation(int width, int aspectRatio, String construction, int rimDiameter, Integer loadIndex,
+                               String speedRating) {
+
+    private static final double MM_PER_INCH = 25.4;
+
+    // [P|LT] genişlik / oran [yapı] jant [C] [yük[/yük2] hız] [XL, RF, M+S ...]
+    // "205/55R16", "205/55 R16 91V", "225/40ZR18 92Y XL", "195/65/15", "215/65R16C 109/107T"
+    // Gruplar: 1 önek, 2 genişlik, 3 oran, 4 yapı, 5 jant, 6 C, 7 yük, 8 ikinci yük, 9 hız, 10 ek işaretler
+    private static final Pattern NOTATION = Pattern.compile(
+            "^(P|LT)?\\s*(\\d{3})\\s*/\\s*(\\d{2,3})\\s*(ZR|R|D|B|/|-)?\\s*(\\d{2})(C)?"
+                    + "(?:\\s*(\\d{2,3})(?:/(\\d{2,3}))?\\s*\\(?([A-Z])\\)?)?(?:\\s+(.*))?$");
+
+    // Sözlük anahtarı: okunabilen ebatlar standart yazıma, diğerleri büyük harf ve tek boşluğa indirgenir.
+    // "205/55 r16 91v" ile "205/55R16 91V" aynı satırdır. P/LT öneki, C (hafif ticari), ikinci yük endeksi ve
+    // XL gibi ek işaretler anahtarda kalır: "215/65R16C 109/107T" ile "215/65R16 109T" farklı lastiklerdir
+    public static String normalize(String size) {
+        if (size == null || size.isBlank()) {
+            return null;
+        }
+        Matcher matcher = match(size);
+        if (matcher != null) {
+            return key(matcher);
+        }
+        return collapse(size);
+    }
+
+    public static TireSizeNotation parse(String size) {
+        Matcher matcher = match(size);
+        if (matcher == null) {
+            return null;
+        }
+        String construction = matcher.group(4);
+        if (construction == null || construction.equals("/") || construction.equals("-")) {
+            construction = null;
+        }
+        Integer loadIndex = matcher.group(7) != null ? Integer.valueOf(matcher.group(7)) : null;
+        return new TireSizeNotation(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)),
+                construction, Integer.parseInt(matcher.group(5)), loadIndex, matcher.group(9));
+    }
+
+    // Yazım kalıba uyuyor ve ölçüler makulse eşleşme, değilse null
+    private static Matcher match(String size) {
+        if (size == null) {
+            return null;
+        }
+        Matcher matcher = NOTATION.matcher(collapse(size));
+        if (!matcher.matches()) {
+            return null;
+        }
+        int width = Integer.parseInt(matcher.group(2));
+        int aspectRatio = Integer.parseInt(matcher.group(3));
+        int rimDiameter = Integer.parseInt(matcher.group(5));
+        if (width < 100 || width > 400 || aspectRatio < 20 || aspectRatio > 100 || rimDiameter < 8 || rimDiameter > 30) {
+            return null;
+        }
+        return matcher;
+    }
+
+    // "LT235/85R16 120/116Q", "215/65R16C 109/107T", "225/40ZR18 92Y XL"
+    private static String key(Matcher matcher) {
+        String construction = matcher.group(4);
+        StringBuilder builder = new StringBuilder();
+        if (matcher.group(1) != null) {
+            builder.append(matcher.group(1));
+        }
+        builder.append(matcher.group(2)).append('/').append(matcher.group(3))
+                .append(construction == null || construction.equals("/") || construction.equals("-") ? "R" : construction)
+                .append(matcher.group(5));
+        if (matcher.group(6) != null) {
+            builder.append('C');
+        }
+        if (matcher.group(7) != null) {
+            builder.append(' ').append(Integer.parseInt(matcher.group(7)));
+            if (matcher.group(8) != null) {
+                builder.append('/').append(Integer.parseInt(matcher.group(8)));
+            }
+            builder.append(matcher.group(9));
+        }
+        if (matcher.group(10) != null && !matcher.group(10).isEmpty()) {
+            builder.append(' ').append(matcher.group(10));
+        }
+        return builder.toString();
+    }
+
+    private static String collapse(String size) {
+        return size.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    // Jant + iki yanak yüksekliği (mm)
+    public int overallDiameterMm() {
+        return (int) Math.round(rimDiameter * MM_PER_INCH + 2.0 * width * aspectRatio / 100.0);
+    }
+
+    // Sayısal çekirdeğin yazımı: "205/55R16 91V"; yapı bilinmiyorsa radyal kabul edilir.
+    // Önek, C ve ikinci yük endeksini içermez; sözlük anahtarı için normalize kullanılır
+    public String canonical() {
+        StringBuilder builder = new StringBuilder()
+                .append(width).append('/').append(aspectRatio)
+                .append(construction != null ? construction : "R").append(rimDiameter);
+        if (loadIndex != null) {
+            builder.append(' ').append(loadIndex);
+            if (speedRating != null) {
+                builder.append(speedRating);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.catalog;
+
+import com.example.demo.repository.TireStockRepository;
+import com.example.demo.support.TransactionHooks;
+import com.example.demo.support.WarmUpBuffer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// DESIGN PATTERN: Inverted Index Pattern
+// Ebat -> (dükkan -> toplam stok adedi) eşlemesi bellekte tutulur. Aynı ebattan birden fazla lastik modeli olan
+// dükkanın adetleri toplanır. Stok satırı eklenince/değişince/silinince sadece farkı uygulanır; "bu ebat hangi
+// dükkanlarda en az n adet var" sorusu tek harita okumasıdır, konumla birleştirme servis katmanında yapılır.
+@Component
+public class TireStockIndex {
+
+    private final TireStockRepository tireStockRepository;
+
+    // stockId -> satırın indekse yazılmış hali (fark hesaplamak için)
+    private final Map<Integer, StockEntry> stocks = new HashMap<>();
+    private final Map<String, Map<Integer, Integer>> quantitiesBySize = new ConcurrentHashMap<>();
+    private final WarmUpBuffer warmUpBuffer = new WarmUpBuffer();
+    private volatile boolean ready;
+
+    public TireStockIndex(TireStockRepository tireStockRepository) {
+        this.tireStockRepository = tireStockRepository;
+    }
+
+    // sizeKey: TireSizeNotation.normalize(ebat)
+    public record StockEntry(int stockId, int shopId, int tireId, String sizeKey, int quantity) {
+    }
+
+    // Stok okunurken commit edilen değişiklikler (rezervasyon farkları dahil) biriktirilir,
+    // rebuild'den sonra commit sırasıyla uygulanır
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUpBuffer.warmUp(() -> toEntries(tireStockRepository.findAllIndexRows()), this::rebuild);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(Collection<StockEntry> entries) {
+        stocks.clear();
+        quantitiesBySize.clear();
+        for (StockEntry entry : entries) {
+            apply(entry);
+        }
+    }
+
+    // Transaction içinde satırın güncel halini okur (id, dükkan, lastik, ebat, adet), commit sonrası uygular.
+    // Satır yoksa ya da lastiğin/dükkanın bağı kopmuşsa indeksten çıkar
+    public void refresh(int stockId) {
+        List<Object[]> rows = tireStockRepository.findIndexRowsById(stockId);
+        StockEntry entry = rows.isEmpty() ? null : toEntry(rows.get(0));
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> {
+            if (entry == null) {
+                remove(stockId);
+            } else {
+                put(entry);
+            }
+        }));
+    }
+
+    public void unindex(int stockId) {
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> remove(stockId)));
+    }
+
+    // Lastiğin ebadı değişince stok satırları yeni ebada taşınır. Ebat istekten değil veritabanından okunur:
+    // sadece id ile gönderilen ebadın yazımı istekte yoktur
+    public void refreshTire(int tireId) {
+        applyRows(tireStockRepository.findIndexRowsByTireId(tireId));
+    }
+
+    // Ebat yeniden adlandırılınca o ebattaki tüm stok satırları yeni anahtara taşınır
+    public void refreshSize(int sizeId) {
+        applyRows(tireStockRepository.findIndexRowsBySizeId(sizeId));
+    }
+
+    private void applyRows(List<Object[]> rows) {
+        List<StockEntry> entries = toEntries(rows);
+        if (!entries.isEmpty()) {
+            TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> {
+                synchronized (this) {
+                    entries.forEach(this::apply);
+                }
+            }));
+        }
+    }
+
+    private static List<StockEntry> toEntries(List<Object[]> rows) {
+        List<StockEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(toEntry(row));
+        }
+        return entries;
+    }
+
+    // Rezervasyon/iade farkı commit sonrası uygulanır. Mutlak adet yerine fark: commit sırası ne olursa olsun
+    // eşzamanlı düşümlerin toplamı doğru kalır
+    public void addQuantity(int stockId, int delta) {
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> {
+            synchronized (this) {
+                StockEntry entry = stocks.get(stockId);
+                if (entry != null) {
+                    apply(new StockEntry(stockId, entry.shopId(), entry.tireId(), entry.sizeKey(),
+                            Math.max(0, entry.quantity() + delta)));
+                }
+            }
+        }));
+    }
+
+    public synchronized void put(StockEntry entry) {
+        apply(entry);
+    }
+
+    public synchronized void remove(int stockId) {
+        StockEntry old = stocks.remove(stockId);
+        if (old != null) {
+            adjust(old.sizeKey(), old.shopId(), -old.quantity());
+        }
+    }
+
+    // Ebadı en az minQuantity adet stokta olan dükkanlar (dükkan -> adet); sıralama yok
+    public Map<Integer, Integer> shopsWithSize(String size, int minQuantity) {
+        String sizeKey = TireSizeNotation.normalize(size);
+        Map<Integer, Integer> shops = sizeKey != null ? quantitiesBySize.get(sizeKey) : null;
+        if (shops == null) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Integer> result = new HashMap<>();
+        shops.forEach((shopId, quantity) -> {
+            if (quantity >= minQuantity) {
+                result.put(shopId, quantity);
+            }
+        });
+        return result;
+    }
+
+    private void apply(StockEntry entry) {
+        StockEntry old = stocks.put(entry.stockId(), entry);
+        if (old != null) {
+            adjust(old.sizeKey(), old.shopId(), -old.quantity());
+        }
+        adjust(entry.sizeKey(), entry.shopId(), entry.quantity());
+    }
+
+    // Toplam sıfıra inerse dükkan, ebadın hiç dükkanı kalmazsa ebat haritadan çıkar
+    private void adjust(String sizeKey, int shopId, int delta) {
+        if (sizeKey == null || delta == 0) {
+            return;
+        }
+        Map<Integer, Integer> shops = quantitiesBySize.computeIfAbsent(sizeKey, key -> new ConcurrentHashMap<>());
+        Integer total = shops.merge(shopId, delta, Integer::sum);
+        if (total != null && total <= 0) {
+            shops.remove(shopId);
+        }
+        if (shops.isEmpty()) {
+            quantitiesBySize.remove(sizeKey);
+        }
+    }
+
+    // Negatif adet girilmişse yok sayılır; toplamlar sıfırın altına düşmez
+    private static StockEntry toEntry(Object[] row) {
+        return new StockEntry((Integer) row[0], (Integer) row[1], (Integer) row[2],
+                TireSizeNotation.normalize((String) row[3]), Math.max(0, (Integer) row[4]));
+    }
+}
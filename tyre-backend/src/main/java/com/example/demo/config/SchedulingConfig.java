@@ -0,0 +1,11 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// DESIGN PATTERN: Configuration Pattern
+// @Scheduled ile çalışan periyodik işleri (heartbeat, temizlik vb.) etkinleştirir
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -59,6 +59,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/tire-shop-services/**").hasAnyRole("SHOP", "USER")
                 .requestMatchers("/api/tire-shop-services/**").hasRole("SHOP")
                 .requestMatchers("/api/tire-stock/**").hasRole("SHOP")
+                .requestMatchers(HttpMethod.GET, "/api/tires/search").hasAnyRole("SHOP", "USER")
                 .requestMatchers("/api/tires/**").hasRole("SHOP")
                 .requestMatchers("/api/tire-sizes/**").hasAnyRole("SHOP", "USER")
                 .requestMatchers("/api/vehicle-types/**").hasRole("USER")
@@ -67,6 +68,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/favorites/**").hasRole("USER")
                 .requestMatchers(HttpMethod.POST, "/api/requests").hasRole("USER")
                 .requestMatchers("/api/requests/**").hasAnyRole("USER", "SHOP")
+                // Metrikler iç veridir: müşteri/lastikçi token'ı okuyamaz, sadece ADMIN rolüyle üretilmiş token
+                .requestMatchers("/actuator/health").authenticated()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -2,13 +2,17 @@ package com.example.demo.controller;
 
 import com.example.demo.entity.Appointment;
 import com.example.demo.dto.AppointmentCreateRequest;
+import com.example.demo.dto.AppointmentPage;
 import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.service.AppointmentService;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -29,6 +33,29 @@ public class AppointmentController {
     public List<AppointmentResponse> getAppointmentsByShop(@PathVariable int shopId) {
         return appointmentService.getAppointmentsByShopIdAsDTO(shopId);
     }
+
+    // İmleç tabanlı sayfalı liste: /page?from=2024-01-01&to=2024-12-31&status=COMPLETED&limit=50&cursor=...
+    @GetMapping("/page")
+    public AppointmentPage getAppointmentPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return appointmentService.getAppointmentPageForAuthenticatedUser(from, to, status, cursor, limit);
+    }
+
+    @GetMapping("/shop/{shopId}/page")
+    public AppointmentPage getAppointmentPageByShop(
+            @PathVariable int shopId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return appointmentService.getAppointmentPageByShopId(shopId, from, to, status, cursor, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AppointmentResponse> getAppointmentById(@PathVariable int id) {
         AppointmentResponse appointment = appointmentService.getAppointmentByIdAsDTO(id);
@@ -66,6 +93,8 @@ public class AppointmentController {
                 return ResponseEntity.ok(appointment);
             }
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             if (e.getMessage().contains("Unauthorized")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Bu randevuyu güncelleme yetkiniz yok.");
@@ -1,36 +1,43 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.ServiceRequest;
+import com.example.demo.entity.TireShop;
+import com.example.demo.exception.ForbiddenException;
 import com.example.demo.service.ServiceRequestService;
-import com.example.demo.service.EmergencyAlertService;
+import com.example.demo.service.ServiceRequestStreamService;
+import com.example.demo.service.TireShopService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 // DESIGN PATTERN: MVC Pattern - Controller Layer
 // Acil yardım taleplerini yönetir
-// Emergency alert servisini koordine eder
+// Canlı talep akışını (SSE) sunar
 @RestController
 @RequestMapping("/api/requests")
 public class ServiceRequestController {
 
     private final ServiceRequestService serviceRequestService;
-    private final EmergencyAlertService emergencyAlertService;
+    private final ServiceRequestStreamService streamService;
+    private final TireShopService tireShopService;
 
-    public ServiceRequestController(ServiceRequestService serviceRequestService, EmergencyAlertService emergencyAlertService) {
+    public ServiceRequestController(ServiceRequestService serviceRequestService,
+                                    ServiceRequestStreamService streamService, TireShopService tireShopService) {
         this.serviceRequestService = serviceRequestService;
-        this.emergencyAlertService = emergencyAlertService;
+        this.streamService = streamService;
+        this.tireShopService = tireShopService;
     }
 
     // Yeni yardım isteği oluştur
     @PostMapping
     public ResponseEntity<ServiceRequest> createRequest(@RequestBody ServiceRequest request) {
+        // Acil durum alerti commit sonrası EmergencyAlertService kuyruğundan asenkron gönderilir
         ServiceRequest createdRequest = serviceRequestService.createServiceRequest(request);
-        
-        // Acil durum alerti gönder
-        emergencyAlertService.sendEmergencyAlert(createdRequest);
-        
         return ResponseEntity.ok(createdRequest);
     }
 
@@ -49,6 +56,8 @@ public class ServiceRequestController {
     // Yardım isteğini kabul et
     @PutMapping("/{id}/accept")
     public ResponseEntity<ServiceRequest> acceptRequest(@PathVariable int id) {
+        // Dükkan olmayan principal 403 (ForbiddenException), yarışı kaybeden dükkan 409 (ConflictException);
+        // ikisi de GlobalExceptionHandler'da çevrilir
         ServiceRequest request = serviceRequestService.acceptRequest(id);
         if (request != null) {
             return ResponseEntity.ok(request);
@@ -70,7 +79,23 @@ public class ServiceRequestController {
 
     // Shop için yakındaki acil talepleri getir
     @GetMapping("/nearby/{shopId}")
-    public List<ServiceRequest> getNearbyRequests(@PathVariable int shopId) {
-        return serviceRequestService.getNearbyRequests(shopId, 15.0); // 15 km radius
+    public List<ServiceRequest> getNearbyRequests(@PathVariable int shopId,
+                                                  @RequestParam(required = false, defaultValue = "50") int limit) {
+        return serviceRequestService.getNearbyRequests(shopId, 15.0, Math.max(1, limit)); // 15 km radius
+    }
+
+    // Shop paneli için canlı acil talep akışı (SSE); yeniden bağlanırken Last-Event-ID ile kaçırılanlar gönderilir.
+    // Akışa sadece o lastikçinin kendisi abone olabilir (başkası 403); lastikçi silinmişse 404
+    @GetMapping(value = "/stream/{shopId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRequests(@PathVariable int shopId,
+                                                     @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof TireShop current)
+                || current.getId() != shopId) {
+            throw new ForbiddenException("Bu akışa sadece ilgili lastikçi abone olabilir.");
+        }
+        return tireShopService.findById(shopId)
+                .map(shop -> ResponseEntity.ok(streamService.subscribe(shop, lastEventId)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
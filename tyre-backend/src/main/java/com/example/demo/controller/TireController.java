@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.catalog.TireCatalogIndex;
+import com.example.demo.dto.TireSearchResult;
 import com.example.demo.entity.Tire;
 import com.example.demo.service.TireService;
 import org.springframework.http.HttpStatus;
@@ -12,6 +14,9 @@ import java.util.List;
 @RequestMapping("/api/tires")
 public class TireController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final TireService tireService;
 
     public TireController(TireService tireService) {
@@ -23,6 +28,25 @@ public class TireController {
         return tireService.getAllTires();
     }
 
+    // Katalog araması: q kelimeleri önek olarak eşleşir (ör. "mich prim 205/55"), marka/jant/fiyat filtreleri
+    // ve facet sayılarıyla sayfalı döner
+    @GetMapping("/search")
+    public TireSearchResult searchTires(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) String brand,
+                                        @RequestParam(required = false) Integer rim,
+                                        @RequestParam(required = false) Double minPrice,
+                                        @RequestParam(required = false) Double maxPrice,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page >= 0 ve 1 <= size <= " + MAX_PAGE_SIZE + " olmalı");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice maxPrice'tan büyük olamaz");
+        }
+        return tireService.searchTires(new TireCatalogIndex.Query(q, brand, rim, minPrice, maxPrice, page, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Tire> getTireById(@PathVariable int id) {
         Tire tire = tireService.getTireById(id);
@@ -37,6 +61,15 @@ public class TireController {
         return ResponseEntity.status(HttpStatus.CREATED).body(tireService.createTire(newTire));
     }
 
+    // Envanter yüklemesi: aynı istekteki lastikler tek transaction'da eklenir
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Tire>> createTires(@RequestBody List<Tire> newTires) {
+        if (newTires.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Tek istekte en fazla " + MAX_BULK_SIZE + " lastik eklenebilir");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(tireService.createTires(newTires));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Tire> updateTire(@PathVariable int id, @RequestBody Tire updatedTire) {
         Tire result = tireService.updateTire(id, updatedTire);
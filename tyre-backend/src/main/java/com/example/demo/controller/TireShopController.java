@@ -1,12 +1,24 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AvailabilityResponse;
+import com.example.demo.dto.ShopCluster;
+import com.example.demo.dto.ShopStockResult;
+import com.example.demo.dto.TireShopDetail;
+import com.example.demo.dto.TireShopSummary;
 import com.example.demo.entity.TireShop;
+import com.example.demo.service.AvailabilityService;
 import com.example.demo.service.TireShopService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 // DESIGN PATTERN: MVC Pattern - Controller Layer
 // TireShop CRUD operasyonlarını yönetir
@@ -16,30 +28,115 @@ import java.util.List;
 public class TireShopController {
 
     private final TireShopService tireShopService;
+    private final AvailabilityService availabilityService;
 
-    public TireShopController(TireShopService tireShopService) {
+    public TireShopController(TireShopService tireShopService, AvailabilityService availabilityService) {
         this.tireShopService = tireShopService;
+        this.availabilityService = availabilityService;
     }
 
+    private static final Set<String> EXPANDABLE = Set.of("services", "stocks");
+    private static final int MAX_STOCK_RESULTS = 100;
+
     @GetMapping
-    public List<TireShop> getAllTireShops(
+    public List<TireShopSummary> getAllTireShops(
             @RequestParam(required = false) Double latitude,
             @RequestParam(required = false) Double longitude,
-            @RequestParam(required = false, defaultValue = "10.0") Double radiusKm
+            @RequestParam(required = false, defaultValue = "10.0") Double radiusKm,
+            @RequestParam(required = false, defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime openAt
     ) {
         if (latitude != null && longitude != null) {
-            return tireShopService.getNearbyTireShops(latitude, longitude, radiusKm);
+            // openAt verilmişse o an, openNow=true ise şu an açık olanlar
+            LocalDateTime openFilter = openAt != null ? openAt : openNow ? LocalDateTime.now() : null;
+            return tireShopService.getNearbyTireShops(latitude, longitude, radiusKm, openFilter);
         }
         return tireShopService.getAllTireShops();
     }
 
+    // En yakın k dükkan (yarıçap vermeden); openNow/openAt ile sadece o an açık olanlar
+    @GetMapping("/nearest")
+    public List<TireShopSummary> getNearestTireShops(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false, defaultValue = "10") int k,
+            @RequestParam(required = false, defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime openAt
+    ) {
+        LocalDateTime openFilter = openAt != null ? openAt : openNow ? LocalDateTime.now() : null;
+        return tireShopService.getNearestTireShops(latitude, longitude, k, openFilter);
+    }
+
+    // Ebadı stokta olan yakın dükkanlar tek istekte: ?size=205/55R16&latitude=..&longitude=..&radiusKm=20&minQuantity=4
+    @GetMapping("/in-stock")
+    public List<ShopStockResult> getNearbyShopsWithStock(
+            @RequestParam String size,
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false, defaultValue = "20.0") Double radiusKm,
+            @RequestParam(required = false, defaultValue = "1") int minQuantity,
+            @RequestParam(required = false, defaultValue = "20") int limit
+    ) {
+        if (radiusKm <= 0 || limit < 1 || limit > MAX_STOCK_RESULTS) {
+            throw new IllegalArgumentException("radiusKm > 0 ve 1 <= limit <= " + MAX_STOCK_RESULTS + " olmalı");
+        }
+        return tireShopService.getNearbyShopsWithStock(size, latitude, longitude, radiusKm, minQuantity, limit);
+    }
+
+    // Harita kümeleri; bbox = minBoylam,minEnlem,maxBoylam,maxEnlem (batı,güney,doğu,kuzey)
+    @GetMapping("/clusters")
+    public List<ShopCluster> getClusters(@RequestParam String bbox, @RequestParam int zoom) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox dört değer içermeli: minBoylam,minEnlem,maxBoylam,maxEnlem");
+        }
+        double[] values = new double[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                values[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz bbox değeri: " + parts[i]);
+            }
+        }
+        if (values[1] > values[3] || Math.abs(values[1]) > 90 || Math.abs(values[3]) > 90
+                || Math.abs(values[0]) > 180 || Math.abs(values[2]) > 180) {
+            throw new IllegalArgumentException("Geçersiz bbox: " + bbox);
+        }
+        return tireShopService.getClusters(values[1], values[0], values[3], values[2], zoom);
+    }
+
+    // Dükkan detayı; ağır koleksiyonlar sadece istenirse: ?expand=services,stocks
     @GetMapping("/{id}")
-    public ResponseEntity<TireShop> getTireShopById(@PathVariable int id) {
-        return tireShopService.findById(id)
+    public ResponseEntity<TireShopDetail> getTireShopById(@PathVariable int id,
+                                                          @RequestParam(required = false, defaultValue = "") String expand) {
+        Set<String> fields = Arrays.stream(expand.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        for (String field : fields) {
+            if (!EXPANDABLE.contains(field)) {
+                throw new IllegalArgumentException("Geçersiz expand değeri: " + field + " (services, stocks)");
+            }
+        }
+        return tireShopService.getTireShopDetail(id, fields)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new RuntimeException("Lastikçi bulunamadı"));
     }
 
+    // Seçilen gün için boş randevu saatleri (serviceId verilirse hizmet süresine göre)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @PathVariable int id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer serviceId
+    ) {
+        AvailabilityResponse availability = availabilityService.getAvailability(id, date, serviceId);
+        if (availability != null) {
+            return ResponseEntity.ok(availability);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @PostMapping
     public ResponseEntity<TireShop> createTireShop(@RequestBody TireShop tireShop) {
         return ResponseEntity.status(HttpStatus.CREATED).body(tireShopService.createTireShop(tireShop));
@@ -23,6 +23,27 @@ public class TireSizeController {
         return tireSizeService.getAllSizes();
     }
 
+    // Aralık araması, ör. 16 inç ve 195-215 genişlik: ?minRim=16&maxRim=16&minWidth=195&maxWidth=215
+    @GetMapping("/search")
+    public List<TireSize> searchSizes(@RequestParam(required = false) Integer minRim,
+                                      @RequestParam(required = false) Integer maxRim,
+                                      @RequestParam(required = false) Integer minWidth,
+                                      @RequestParam(required = false) Integer maxWidth,
+                                      @RequestParam(required = false) Integer minAspect,
+                                      @RequestParam(required = false) Integer maxAspect) {
+        return tireSizeService.searchSizes(minRim, maxRim, minWidth, maxWidth, minAspect, maxAspect);
+    }
+
+    // Eşdeğer dış çaplı alternatif ebatlar (plus-size)
+    @GetMapping("/{id}/plus-sizes")
+    public ResponseEntity<List<TireSize>> getPlusSizes(@PathVariable int id) {
+        List<TireSize> sizes = tireSizeService.getPlusSizes(id);
+        if (sizes != null) {
+            return ResponseEntity.ok(sizes);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TireSize> getSizeById(@PathVariable int id) {
         TireSize size = tireSizeService.getSizeById(id);
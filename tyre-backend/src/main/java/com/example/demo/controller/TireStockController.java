@@ -1,6 +1,9 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.StockReservationRequest;
 import com.example.demo.entity.TireStock;
+import com.example.demo.entity.TireStockReservation;
+import com.example.demo.service.TireStockReservationService;
 import com.example.demo.service.TireStockService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,9 +16,11 @@ import java.util.List;
 public class TireStockController {
 
     private final TireStockService tireStockService;
+    private final TireStockReservationService reservationService;
 
-    public TireStockController(TireStockService tireStockService) {
+    public TireStockController(TireStockService tireStockService, TireStockReservationService reservationService) {
         this.tireStockService = tireStockService;
+        this.reservationService = reservationService;
     }    @GetMapping
     public List<TireStock> getAllStocks() {
         return tireStockService.getAllStocks();
@@ -40,9 +45,11 @@ public class TireStockController {
         return ResponseEntity.status(HttpStatus.CREATED).body(tireStockService.createStock(stock));
     }
 
+    // expectedQuantity: istemcinin okuduğu adet; o zamandan beri değiştiyse 409
     @PutMapping("/{id}")
-    public ResponseEntity<TireStock> updateStock(@PathVariable int id, @RequestBody TireStock updated) {
-        TireStock stock = tireStockService.updateStock(id, updated);
+    public ResponseEntity<TireStock> updateStock(@PathVariable int id, @RequestParam int expectedQuantity,
+                                                 @RequestBody TireStock updated) {
+        TireStock stock = tireStockService.updateStock(id, expectedQuantity, updated);
         if (stock != null) {
             return ResponseEntity.ok(stock);
         }
@@ -56,4 +63,44 @@ public class TireStockController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    // Adet stoktan koşullu düşülür; yetmiyorsa 409
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<TireStockReservation> reserve(@PathVariable int id,
+                                                        @RequestBody StockReservationRequest request) {
+        TireStockReservation reservation = reservationService.reserve(id, request.getQuantity(),
+                request.getAppointmentId());
+        if (reservation != null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<TireStockReservation> getReservation(@PathVariable int reservationId) {
+        return ok(reservationService.getReservation(reservationId));
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<TireStockReservation> commitReservation(@PathVariable int reservationId) {
+        return ok(reservationService.commit(reservationId));
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<TireStockReservation> releaseReservation(@PathVariable int reservationId) {
+        return ok(reservationService.release(reservationId));
+    }
+
+    @PutMapping("/reservations/{reservationId}/appointment/{appointmentId}")
+    public ResponseEntity<TireStockReservation> linkReservation(@PathVariable int reservationId,
+                                                                @PathVariable int appointmentId) {
+        return ok(reservationService.linkToAppointment(reservationId, appointmentId));
+    }
+
+    private static ResponseEntity<TireStockReservation> ok(TireStockReservation reservation) {
+        if (reservation != null) {
+            return ResponseEntity.ok(reservation);
+        }
+        return ResponseEntity.notFound().build();
+    }
 }
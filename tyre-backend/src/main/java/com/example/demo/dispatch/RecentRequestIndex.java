@@ -0,0 +1,200 @@
+package com.example.demo.dispatch;
+
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.geo.GeoDistance;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import com.example.demo.support.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// DESIGN PATTERN: Registry Pattern (in-memory recent index)
+// Kullanıcı başına son açık acil talepleri (zaman penceresi içinde) bellekte tutar
+// Aynı kullanıcı kısa sürede yakın bir noktadan tekrar "yardım iste"ye basarsa yeni talep açılmaz,
+// mevcut açık talep döner; veritabanında tarama yapılmaz. Kayıt kullanıcı kilidi tutulmadan yapılır,
+// talep indekste ancak transaction'ı commit olunca görünür.
+@Component
+public class RecentRequestIndex {
+
+    // Oluşturulmakta olan talebin transaction'ı en fazla bu kadar beklenir
+    private static final long PENDING_WAIT_MILLIS = 10_000;
+
+    private final double radiusKm;
+    private final long windowMillis;
+
+    private final Map<Integer, Deque<Recent>> byUser = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> userByRequest = new ConcurrentHashMap<>();
+
+    public RecentRequestIndex(@Value("${service-requests.coalesce.radius-meters:500}") double radiusMeters,
+                              @Value("${service-requests.coalesce.window-seconds:600}") long windowSeconds) {
+        this.radiusKm = radiusMeters / 1000.0;
+        this.windowMillis = windowSeconds * 1000L;
+    }
+
+    // created: kaydın transaction'ı commit olunca talep, geri alınınca null ile tamamlanır.
+    // Tamamlanmamış kayıt "oluşturuluyor" işaretidir; aynı noktadan gelen ikinci basış onu bekler
+    private record Recent(double latitude, double longitude, long createdAtMillis,
+                          CompletableFuture<ServiceRequest> created) {
+
+        boolean pending() {
+            return !created.isDone();
+        }
+
+        ServiceRequest request() {
+            return created.getNow(null);
+        }
+    }
+
+    // Kullanıcı başına: pencere ve yarıçap içinde commit edilmiş açık talep varsa onu döner (created=false).
+    // Yakında oluşturulmakta olan bir talep varsa onun transaction'ını bekler; yoksa creator ile yeni talebi
+    // kilidin dışında oluşturur (created=true). Talep indekse commit'ten sonra girer.
+    // Bekleme bağlantı tutmasın diye transaction dışından çağrılır; creator kendi transaction'ını açar
+    public Result findOrCreate(int userId, double latitude, double longitude, long nowMillis,
+                               Supplier<ServiceRequest> creator) {
+        boolean waitForPending = true;
+        while (true) {
+            Deque<Recent> recent = byUser.computeIfAbsent(userId, id -> new ArrayDeque<>());
+            Recent pending = null;
+            Recent entry = null;
+            synchronized (recent) {
+                // pruneAll bu kuyruğu boş diye haritadan çıkarmış olabilir; güncel olanla tekrar dene
+                if (byUser.get(userId) != recent) {
+                    continue;
+                }
+                prune(recent, nowMillis);
+                GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+                for (Recent candidate : recent) {
+                    if (origin.distanceKm(candidate.latitude(), candidate.longitude()) > radiusKm) {
+                        continue;
+                    }
+                    if (!candidate.pending()) {
+                        return new Result(candidate.request(), false);
+                    }
+                    if (waitForPending && pending == null) {
+                        pending = candidate;
+                    }
+                }
+                if (pending == null) {
+                    entry = new Recent(latitude, longitude, nowMillis, new CompletableFuture<>());
+                    recent.addLast(entry);
+                }
+            }
+            if (entry != null) {
+                return create(recent, userId, entry, creator);
+            }
+            ServiceRequest existing = await(pending);
+            if (existing != null) {
+                return new Result(existing, false);
+            }
+            // İlk talep geri alındıysa tekrar bakılır; bekleme süresi dolduysa bu basış kendi talebini açar
+            waitForPending = !pending.pending();
+        }
+    }
+
+    private Result create(Deque<Recent> recent, int userId, Recent entry, Supplier<ServiceRequest> creator) {
+        ServiceRequest created;
+        try {
+            created = creator.get();
+        } catch (RuntimeException e) {
+            settle(recent, userId, entry, null);
+            throw e;
+        }
+        // Transaction geri alınırsa talep hiç oluşmamış sayılır
+        TransactionHooks.afterCompletion(status ->
+                settle(recent, userId, entry, status == TransactionSynchronization.STATUS_COMMITTED ? created : null));
+        return new Result(created, true);
+    }
+
+    private void settle(Deque<Recent> recent, int userId, Recent entry, ServiceRequest request) {
+        synchronized (recent) {
+            if (request == null) {
+                recent.remove(entry);
+            } else {
+                userByRequest.put(request.getId(), userId);
+            }
+        }
+        entry.created().complete(request);
+    }
+
+    // Geri alınırsa ya da süre dolarsa null
+    private static ServiceRequest await(Recent pending) {
+        try {
+            return pending.created().get(PENDING_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    public record Result(ServiceRequest request, boolean created) {
+    }
+
+    // Tamamlanan/süresi dolan talep artık açık değil; yeni basış yeni talep açar
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onServiceRequestEvent(ServiceRequestEvent event) {
+        if (event.getType() == ServiceRequestEvent.Type.COMPLETED || event.getType() == ServiceRequestEvent.Type.EXPIRED) {
+            forget(event.getRequest().getId());
+        }
+    }
+
+    public void forget(int requestId) {
+        Integer userId = userByRequest.remove(requestId);
+        if (userId == null) {
+            return;
+        }
+        Deque<Recent> recent = byUser.get(userId);
+        if (recent != null) {
+            synchronized (recent) {
+                recent.removeIf(entry -> entry.request() != null && entry.request().getId() == requestId);
+            }
+        }
+    }
+
+    // Bir daha talep açmayan kullanıcıların eski kayıtları
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneAll() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Integer, Deque<Recent>> entry : byUser.entrySet()) {
+            Deque<Recent> recent = entry.getValue();
+            synchronized (recent) {
+                prune(recent, now);
+                if (recent.isEmpty()) {
+                    byUser.remove(entry.getKey(), recent);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return userByRequest.size();
+    }
+
+    private void prune(Deque<Recent> recent, long nowMillis) {
+        Iterator<Recent> iterator = recent.iterator();
+        while (iterator.hasNext()) {
+            Recent entry = iterator.next();
+            if (!entry.pending() && nowMillis - entry.createdAtMillis() > windowMillis) {
+                iterator.remove();
+                if (entry.request() != null) {
+                    userByRequest.remove(entry.request().getId());
+                }
+            }
+        }
+    }
+}
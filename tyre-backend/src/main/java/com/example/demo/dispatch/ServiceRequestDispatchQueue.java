@@ -0,0 +1,231 @@
+package com.example.demo.dispatch;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.RequestStatus;
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.geo.BoundingBox;
+import com.example.demo.geo.GeoDistance;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import com.example.demo.repository.ServiceRequestRepository;
+import com.example.demo.support.WarmUpBuffer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// DESIGN PATTERN: Priority Queue Pattern + Observer Pattern (Concrete Observer)
+// Bekleyen (PENDING) acil talepleri öncelik (HIGH önce), sonra yaş (eski önce) sırasında bellekte tutar
+// Talepler ayrıca ~28 km'lik hücrelere dağıtılır; yakındaki talepler sorgusu sadece çevredeki hücrelerin
+// sıralı kümelerini birleştirir ve ilk N sonuçta durur, tüm bekleyen listeyi her çağrıda sıralamaz.
+// Başlangıçta veritabanından doldurulur, sonra commit edilen olaylarla artımlı güncellenir.
+@Component
+public class ServiceRequestDispatchQueue {
+
+    static final double CELL_SIZE_DEG = 0.25;
+    private static final int LON_CELLS = (int) Math.round(360.0 / CELL_SIZE_DEG);
+    private static final int LAT_CELLS = (int) Math.round(180.0 / CELL_SIZE_DEG);
+
+    // Öncelik azalan, oluşturulma zamanı artan, eşitlikte id
+    static final Comparator<QueuedRequest> DISPATCH_ORDER = Comparator
+            .comparingInt(QueuedRequest::priorityRank).reversed()
+            .thenComparingLong(QueuedRequest::createdAtMillis)
+            .thenComparingInt(QueuedRequest::id);
+
+    // Aynı öncelik ve yaşta olanlar arasında yakın olan önce
+    private static final Comparator<Candidate> NEARBY_ORDER = Comparator
+            .comparingInt((Candidate candidate) -> candidate.queued().priorityRank()).reversed()
+            .thenComparingLong(candidate -> candidate.queued().createdAtMillis())
+            .thenComparingDouble(Candidate::distanceKm)
+            .thenComparingInt(candidate -> candidate.queued().id());
+
+    private final ServiceRequestRepository serviceRequestRepository;
+
+    private final NavigableSet<QueuedRequest> ordered = new ConcurrentSkipListSet<>(DISPATCH_ORDER);
+    private final Map<Long, NavigableSet<QueuedRequest>> cells = new ConcurrentHashMap<>();
+    private final Map<Integer, QueuedRequest> byId = new ConcurrentHashMap<>();
+    private final WarmUpBuffer warmUpBuffer = new WarmUpBuffer();
+    private volatile boolean ready;
+
+    public ServiceRequestDispatchQueue(ServiceRequestRepository serviceRequestRepository) {
+        this.serviceRequestRepository = serviceRequestRepository;
+    }
+
+    public record QueuedRequest(ServiceRequest request, int id, int priorityRank, long createdAtMillis,
+                                double latitude, double longitude) {
+
+        static QueuedRequest of(ServiceRequest request) {
+            Priority priority = request.getPriority() != null ? request.getPriority() : Priority.MEDIUM;
+            long createdAt = request.getCreatedAt() != null ? request.getCreatedAt().getTime() : Long.MAX_VALUE;
+            return new QueuedRequest(request, request.getId(), priority.ordinal(), createdAt,
+                    request.getLatitude(), request.getLongitude());
+        }
+
+        boolean sameRank(QueuedRequest other) {
+            return priorityRank == other.priorityRank && createdAtMillis == other.createdAtMillis;
+        }
+    }
+
+    // Okuma sırasında commit edilen olaylar biriktirilir, rebuild'den sonra sırayla uygulanır
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUpBuffer.warmUp(() -> serviceRequestRepository.findByStatus(RequestStatus.PENDING), this::rebuild);
+        ready = true;
+    }
+
+    // Isınma bitmeden gelen sorgular veritabanı yoluna düşer
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(Collection<ServiceRequest> pending) {
+        ordered.clear();
+        cells.clear();
+        byId.clear();
+        for (ServiceRequest request : pending) {
+            add(request);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onServiceRequestEvent(ServiceRequestEvent event) {
+        ServiceRequest request = event.getRequest();
+        if (event.getType() == ServiceRequestEvent.Type.CREATED) {
+            warmUpBuffer.apply(() -> add(request));
+        } else {
+            warmUpBuffer.apply(() -> remove(request.getId()));
+        }
+    }
+
+    public synchronized void add(ServiceRequest request) {
+        remove(request.getId());
+        QueuedRequest queued = QueuedRequest.of(request);
+        byId.put(queued.id(), queued);
+        ordered.add(queued);
+        cells.computeIfAbsent(cellKey(queued.latitude(), queued.longitude()),
+                key -> new ConcurrentSkipListSet<>(DISPATCH_ORDER)).add(queued);
+    }
+
+    public synchronized void remove(int requestId) {
+        QueuedRequest queued = byId.remove(requestId);
+        if (queued == null) {
+            return;
+        }
+        ordered.remove(queued);
+        NavigableSet<QueuedRequest> cell = cells.get(cellKey(queued.latitude(), queued.longitude()));
+        if (cell != null) {
+            cell.remove(queued);
+        }
+    }
+
+    // Tüm bekleyenler dağıtım sırasında
+    public List<ServiceRequest> pending(int limit) {
+        List<ServiceRequest> result = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (QueuedRequest queued : ordered) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(queued.request());
+        }
+        return result;
+    }
+
+    // Yarıçap içindeki ilk N talep: öncelik, yaş, eşitlikte mesafe
+    public List<ServiceRequest> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        PriorityQueue<CellCursor> merge = new PriorityQueue<>((a, b) -> DISPATCH_ORDER.compare(a.head, b.head));
+        for (NavigableSet<QueuedRequest> cell : cellsAround(latitude, longitude, radiusKm)) {
+            CellCursor cursor = new CellCursor(cell.iterator());
+            if (cursor.advance()) {
+                merge.add(cursor);
+            }
+        }
+
+        List<Candidate> picked = new ArrayList<>();
+        GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+        GeoDistance.Radius radius = GeoDistance.radius(radiusKm);
+        while (!merge.isEmpty()) {
+            CellCursor cursor = merge.poll();
+            QueuedRequest queued = cursor.head;
+            // N dolduktan sonra sadece son elemanla aynı öncelik/yaştakiler mesafe sıralaması için alınır
+            if (picked.size() >= limit && !queued.sameRank(picked.get(picked.size() - 1).queued())) {
+                break;
+            }
+            double distance = origin.distanceWithinKm(queued.latitude(), queued.longitude(), radius);
+            if (distance >= 0) {
+                picked.add(new Candidate(queued, distance));
+            }
+            if (cursor.advance()) {
+                merge.add(cursor);
+            }
+        }
+
+        picked.sort(NEARBY_ORDER);
+        List<ServiceRequest> result = new ArrayList<>(Math.min(limit, picked.size()));
+        for (int i = 0; i < picked.size() && i < limit; i++) {
+            result.add(picked.get(i).queued().request());
+        }
+        return result;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private record Candidate(QueuedRequest queued, double distanceKm) {
+    }
+
+    private static final class CellCursor {
+        private final Iterator<QueuedRequest> iterator;
+        private QueuedRequest head;
+
+        private CellCursor(Iterator<QueuedRequest> iterator) {
+            this.iterator = iterator;
+        }
+
+        private boolean advance() {
+            head = iterator.hasNext() ? iterator.next() : null;
+            return head != null;
+        }
+    }
+
+    private List<NavigableSet<QueuedRequest>> cellsAround(double latitude, double longitude, double radiusKm) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        int minLat = latCell(box.getMinLatitude());
+        int maxLat = latCell(box.getMaxLatitude());
+        int minLon = lonCell(box.getMinLongitude());
+        int maxLon = lonCell(box.getMaxLongitude());
+        List<NavigableSet<QueuedRequest>> result = new ArrayList<>();
+        for (int lat = minLat; lat <= maxLat; lat++) {
+            for (int lon = minLon; lon <= maxLon; lon++) {
+                NavigableSet<QueuedRequest> cell = cells.get((long) lat * LON_CELLS + lon);
+                if (cell != null && !cell.isEmpty()) {
+                    result.add(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return (long) latCell(latitude) * LON_CELLS + lonCell(longitude);
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / CELL_SIZE_DEG)));
+    }
+
+    private static int lonCell(double longitude) {
+        return Math.min(LON_CELLS - 1, Math.max(0, (int) Math.floor((longitude + 180.0) / CELL_SIZE_DEG)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Randevu listelerinin imleç tabanlı (keyset) sayfası
+// nextCursor null ise son sayfadır; değilse bir sonraki istekte cursor parametresi olarak gönderilir
+public class AppointmentPage {
+    private List<AppointmentResponse> items;
+    private String nextCursor;
+
+    public AppointmentPage(List<AppointmentResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<AppointmentResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AppointmentResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
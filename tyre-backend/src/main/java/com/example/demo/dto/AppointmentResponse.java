@@ -1,8 +1,14 @@
 package com.example.demo.dto;
 
 import com.example.demo.entity.AppointmentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class AppointmentResponse {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
     private int id;
     private String date;
     private String time;
@@ -14,6 +20,10 @@ public class AppointmentResponse {
     private String customerName;
     private String customerPhone;
 
+    // Sayfalama imleci (keyset) için ham tarih; JSON'a yazılmaz
+    @JsonIgnore
+    private LocalDateTime appointmentDate;
+
     // Constructor
     public AppointmentResponse() {}
 
@@ -32,6 +42,32 @@ public class AppointmentResponse {
         this.customerPhone = customerPhone;
     }
 
+    // JPQL constructor projection: tüm alanlar tek JOIN sorgusundan düz kolonlar olarak gelir
+    public AppointmentResponse(int id, LocalDateTime appointmentDate, String shopName, String address,
+                               Integer serviceId, String serviceName, Double servicePrice,
+                               String vehicleBrand, String vehicleModel, String licensePlate,
+                               AppointmentStatus status, String customerName, String customerPhone) {
+        this.id = id;
+        this.appointmentDate = appointmentDate;
+        if (appointmentDate != null) {
+            this.date = appointmentDate.format(DATE_FORMATTER);
+            this.time = appointmentDate.format(TIME_FORMATTER);
+        }
+        this.shopName = shopName;
+        this.address = address;
+        if (serviceId != null) {
+            this.service = new ServiceDto(serviceId, serviceName, servicePrice != null ? servicePrice : 0.0);
+        }
+        if (licensePlate != null || vehicleBrand != null || vehicleModel != null) {
+            this.vehicle = vehicleBrand + " " + vehicleModel + " (" + licensePlate + ")";
+        } else {
+            this.vehicle = "Araç bilgisi mevcut değil";
+        }
+        this.status = status;
+        this.customerName = customerName;
+        this.customerPhone = customerPhone;
+    }
+
     // Getters and Setters
     public int getId() {
         return id;
@@ -113,6 +149,10 @@ public class AppointmentResponse {
         this.customerPhone = customerPhone;
     }
 
+    public LocalDateTime getAppointmentDate() {
+        return appointmentDate;
+    }
+
     // Inner class for Service DTO
     public static class ServiceDto {
         private int id;
@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Bir dükkanın seçilen gündeki boş randevu başlangıç saatleri
+public class AvailabilityResponse {
+    private String date;
+    private int slotMinutes;
+    private int durationMinutes;
+    private List<String> availableTimes;
+
+    public AvailabilityResponse(String date, int slotMinutes, int durationMinutes, List<String> availableTimes) {
+        this.date = date;
+        this.slotMinutes = slotMinutes;
+        this.durationMinutes = durationMinutes;
+        this.availableTimes = availableTimes;
+    }
+
+    // Getters and Setters
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(int durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public List<String> getAvailableTimes() {
+        return availableTimes;
+    }
+
+    public void setAvailableTimes(List<String> availableTimes) {
+        this.availableTimes = availableTimes;
+    }
+}
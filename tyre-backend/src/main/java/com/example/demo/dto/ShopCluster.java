@@ -0,0 +1,71 @@
+package com.example.demo.dto;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Haritada tek işaretçi olarak çizilen dükkan grubu: adet, ağırlık merkezi, en düşük hizmet fiyatı, en iyi puan
+// Grupta tek dükkan varsa shopId dolu gelir, istemci doğrudan dükkan işaretçisi çizebilir
+public class ShopCluster {
+    private double latitude;
+    private double longitude;
+    private int count;
+    private Double minPrice;
+    private Double bestRating;
+    private Integer shopId;
+
+    public ShopCluster(double latitude, double longitude, int count, Double minPrice, Double bestRating, Integer shopId) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.count = count;
+        this.minPrice = minPrice;
+        this.bestRating = bestRating;
+        this.shopId = shopId;
+    }
+
+    // Getters and Setters
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getBestRating() {
+        return bestRating;
+    }
+
+    public void setBestRating(Double bestRating) {
+        this.bestRating = bestRating;
+    }
+
+    public Integer getShopId() {
+        return shopId;
+    }
+
+    public void setShopId(Integer shopId) {
+        this.shopId = shopId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.dto;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Aranan ebadı stokta tutan yakın dükkan: özet bilgiler, mesafe ve o ebattaki toplam adet
+public class ShopStockResult {
+    private TireShopSummary shop;
+    private double distanceKm;
+    private int quantity;
+
+    public ShopStockResult(TireShopSummary shop, double distanceKm, int quantity) {
+        this.shop = shop;
+        this.distanceKm = distanceKm;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public TireShopSummary getShop() {
+        return shop;
+    }
+
+    public void setShop(TireShopSummary shop) {
+        this.shop = shop;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
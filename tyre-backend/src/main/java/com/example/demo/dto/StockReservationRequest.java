@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+public class StockReservationRequest {
+
+    private int quantity;
+    private Integer appointmentId;
+
+    public StockReservationRequest() {}
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getAppointmentId() {
+        return appointmentId;
+    }
+
+    public void setAppointmentId(Integer appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+}
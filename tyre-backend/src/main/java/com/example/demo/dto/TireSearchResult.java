@@ -0,0 +1,145 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Lastik kataloğu aramasının bir sayfası ve eşleşen tüm kayıtlar üzerinden facet sayıları
+// (marka, jant çapı, fiyat aralığı); total sayfadan bağımsız toplam eşleşme sayısıdır
+public class TireSearchResult {
+    private List<TireDto> items;
+    private int total;
+    private int page;
+    private int size;
+    private Map<String, Integer> brands;
+    private Map<Integer, Integer> rimSizes;
+    private Map<String, Integer> priceRanges;
+
+    public TireSearchResult(List<TireDto> items, int total, int page, int size, Map<String, Integer> brands,
+                            Map<Integer, Integer> rimSizes, Map<String, Integer> priceRanges) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.brands = brands;
+        this.rimSizes = rimSizes;
+        this.priceRanges = priceRanges;
+    }
+
+    // Getters and Setters
+    public List<TireDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TireDto> items) {
+        this.items = items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Map<String, Integer> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(Map<String, Integer> brands) {
+        this.brands = brands;
+    }
+
+    public Map<Integer, Integer> getRimSizes() {
+        return rimSizes;
+    }
+
+    public void setRimSizes(Map<Integer, Integer> rimSizes) {
+        this.rimSizes = rimSizes;
+    }
+
+    public Map<String, Integer> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public void setPriceRanges(Map<String, Integer> priceRanges) {
+        this.priceRanges = priceRanges;
+    }
+
+    // Nested DTO for a catalog entry
+    public static class TireDto {
+        private int id;
+        private String brand;
+        private String model;
+        private double price;
+        private String size;
+
+        public TireDto() {
+        }
+
+        public TireDto(int id, String brand, String model, double price, String size) {
+            this.id = id;
+            this.brand = brand;
+            this.model = model;
+            this.price = price;
+            this.size = size;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public void setBrand(String brand) {
+            this.brand = brand;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public void setModel(String model) {
+            this.model = model;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public void setSize(String size) {
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Tek dükkan görünümü: özet alanlar + konum; hizmetler ve stoklar sadece expand= ile istenirse dolar
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TireShopDetail extends TireShopSummary {
+    private Integer locationId;
+    private String locationAddress;
+    private List<ServiceDto> services;
+    private List<StockDto> tireStocks;
+
+    public TireShopDetail() {
+    }
+
+    public TireShopDetail(int id, String shopName, String email, String phone, String address,
+                          Double latitude, Double longitude, String openingHour, String closingHour,
+                          Integer locationId, String locationAddress) {
+        super(id, shopName, email, phone, address, latitude, longitude, openingHour, closingHour);
+        this.locationId = locationId;
+        this.locationAddress = locationAddress;
+    }
+
+    // Getters and Setters
+    public Integer getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(Integer locationId) {
+        this.locationId = locationId;
+    }
+
+    public String getLocationAddress() {
+        return locationAddress;
+    }
+
+    public void setLocationAddress(String locationAddress) {
+        this.locationAddress = locationAddress;
+    }
+
+    public List<ServiceDto> getServices() {
+        return services;
+    }
+
+    public void setServices(List<ServiceDto> services) {
+        this.services = services;
+    }
+
+    public List<StockDto> getTireStocks() {
+        return tireStocks;
+    }
+
+    public void setTireStocks(List<StockDto> tireStocks) {
+        this.tireStocks = tireStocks;
+    }
+
+    public static class ServiceDto {
+        private int id;
+        private String serviceName;
+        private double price;
+        private Integer durationMinutes;
+
+        public ServiceDto() {}
+
+        public ServiceDto(int id, String serviceName, double price, Integer durationMinutes) {
+            this.id = id;
+            this.serviceName = serviceName;
+            this.price = price;
+            this.durationMinutes = durationMinutes;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public void setServiceName(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public Integer getDurationMinutes() {
+            return durationMinutes;
+        }
+
+        public void setDurationMinutes(Integer durationMinutes) {
+            this.durationMinutes = durationMinutes;
+        }
+    }
+
+    public static class StockDto {
+        private int id;
+        private Integer tireId;
+        private String brand;
+        private String model;
+        private Double price;
+        private int stockQuantity;
+
+        public StockDto() {}
+
+        public StockDto(int id, Integer tireId, String brand, String model, Double price, int stockQuantity) {
+            this.id = id;
+            this.tireId = tireId;
+            this.brand = brand;
+            this.model = model;
+            this.price = price;
+            this.stockQuantity = stockQuantity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public Integer getTireId() {
+            return tireId;
+        }
+
+        public void setTireId(Integer tireId) {
+            this.tireId = tireId;
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public void setBrand(String brand) {
+            this.brand = brand;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public void setModel(String model) {
+            this.model = model;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+
+        public int getStockQuantity() {
+            return stockQuantity;
+        }
+
+        public void setStockQuantity(int stockQuantity) {
+            this.stockQuantity = stockQuantity;
+        }
+    }
+}
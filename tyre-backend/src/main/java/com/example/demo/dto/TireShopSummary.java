@@ -0,0 +1,105 @@
+package com.example.demo.dto;
+
+// DESIGN PATTERN: Data Transfer Object (DTO) Pattern
+// Dükkan listeleri (tümü, yakındakiler, en yakınlar) için hafif görünüm
+// Projeksiyon sorgusuyla tek SELECT'te doldurulur; hizmet/stok koleksiyonları ve şifre içermez
+public class TireShopSummary {
+    private int id;
+    private String shopName;
+    private String email;
+    private String phone;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private String openingHour;
+    private String closingHour;
+
+    public TireShopSummary() {
+    }
+
+    public TireShopSummary(int id, String shopName, String email, String phone, String address,
+                           Double latitude, Double longitude, String openingHour, String closingHour) {
+        this.id = id;
+        this.shopName = shopName;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.openingHour = openingHour;
+        this.closingHour = closingHour;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getShopName() {
+        return shopName;
+    }
+
+    public void setShopName(String shopName) {
+        this.shopName = shopName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getOpeningHour() {
+        return openingHour;
+    }
+
+    public void setOpeningHour(String openingHour) {
+        this.openingHour = openingHour;
+    }
+
+    public String getClosingHour() {
+        return closingHour;
+    }
+
+    public void setClosingHour(String closingHour) {
+        this.closingHour = closingHour;
+    }
+}
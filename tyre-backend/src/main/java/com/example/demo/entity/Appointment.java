@@ -8,7 +8,11 @@ import java.time.LocalDateTime;
 // Builder Pattern ile oluşturulabilir (AppointmentBuilder kullanılarak)
 // Observer Pattern ile oluşturulduğunda bildirimler tetiklenir
 @Entity
-@Table(name = "Appointments")
+@Table(name = "Appointments", indexes = {
+        // Keyset sayfalama: dükkan/müşteri bazında tarih sıralı tarama (InnoDB PK'yı index sonuna ekler)
+        @Index(name = "idx_appointments_shop_date", columnList = "shop_id, appointmentDate"),
+        @Index(name = "idx_appointments_user_date", columnList = "user_id, appointmentDate")
+})
 public class Appointment {
 
     @Id
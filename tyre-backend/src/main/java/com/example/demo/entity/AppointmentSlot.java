@@ -0,0 +1,69 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// DESIGN PATTERN: Entity Pattern (Domain Model Pattern)
+// Bir randevunun kapladığı her 30 dakikalık slot için bir satır
+// (shop_id, slot_start) unique olduğu için farklı node'lardan aynı slota gelen iki kayıttan sadece biri commit olur.
+@Entity
+@Table(name = "AppointmentSlots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_slots_shop_start", columnNames = {"shop_id", "slot_start"}),
+        indexes = @Index(name = "idx_appointment_slots_appointment", columnList = "appointment_id"))
+public class AppointmentSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "shop_id", nullable = false)
+    private int shopId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "appointment_id", nullable = false)
+    private int appointmentId;
+
+    public AppointmentSlot() {
+    }
+
+    public AppointmentSlot(int shopId, LocalDateTime slotStart, int appointmentId) {
+        this.shopId = shopId;
+        this.slotStart = slotStart;
+        this.appointmentId = appointmentId;
+    }
+
+    // Getter ve Setter
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getShopId() {
+        return shopId;
+    }
+
+    public void setShopId(int shopId) {
+        this.shopId = shopId;
+    }
+
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    public void setAppointmentId(int appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+}
@@ -6,5 +6,6 @@ package com.example.demo.entity;
 public enum RequestStatus {
     PENDING,
     ACCEPTED,
-    COMPLETED
+    COMPLETED,
+    EXPIRED // Süresi içinde hiçbir lastikçi kabul etmedi (ServiceRequestExpiryService)
 }
@@ -0,0 +1,10 @@
+package com.example.demo.entity;
+
+// DESIGN PATTERN: Enum Pattern (Type-Safe Constant Pattern)
+// Stok rezervasyonu durumları; sadece HELD'den çıkış vardır (koşullu UPDATE ile)
+public enum ReservationStatus {
+    HELD,      // Adet stoktan düşüldü, satış/iptal bekleniyor
+    COMMITTED, // Satış tamamlandı; adet stoğa dönmez
+    RELEASED,  // İptal edildi; adet stoğa geri eklendi
+    EXPIRED    // Süresi doldu; adet stoğa geri eklendi (TireStockReservationService)
+}
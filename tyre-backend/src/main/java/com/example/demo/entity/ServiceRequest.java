@@ -8,7 +8,12 @@ import java.sql.Timestamp;
 // Acil yardım talebi domain nesnesini temsil eder
 // State pattern'e uygun olarak status field'i ile durum yönetimi yapar
 @Entity
-@Table(name = "ServiceRequests")
+@Table(name = "ServiceRequests", indexes = {
+        // Bekleyen talepleri konuma göre daraltan bounding-box sorgusu için
+        @Index(name = "idx_service_requests_status_lat_lon", columnList = "status, latitude, longitude"),
+        // Süresi dolan bekleyen talepleri bulan expiry taraması için
+        @Index(name = "idx_service_requests_status_priority_created", columnList = "status, priority, created_at")
+})
 public class ServiceRequest {
 
     @Id
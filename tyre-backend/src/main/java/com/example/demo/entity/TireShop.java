@@ -1,6 +1,8 @@
 package com.example.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.util.List;
 
@@ -8,7 +10,10 @@ import java.util.List;
 // Lastik dükkanı domain nesnesini temsil eder
 // Coğrafi konum bilgileri ve hizmet ilişkileri içerir
 @Entity
-@Table(name = "TireShops")
+@Table(name = "TireShops", indexes = {
+        // Yakındaki dükkan sorgularında bounding-box ön filtresi için
+        @Index(name = "idx_tireshops_lat_lon", columnList = "latitude, longitude")
+})
 public class TireShop {
 
     @Id
@@ -20,6 +25,8 @@ public class TireShop {
     @Column(unique = true)
     private String email;
 
+    // İstekte okunur (kayıt/şifre değişikliği), hiçbir yanıtta yazılmaz
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     private String phone;
@@ -34,6 +41,11 @@ public class TireShop {
 
     private String closingHour;
 
+    // openingHour/closingHour'un derlenmiş hali (WeeklyHours, 672 bit); kayıt/güncellemede servis doldurur
+    @JsonIgnore
+    @Column(name = "weekly_open_mask", length = 84)
+    private byte[] weeklyOpenMask;
+
     @ManyToOne
     @JoinColumn(name = "location_id")
     private Location location;
@@ -127,6 +139,14 @@ public class TireShop {
         this.closingHour = closingHour;
     }
 
+    public byte[] getWeeklyOpenMask() {
+        return weeklyOpenMask;
+    }
+
+    public void setWeeklyOpenMask(byte[] weeklyOpenMask) {
+        this.weeklyOpenMask = weeklyOpenMask;
+    }
+
     public Location getLocation() {
         return location;
     }
@@ -13,7 +13,12 @@ public class TireShopService {
     private String serviceName;
 
     @Column(nullable = false)
-    private double price;@ManyToOne
+    private double price;
+
+    // Randevu takviminde kaplanan süre; boşsa 30 dakika kabul edilir
+    private Integer durationMinutes;
+
+    @ManyToOne
     @JoinColumn(name = "tire_shop_id")
     @JsonIgnoreProperties({"services", "tireStocks", "password"}) // Prevent circular reference
     private TireShop tireShop;
@@ -41,6 +46,14 @@ public class TireShopService {
         this.price = price;
     }
 
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
     public TireShop getTireShop() {
         return tireShop;
     }
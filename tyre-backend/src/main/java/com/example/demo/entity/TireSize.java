@@ -1,11 +1,19 @@
 package com.example.demo.entity;
 
+import com.example.demo.catalog.TireSizeNotation;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
-@Table(name = "TireSizes")
+@Table(name = "TireSizes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tiresizes_normalized_size", columnNames = "normalized_size")
+}, indexes = {
+        // "16 inç, 195-215 genişlik" gibi aralık sorguları: önce jant eşitliği/aralığı, sonra genişlik ve oran
+        @Index(name = "idx_tiresizes_rim_width_aspect", columnList = "rim_diameter, width, aspect_ratio"),
+        // Plus-size (eşdeğer dış çap) aramaları
+        @Index(name = "idx_tiresizes_overall_diameter", columnList = "overall_diameter_mm")
+})
 public class TireSize {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,6 +21,32 @@ public class TireSize {
 
     private String size;
 
+    // TireSizeNotation.normalize(size); aynı ebadın ikinci kez eklenmesini veritabanı engeller
+    @JsonIgnore
+    @Column(name = "normalized_size")
+    private String normalizedSize;
+
+    // size yazımından kayıtta türetilir (parseSize); okunamayan yazımlarda boş kalır
+    private Integer width;
+
+    @Column(name = "aspect_ratio")
+    private Integer aspectRatio;
+
+    @Column(length = 2)
+    private String construction;
+
+    @Column(name = "rim_diameter")
+    private Integer rimDiameter;
+
+    @Column(name = "load_index")
+    private Integer loadIndex;
+
+    @Column(name = "speed_rating", length = 1)
+    private String speedRating;
+
+    @Column(name = "overall_diameter_mm")
+    private Integer overallDiameterMm;
+
     @JsonIgnore
     @OneToMany(mappedBy = "tireSize")
     private List<UserVehicle> vehicles;
@@ -21,6 +55,21 @@ public class TireSize {
     @OneToMany(mappedBy = "tireSize")
     private List<Tire> tires;
 
+    // Her kayıt/güncellemede yazım yeniden çözülür; istemcinin gönderdiği sayısal alanlar dikkate alınmaz
+    @PrePersist
+    @PreUpdate
+    public void parseSize() {
+        normalizedSize = TireSizeNotation.normalize(size);
+        TireSizeNotation notation = TireSizeNotation.parse(size);
+        width = notation != null ? notation.width() : null;
+        aspectRatio = notation != null ? notation.aspectRatio() : null;
+        construction = notation != null ? notation.construction() : null;
+        rimDiameter = notation != null ? notation.rimDiameter() : null;
+        loadIndex = notation != null ? notation.loadIndex() : null;
+        speedRating = notation != null ? notation.speedRating() : null;
+        overallDiameterMm = notation != null ? notation.overallDiameterMm() : null;
+    }
+
     // Getter ve Setter'lar
 
     public int getId() {
@@ -39,6 +88,70 @@ public class TireSize {
         this.size = size;
     }
 
+    public String getNormalizedSize() {
+        return normalizedSize;
+    }
+
+    public void setNormalizedSize(String normalizedSize) {
+        this.normalizedSize = normalizedSize;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getAspectRatio() {
+        return aspectRatio;
+    }
+
+    public void setAspectRatio(Integer aspectRatio) {
+        this.aspectRatio = aspectRatio;
+    }
+
+    public String getConstruction() {
+        return construction;
+    }
+
+    public void setConstruction(String construction) {
+        this.construction = construction;
+    }
+
+    public Integer getRimDiameter() {
+        return rimDiameter;
+    }
+
+    public void setRimDiameter(Integer rimDiameter) {
+        this.rimDiameter = rimDiameter;
+    }
+
+    public Integer getLoadIndex() {
+        return loadIndex;
+    }
+
+    public void setLoadIndex(Integer loadIndex) {
+        this.loadIndex = loadIndex;
+    }
+
+    public String getSpeedRating() {
+        return speedRating;
+    }
+
+    public void setSpeedRating(String speedRating) {
+        this.speedRating = speedRating;
+    }
+
+    public Integer getOverallDiameterMm() {
+        return overallDiameterMm;
+    }
+
+    public void setOverallDiameterMm(Integer overallDiameterMm) {
+        this.overallDiameterMm = overallDiameterMm;
+    }
+
     public List<UserVehicle> getVehicles() {
         return vehicles;
     }
@@ -0,0 +1,109 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// DESIGN PATTERN: Entity Pattern (Domain Model Pattern)
+// Bir stok satırından ayrılmış adet. Ayırma anında adet TireStock'tan koşullu UPDATE ile düşülür; rezervasyon
+// bırakılır ya da süresi dolarsa geri eklenir. Randevuya bağlanırsa randevu tamamlanınca satışa dönüşür.
+@Entity
+@Table(name = "TireStockReservations", indexes = {
+        // Expiry taraması: süresi dolan HELD satırlar
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_stock_reservations_appointment", columnList = "appointment_id")
+})
+public class TireStockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "stock_id", nullable = false)
+    private int stockId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "appointment_id")
+    private Integer appointmentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public TireStockReservation() {
+    }
+
+    public TireStockReservation(int stockId, int quantity, Integer appointmentId, LocalDateTime createdAt,
+                                LocalDateTime expiresAt) {
+        this.stockId = stockId;
+        this.quantity = quantity;
+        this.appointmentId = appointmentId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.status = ReservationStatus.HELD;
+    }
+
+    // Getter ve Setter
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getStockId() {
+        return stockId;
+    }
+
+    public void setStockId(int stockId) {
+        this.stockId = stockId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Integer getAppointmentId() {
+        return appointmentId;
+    }
+
+    public void setAppointmentId(Integer appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.exception;
+
+// İstenen kaynak başka bir işlem tarafından alınmışsa (ör. dolu randevu saati) fırlatılır; 409 döner
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
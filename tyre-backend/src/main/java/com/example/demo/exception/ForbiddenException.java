@@ -0,0 +1,9 @@
+package com.example.demo.exception;
+
+// Giriş yapmış ama bu işleme yetkisi olmayan kullanıcı (ör. müşteri hesabıyla talep kabulü) için fırlatılır; 403 döner
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
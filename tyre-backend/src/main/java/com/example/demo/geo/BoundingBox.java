@@ -0,0 +1,57 @@
+package com.example.demo.geo;
+
+// DESIGN PATTERN: Value Object Pattern
+// Bir nokta etrafındaki yarıçapı kapsayan enlem/boylam kutusunu temsil eder
+// SQL tarafında indeksli BETWEEN ön filtresi için kullanılır, kesin mesafe haversine ile hesaplanır
+public final class BoundingBox {
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        this.minLatitude = minLatitude;
+        this.maxLatitude = maxLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+        double latSpan = radiusKm / GeoDistance.KM_PER_DEGREE;
+        double minLat = Math.max(-90.0, latitude - latSpan);
+        double maxLat = Math.min(90.0, latitude + latSpan);
+
+        // Kutba yakın ya da 180. meridyeni aşan kutularda boylam filtresi uygulanmaz
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        if (cosLat < 1e-6) {
+            return new BoundingBox(minLat, maxLat, -180.0, 180.0);
+        }
+        double lonSpan = latSpan / cosLat;
+        if (lonSpan >= 180.0 || longitude - lonSpan < -180.0 || longitude + lonSpan > 180.0) {
+            return new BoundingBox(minLat, maxLat, -180.0, 180.0);
+        }
+        return new BoundingBox(minLat, maxLat, longitude - lonSpan, longitude + lonSpan);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+}
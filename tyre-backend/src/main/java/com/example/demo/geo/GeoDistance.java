@@ -0,0 +1,121 @@
+package com.example.demo.geo;
+
+// DESIGN PATTERN: Utility Pattern
+// Tüm büyük daire (haversine) mesafe hesapları tek yerde
+// Sorgu noktasının radyan/cos değerleri Origin'de bir kez hesaplanır; adaylar double[] enlem/boylam dizileri
+// (structure-of-arrays) olarak toplu işlenir. Yarıçap kontrolü önce enlem bandıyla (kesin alt sınır) eler,
+// sonra haversine ara değerini eşikle karşılaştırır; asin/sqrt sadece yarıçap içindekiler için çalışır.
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private static final double HALF_RADIANS_PER_DEGREE = Math.PI / 360.0;
+    // Enlem bandı karşılaştırmasında yuvarlama payı (derece); sınırdaki noktaları yanlışlıkla elemez
+    private static final double LATITUDE_BAND_SLACK_DEG = 1e-9;
+
+    private GeoDistance() {
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        return origin(lat1, lon1).distanceKm(lat2, lon2);
+    }
+
+    public static Origin origin(double latitude, double longitude) {
+        return new Origin(latitude, longitude);
+    }
+
+    public static Radius radius(double km) {
+        return new Radius(km);
+    }
+
+    // Yarıçapa bağlı sabitler: enlem bandı genişliği ve haversine eşiği sin²(r / 2R)
+    public static final class Radius {
+        private final double km;
+        private final double latitudeBandDeg;
+        private final double maxHaversine;
+
+        private Radius(double km) {
+            this.km = km;
+            this.latitudeBandDeg = km / KM_PER_DEGREE + LATITUDE_BAND_SLACK_DEG;
+            double halfAngle = km / (2 * EARTH_RADIUS_KM);
+            // Dünyanın yarı çevresinden büyük yarıçap her noktayı kapsar
+            this.maxHaversine = halfAngle >= Math.PI / 2 ? Double.POSITIVE_INFINITY : square(Math.sin(halfAngle));
+        }
+
+        public double km() {
+            return km;
+        }
+    }
+
+    public static final class Origin {
+        private final double latitude;
+        private final double longitude;
+        private final double cosLatitude;
+
+        private Origin(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cosLatitude = Math.cos(Math.toRadians(latitude));
+        }
+
+        public double distanceKm(double latitude, double longitude) {
+            return toKm(haversine(latitude, longitude));
+        }
+
+        // Yarıçap içindeyse mesafe, değilse -1
+        public double distanceWithinKm(double latitude, double longitude, Radius radius) {
+            // Büyük daire mesafesi enlem farkının meridyen boyundan kısa olamaz
+            if (Math.abs(latitude - this.latitude) > radius.latitudeBandDeg) {
+                return -1;
+            }
+            double a = haversine(latitude, longitude);
+            return a <= radius.maxHaversine ? toKm(a) : -1;
+        }
+
+        // Toplu yarıçap filtresi: [0, count) aralığındaki adaylardan yarıçap içindekilerin indeksini ve mesafesini
+        // hits/distances dizilerinin başına yazar, bulunan sayıyı döner
+        public int within(double[] latitudes, double[] longitudes, int count, Radius radius,
+                          int[] hits, double[] distances) {
+            double minLatitude = latitude - radius.latitudeBandDeg;
+            double maxLatitude = latitude + radius.latitudeBandDeg;
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                double candidateLatitude = latitudes[i];
+                if (candidateLatitude < minLatitude || candidateLatitude > maxLatitude) {
+                    continue;
+                }
+                double a = haversine(candidateLatitude, longitudes[i]);
+                if (a <= radius.maxHaversine) {
+                    hits[found] = i;
+                    distances[found] = toKm(a);
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        // Toplu mesafe: distances[i] = origin ile i. aday arası km
+        public void distances(double[] latitudes, double[] longitudes, int count, double[] distances) {
+            for (int i = 0; i < count; i++) {
+                distances[i] = toKm(haversine(latitudes[i], longitudes[i]));
+            }
+        }
+
+        // sin²(Δφ/2) + cos φ1 cos φ2 sin²(Δλ/2)
+        private double haversine(double latitude, double longitude) {
+            double sinHalfLat = Math.sin((latitude - this.latitude) * HALF_RADIANS_PER_DEGREE);
+            double sinHalfLon = Math.sin((longitude - this.longitude) * HALF_RADIANS_PER_DEGREE);
+            return sinHalfLat * sinHalfLat
+                    + cosLatitude * Math.cos(Math.toRadians(latitude)) * sinHalfLon * sinHalfLon;
+        }
+    }
+
+    private static double toKm(double haversine) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, haversine)));
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
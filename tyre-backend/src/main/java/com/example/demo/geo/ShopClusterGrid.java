@@ -0,0 +1,345 @@
+package com.example.demo.geo;
+
+import com.example.demo.dto.ShopCluster;
+import com.example.demo.repository.ShopRatingRepository;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireShopServiceRepository;
+import com.example.demo.support.TransactionHooks;
+import com.example.demo.support.WarmUpBuffer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// DESIGN PATTERN: Composite Pattern (hierarchical grid / quadtree levels)
+// Harita işaretçi kümeleri: dünya her seviyede 2^level x 2^level hücreye bölünür, her hücre bir alttaki dört
+// hücrenin toplamıdır (adet, koordinat toplamları, en düşük fiyat, en iyi puan). Dükkan değişince sadece onun
+// yaprak hücresinden köke kadar olan yol yeniden hesaplanır; sorgu istenen zoom seviyesindeki hücreleri okur.
+@Component
+public class ShopClusterGrid {
+
+    public static final int MAX_LEVEL = 16;
+    // Zoom z'de 256 px'lik bir karo 360/2^z derece; karo başına ~4x4 küme için iki seviye daha ince grid
+    private static final int ZOOM_TO_LEVEL_OFFSET = 2;
+
+    private final TireShopRepository tireShopRepository;
+    private final TireShopServiceRepository tireShopServiceRepository;
+    private final ShopRatingRepository shopRatingRepository;
+
+    // Yeniden kurulumda tüm seviyeler birlikte değiştirilir; sorgular yarım dolu grid görmez
+    private volatile List<Map<Long, Cluster>> levels = emptyLevels();
+    private final Map<Long, Map<Integer, ShopSummary>> leaves = new HashMap<>();
+    private final Map<Integer, ShopSummary> shops = new ConcurrentHashMap<>();
+    private final WarmUpBuffer warmUpBuffer = new WarmUpBuffer();
+    private volatile boolean ready;
+
+    public ShopClusterGrid(TireShopRepository tireShopRepository, TireShopServiceRepository tireShopServiceRepository,
+                           ShopRatingRepository shopRatingRepository) {
+        this.tireShopRepository = tireShopRepository;
+        this.tireShopServiceRepository = tireShopServiceRepository;
+        this.shopRatingRepository = shopRatingRepository;
+    }
+
+    public record ShopSummary(int shopId, double latitude, double longitude, Double minPrice, Double bestRating) {
+    }
+
+    // Hücre toplamı; okuyucular her zaman tutarlı bir kayıt görür (değiştirilmez, yerine yenisi konur)
+    private record Cluster(int count, double sumLatitude, double sumLongitude, Double minPrice, Double bestRating,
+                           int anyShopId) {
+
+        static Cluster of(ShopSummary shop) {
+            return new Cluster(1, shop.latitude(), shop.longitude(), shop.minPrice(), shop.bestRating(), shop.shopId());
+        }
+
+        Cluster merge(Cluster other) {
+            if (other == null) {
+                return this;
+            }
+            return new Cluster(count + other.count, sumLatitude + other.sumLatitude, sumLongitude + other.sumLongitude,
+                    min(minPrice, other.minPrice), max(bestRating, other.bestRating), anyShopId);
+        }
+    }
+
+    // Özetler okunurken commit edilen dükkan değişiklikleri biriktirilir, rebuild'den sonra sırayla uygulanır
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUpBuffer.warmUp(this::loadSummaries, this::rebuild);
+        ready = true;
+    }
+
+    private List<ShopSummary> loadSummaries() {
+        Map<Integer, Double> prices = new HashMap<>();
+        for (Object[] row : tireShopServiceRepository.findMinPricePerShop()) {
+            prices.put((Integer) row[0], (Double) row[1]);
+        }
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (Object[] row : shopRatingRepository.findBestRatingPerShop()) {
+            ratings.put((Integer) row[0], (Double) row[1]);
+        }
+        List<ShopSummary> summaries = new ArrayList<>();
+        for (Object[] row : tireShopRepository.findAllCoordinates()) {
+            Integer shopId = (Integer) row[0];
+            summaries.add(new ShopSummary(shopId, (Double) row[1], (Double) row[2], prices.get(shopId), ratings.get(shopId)));
+        }
+        return summaries;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Tüm seviyeleri yapraklardan yukarı doğru tek geçişte kurar
+    public synchronized void rebuild(List<ShopSummary> summaries) {
+        List<Map<Long, Cluster>> built = emptyLevels();
+        leaves.clear();
+        shops.clear();
+        Map<Long, Cluster> leafLevel = built.get(MAX_LEVEL);
+        for (ShopSummary shop : summaries) {
+            long key = cellKey(MAX_LEVEL, shop.latitude(), shop.longitude());
+            shops.put(shop.shopId(), shop);
+            leaves.computeIfAbsent(key, k -> new HashMap<>()).put(shop.shopId(), shop);
+            leafLevel.merge(key, Cluster.of(shop), Cluster::merge);
+        }
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Map<Long, Cluster> parents = built.get(level);
+            for (Map.Entry<Long, Cluster> child : built.get(level + 1).entrySet()) {
+                parents.merge(parentKey(child.getKey()), child.getValue(), Cluster::merge);
+            }
+        }
+        levels = built;
+    }
+
+    private static List<Map<Long, Cluster>> emptyLevels() {
+        List<Map<Long, Cluster>> result = new ArrayList<>(MAX_LEVEL + 1);
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            result.add(new ConcurrentHashMap<>());
+        }
+        return result;
+    }
+
+    // Transaction içinde dükkanın güncel özetini okur, commit sonrası grid'e yansıtır.
+    // Dükkan silinmiş ya da konumu yoksa gridden çıkar.
+    public void refresh(int shopId) {
+        ShopSummary summary = tireShopRepository.findById(shopId)
+                .filter(shop -> shop.getLatitude() != null && shop.getLongitude() != null)
+                .map(shop -> new ShopSummary(shopId, shop.getLatitude(), shop.getLongitude(),
+                        tireShopServiceRepository.findMinPriceByShopId(shopId),
+                        shopRatingRepository.findBestRatingByShopId(shopId)))
+                .orElse(null);
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> {
+            if (summary == null) {
+                remove(shopId);
+            } else {
+                put(summary);
+            }
+        }));
+    }
+
+    public void unindex(int shopId) {
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> remove(shopId)));
+    }
+
+    public synchronized void put(ShopSummary shop) {
+        removeShop(shop.shopId());
+        long key = cellKey(MAX_LEVEL, shop.latitude(), shop.longitude());
+        shops.put(shop.shopId(), shop);
+        leaves.computeIfAbsent(key, k -> new HashMap<>()).put(shop.shopId(), shop);
+        recomputePath(key);
+    }
+
+    public synchronized void remove(int shopId) {
+        removeShop(shopId);
+    }
+
+    private void removeShop(int shopId) {
+        ShopSummary old = shops.remove(shopId);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(MAX_LEVEL, old.latitude(), old.longitude());
+        Map<Integer, ShopSummary> members = leaves.get(key);
+        if (members != null) {
+            members.remove(shopId);
+            if (members.isEmpty()) {
+                leaves.remove(key);
+            }
+        }
+        recomputePath(key);
+    }
+
+    // Yaprak kendi üyelerinden, her üst hücre en fazla dört çocuğundan yeniden hesaplanır: O(MAX_LEVEL)
+    private void recomputePath(long leafKey) {
+        Cluster leaf = null;
+        Map<Integer, ShopSummary> members = leaves.get(leafKey);
+        if (members != null) {
+            for (ShopSummary shop : members.values()) {
+                leaf = leaf == null ? Cluster.of(shop) : leaf.merge(Cluster.of(shop));
+            }
+        }
+        store(MAX_LEVEL, leafKey, leaf);
+
+        long key = leafKey;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            key = parentKey(key);
+            Map<Long, Cluster> children = levels.get(level + 1);
+            int x = cellX(key);
+            int y = cellY(key);
+            Cluster parent = null;
+            for (int dy = 0; dy < 2; dy++) {
+                for (int dx = 0; dx < 2; dx++) {
+                    Cluster child = children.get(key(2 * x + dx, 2 * y + dy));
+                    if (child != null) {
+                        parent = parent == null ? child : parent.merge(child);
+                    }
+                }
+            }
+            store(level, key, parent);
+        }
+    }
+
+    private void store(int level, long key, Cluster cluster) {
+        if (cluster == null) {
+            levels.get(level).remove(key);
+        } else {
+            levels.get(level).put(key, cluster);
+        }
+    }
+
+    public static int levelForZoom(int zoom) {
+        return Math.max(0, Math.min(MAX_LEVEL, zoom + ZOOM_TO_LEVEL_OFFSET));
+    }
+
+    // Kutuya değen hücrelerin kümeleri; minLongitude > maxLongitude ise kutu 180. meridyeni aşar
+    public List<ShopCluster> clusters(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                      int zoom) {
+        int level = levelForZoom(zoom);
+        Map<Long, Cluster> cells = levels.get(level);
+        int minY = cellIndex(level, minLatitude + 90.0, 180.0);
+        int maxY = cellIndex(level, maxLatitude + 90.0, 180.0);
+        int minX = cellIndex(level, minLongitude + 180.0, 360.0);
+        int maxX = cellIndex(level, maxLongitude + 180.0, 360.0);
+        boolean wraps = minLongitude > maxLongitude;
+        long width = wraps ? (1L << level) - minX + maxX + 1 : maxX - minX + 1L;
+        long area = width * (maxY - minY + 1L);
+
+        List<ShopCluster> result = new ArrayList<>();
+        if (area > cells.size()) {
+            // Kutu doluluktan büyük: seviyedeki dolu hücreleri taramak daha ucuz
+            for (Map.Entry<Long, Cluster> entry : cells.entrySet()) {
+                int x = cellX(entry.getKey());
+                int y = cellY(entry.getKey());
+                boolean inX = wraps ? x >= minX || x <= maxX : x >= minX && x <= maxX;
+                if (inX && y >= minY && y <= maxY) {
+                    result.add(toDto(entry.getValue()));
+                }
+            }
+            return result;
+        }
+        for (int y = minY; y <= maxY; y++) {
+            for (long i = 0; i < width; i++) {
+                Cluster cluster = cells.get(key((int) ((minX + i) % (1L << level)), y));
+                if (cluster != null) {
+                    result.add(toDto(cluster));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Grid hazır değilken: kutudaki dükkanlar ve özetleri üç sorguyla okunup istenen seviyede hücrelere toplanır.
+    // Paylaşılan grid sadece warmUp ile kurulur
+    public List<ShopCluster> clustersFromDatabase(double minLatitude, double minLongitude, double maxLatitude,
+                                                  double maxLongitude, int zoom) {
+        List<Object[]> rows = new ArrayList<>();
+        if (minLongitude > maxLongitude) {
+            rows.addAll(tireShopRepository.findCoordinatesInBox(minLatitude, maxLatitude, minLongitude, 180.0));
+            rows.addAll(tireShopRepository.findCoordinatesInBox(minLatitude, maxLatitude, -180.0, maxLongitude));
+        } else {
+            rows.addAll(tireShopRepository.findCoordinatesInBox(minLatitude, maxLatitude, minLongitude, maxLongitude));
+        }
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> shopIds = rows.stream().map(row -> (Integer) row[0]).collect(Collectors.toList());
+        Map<Integer, Double> prices = new HashMap<>();
+        for (Object[] row : tireShopServiceRepository.findMinPricePerShopIn(shopIds)) {
+            prices.put((Integer) row[0], (Double) row[1]);
+        }
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (Object[] row : shopRatingRepository.findBestRatingPerShopIn(shopIds)) {
+            ratings.put((Integer) row[0], (Double) row[1]);
+        }
+
+        int level = levelForZoom(zoom);
+        Map<Long, Cluster> cells = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Integer shopId = (Integer) row[0];
+            ShopSummary shop = new ShopSummary(shopId, (Double) row[1], (Double) row[2], prices.get(shopId),
+                    ratings.get(shopId));
+            cells.merge(cellKey(level, shop.latitude(), shop.longitude()), Cluster.of(shop), Cluster::merge);
+        }
+        return cells.values().stream().map(ShopClusterGrid::toDto).collect(Collectors.toList());
+    }
+
+    public int size() {
+        return shops.size();
+    }
+
+    private static ShopCluster toDto(Cluster cluster) {
+        return new ShopCluster(cluster.sumLatitude() / cluster.count(), cluster.sumLongitude() / cluster.count(),
+                cluster.count(), cluster.minPrice(), cluster.bestRating(),
+                cluster.count() == 1 ? cluster.anyShopId() : null);
+    }
+
+    private static long cellKey(int level, double latitude, double longitude) {
+        return key(cellIndex(level, longitude + 180.0, 360.0), cellIndex(level, latitude + 90.0, 180.0));
+    }
+
+    private static int cellIndex(int level, double offset, double span) {
+        int cells = 1 << level;
+        return Math.max(0, Math.min(cells - 1, (int) Math.floor(offset / span * cells)));
+    }
+
+    private static long parentKey(long key) {
+        return key(cellX(key) >> 1, cellY(key) >> 1);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | (x & 0xffffffffL);
+    }
+
+    private static int cellX(long key) {
+        return (int) key;
+    }
+
+    private static int cellY(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static Double min(Double a, Double b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    private static Double max(Double a, Double b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return Math.max(a, b);
+    }
+}
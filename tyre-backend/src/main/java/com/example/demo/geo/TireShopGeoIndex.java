@@ -0,0 +1,305 @@
+package com.example.demo.geo;
+
+import com.example.demo.availability.WeeklyHours;
+import com.example.demo.entity.TireShop;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.support.TransactionHooks;
+import com.example.demo.support.WarmUpBuffer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// DESIGN PATTERN: Spatial Index Pattern (Grid / Bucket Index)
+// Lastikçi koordinatlarını sabit boyutlu enlem/boylam hücrelerinde bellekte tutar
+// Yarıçap sorguları sadece daireye değen hücreleri tarar, tüm tabloyu yüklemez
+// Her noktada dükkanın haftalık açık maskesi de durur; "şu an açık" filtresi mesafeden önce bit testiyle uygulanır
+@Component
+public class TireShopGeoIndex {
+
+    static final double EARTH_RADIUS_KM = GeoDistance.EARTH_RADIUS_KM;
+    static final double KM_PER_DEGREE = GeoDistance.KM_PER_DEGREE;
+
+    // ~5.5 km'lik hücreler: 15 km'lik bir sorgu en fazla ~7x7 hücreye bakar
+    static final double CELL_SIZE_DEG = 0.05;
+    private static final int LON_CELLS = (int) Math.round(360.0 / CELL_SIZE_DEG);
+    private static final int LAT_CELLS = (int) Math.round(180.0 / CELL_SIZE_DEG);
+
+    // findWithin'de çalışma saati filtresi yok
+    public static final int ANY_TIME = -1;
+
+    private final TireShopRepository tireShopRepository;
+
+    private final Map<Long, Map<Integer, ShopPoint>> cells = new ConcurrentHashMap<>();
+    private final Map<Integer, ShopPoint> points = new ConcurrentHashMap<>();
+    private final WarmUpBuffer warmUpBuffer = new WarmUpBuffer();
+    private volatile boolean ready;
+
+    public TireShopGeoIndex(TireShopRepository tireShopRepository) {
+        this.tireShopRepository = tireShopRepository;
+    }
+
+    public record ShopPoint(int shopId, double latitude, double longitude, WeeklyHours hours) {
+    }
+
+    public record Hit(int shopId, double distanceKm) {
+    }
+
+    // Uygulama ayağa kalkınca indeksi veritabanından bir kez doldur; okuma sırasında gelen değişiklikler kaybolmaz
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUpBuffer.warmUp(tireShopRepository::findAllCoordinates, this::rebuild);
+        ready = true;
+    }
+
+    // Isınma bitmeden gelen sorgular veritabanı yoluna düşer
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild(Collection<Object[]> coordinates) {
+        cells.clear();
+        points.clear();
+        for (Object[] row : coordinates) {
+            WeeklyHours hours = row.length > 3
+                    ? WeeklyHours.of((byte[]) row[3], (String) row[4], (String) row[5])
+                    : WeeklyHours.DEFAULT;
+            put((Integer) row[0], (Double) row[1], (Double) row[2], hours);
+        }
+    }
+
+    // Transaction içindeyse commit sonrasına ertelenir, rollback olursa indeks bozulmaz
+    public void index(TireShop shop) {
+        int shopId = shop.getId();
+        Double latitude = shop.getLatitude();
+        Double longitude = shop.getLongitude();
+        WeeklyHours hours = WeeklyHours.of(shop.getWeeklyOpenMask(), shop.getOpeningHour(), shop.getClosingHour());
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> {
+            if (latitude == null || longitude == null) {
+                remove(shopId);
+            } else {
+                put(shopId, latitude, longitude, hours);
+            }
+        }));
+    }
+
+    public void unindex(int shopId) {
+        TransactionHooks.afterCommit(() -> warmUpBuffer.apply(() -> remove(shopId)));
+    }
+
+    public void put(int shopId, double latitude, double longitude) {
+        put(shopId, latitude, longitude, WeeklyHours.DEFAULT);
+    }
+
+    public synchronized void put(int shopId, double latitude, double longitude, WeeklyHours hours) {
+        removePoint(shopId);
+        ShopPoint point = new ShopPoint(shopId, latitude, longitude, hours);
+        points.put(shopId, point);
+        cells.computeIfAbsent(cellKey(latitude, longitude), key -> new ConcurrentHashMap<>()).put(shopId, point);
+    }
+
+    public synchronized void remove(int shopId) {
+        removePoint(shopId);
+    }
+
+    // Dükkanın indeksteki konumu; konumu yoksa null
+    public ShopPoint point(int shopId) {
+        return points.get(shopId);
+    }
+
+    private void removePoint(int shopId) {
+        ShopPoint old = points.remove(shopId);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(old.latitude(), old.longitude());
+        Map<Integer, ShopPoint> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(shopId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    // Yarıçap içindeki dükkanları mesafeye göre artan sırada döndürür
+    public List<Hit> findWithin(double latitude, double longitude, double radiusKm) {
+        return findWithin(latitude, longitude, radiusKm, ANY_TIME);
+    }
+
+    // openMinuteOfWeek (WeeklyHours.minuteOfWeek) verilirse sadece o an açık olan dükkanlar
+    public List<Hit> findWithin(double latitude, double longitude, double radiusKm, int openMinuteOfWeek) {
+        List<Hit> hits = new ArrayList<>();
+        GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+        GeoDistance.Radius radius = GeoDistance.radius(radiusKm);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int minLatCell = latCell(Math.max(-90.0, latitude - latSpan));
+        int maxLatCell = latCell(Math.min(90.0, latitude + latSpan));
+
+        double maxAbsLat = Math.min(90.0, Math.abs(latitude) + latSpan);
+        double cosLat = Math.cos(Math.toRadians(maxAbsLat));
+        int lonCellSpan = cosLat < 1e-6
+                ? LON_CELLS
+                : (int) Math.ceil(latSpan / cosLat / CELL_SIZE_DEG) + 1;
+        int firstLonCell = lonCell(longitude) - lonCellSpan;
+        int lonCellCount = Math.min(2 * lonCellSpan + 1, LON_CELLS);
+
+        for (int latIdx = minLatCell; latIdx <= maxLatCell; latIdx++) {
+            for (int i = 0; i < lonCellCount; i++) {
+                Map<Integer, ShopPoint> cell = cells.get(key(latIdx, Math.floorMod(firstLonCell + i, LON_CELLS)));
+                if (cell == null) {
+                    continue;
+                }
+                for (ShopPoint point : cell.values()) {
+                    if (openMinuteOfWeek != ANY_TIME && !point.hours().isOpenAt(openMinuteOfWeek)) {
+                        continue;
+                    }
+                    double distance = origin.distanceWithinKm(point.latitude(), point.longitude(), radius);
+                    if (distance >= 0) {
+                        hits.add(new Hit(point.shopId(), distance));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    // En yakın k dükkan: merkez hücreden halka halka genişler, boyutu k olan max-heap tutar.
+    // Taranmamış hücrelere olan en kısa mesafe heap'teki en uzak sonuçtan büyükse durur.
+    public List<Hit> findNearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        return findNearest(latitude, longitude, k, maxRadiusKm, ANY_TIME);
+    }
+
+    // openMinuteOfWeek verilirse kapalı dükkanlar heap'e girmeden atlanır; en yakın k açık dükkan döner
+    public List<Hit> findNearest(double latitude, double longitude, int k, double maxRadiusKm, int openMinuteOfWeek) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k, Comparator.comparingDouble(Hit::distanceKm).reversed());
+        GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+        GeoDistance.Radius radius = GeoDistance.radius(maxRadiusKm);
+        int centerLat = latCell(latitude);
+        int centerLon = lonCell(longitude);
+
+        for (int ring = 0; 2 * ring <= LON_CELLS || centerLat - ring >= 0 || centerLat + ring < LAT_CELLS; ring++) {
+            collectRing(centerLat, centerLon, ring, origin, radius, k, openMinuteOfWeek, heap);
+
+            double unexplored = distanceOutsideRings(latitude, longitude, centerLat, centerLon, ring);
+            if (unexplored > maxRadiusKm) {
+                break;
+            }
+            if (heap.size() == k && heap.peek().distanceKm() <= unexplored) {
+                break;
+            }
+        }
+
+        List<Hit> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    // Halkanın üst/alt satırları ve sol/sağ sütunları; boylam sarması tüm daireyi kaplayınca hücreler tekrar taranmaz
+    private void collectRing(int centerLat, int centerLon, int ring, GeoDistance.Origin origin,
+                             GeoDistance.Radius radius, int k, int openMinuteOfWeek, PriorityQueue<Hit> heap) {
+        if (ring == 0) {
+            collectCell(centerLat, centerLon, origin, radius, k, openMinuteOfWeek, heap);
+            return;
+        }
+        boolean fullRow = 2 * ring + 1 >= LON_CELLS;
+        int rowStart = fullRow ? 0 : centerLon - ring;
+        int rowLength = fullRow ? LON_CELLS : 2 * ring + 1;
+        for (int i = 0; i < rowLength; i++) {
+            collectCell(centerLat - ring, rowStart + i, origin, radius, k, openMinuteOfWeek, heap);
+            collectCell(centerLat + ring, rowStart + i, origin, radius, k, openMinuteOfWeek, heap);
+        }
+        if (2 * ring > LON_CELLS) {
+            return;
+        }
+        for (int offset = -ring + 1; offset <= ring - 1; offset++) {
+            collectCell(centerLat + offset, centerLon - ring, origin, radius, k, openMinuteOfWeek, heap);
+            if (2 * ring < LON_CELLS) {
+                collectCell(centerLat + offset, centerLon + ring, origin, radius, k, openMinuteOfWeek, heap);
+            }
+        }
+    }
+
+    private void collectCell(int latIdx, int lonIdx, GeoDistance.Origin origin,
+                             GeoDistance.Radius radius, int k, int openMinuteOfWeek, PriorityQueue<Hit> heap) {
+        if (latIdx < 0 || latIdx >= LAT_CELLS) {
+            return;
+        }
+        Map<Integer, ShopPoint> cell = cells.get(key(latIdx, Math.floorMod(lonIdx, LON_CELLS)));
+        if (cell == null) {
+            return;
+        }
+        for (ShopPoint point : cell.values()) {
+            if (openMinuteOfWeek != ANY_TIME && !point.hours().isOpenAt(openMinuteOfWeek)) {
+                continue;
+            }
+            double distance = origin.distanceWithinKm(point.latitude(), point.longitude(), radius);
+            if (distance < 0) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.offer(new Hit(point.shopId(), distance));
+            } else if (distance < heap.peek().distanceKm()) {
+                heap.poll();
+                heap.offer(new Hit(point.shopId(), distance));
+            }
+        }
+    }
+
+    // 0..ring halkalarının kapladığı karenin dışındaki herhangi bir noktaya olan en kısa mesafe (alt sınır)
+    private static double distanceOutsideRings(double latitude, double longitude, int centerLat, int centerLon, int ring) {
+        double southEdge = (centerLat - ring) * CELL_SIZE_DEG - 90.0;
+        double northEdge = (centerLat + ring + 1) * CELL_SIZE_DEG - 90.0;
+        double bound = Double.MAX_VALUE;
+        if (southEdge > -90.0) {
+            bound = Math.min(bound, (latitude - southEdge) * KM_PER_DEGREE);
+        }
+        if (northEdge < 90.0) {
+            bound = Math.min(bound, (northEdge - latitude) * KM_PER_DEGREE);
+        }
+        if (2 * ring + 1 < LON_CELLS) {
+            double westGap = longitude + 180.0 - (centerLon - ring) * CELL_SIZE_DEG;
+            double eastGap = (centerLon + ring + 1) * CELL_SIZE_DEG - (longitude + 180.0);
+            bound = Math.min(bound, distanceToMeridian(latitude, Math.min(westGap, eastGap)));
+        }
+        return bound;
+    }
+
+    // Bir noktadan boylam farkı deltaLonDeg olan meridyene en kısa büyük daire mesafesi
+    private static double distanceToMeridian(double latitude, double deltaLonDeg) {
+        double delta = Math.toRadians(Math.min(deltaLonDeg, 90.0));
+        double sinDistance = Math.cos(Math.toRadians(latitude)) * Math.sin(delta);
+        return EARTH_RADIUS_KM * Math.asin(Math.min(1.0, sinDistance));
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90.0) / CELL_SIZE_DEG));
+    }
+
+    static int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / CELL_SIZE_DEG), LON_CELLS);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return key(latCell(latitude), lonCell(longitude));
+    }
+
+    private static long key(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+}
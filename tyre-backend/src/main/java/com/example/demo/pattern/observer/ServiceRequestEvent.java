@@ -0,0 +1,32 @@
+package com.example.demo.pattern.observer;
+
+import com.example.demo.entity.ServiceRequest;
+
+// DESIGN PATTERN: Observer Pattern - Event Object
+// Acil yardım talebinin yaşam döngüsündeki değişiklikleri taşır
+// Spring ApplicationEventPublisher ile yayınlanır, dinleyiciler commit sonrası tetiklenir
+public class ServiceRequestEvent {
+
+    public enum Type {
+        CREATED,
+        ACCEPTED,
+        COMPLETED,
+        EXPIRED
+    }
+
+    private final Type type;
+    private final ServiceRequest request;
+
+    public ServiceRequestEvent(Type type, ServiceRequest request) {
+        this.type = type;
+        this.request = request;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public ServiceRequest getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.pattern.strategy;
+
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.entity.TireShop;
+
+import java.util.List;
+
+// DESIGN PATTERN: Strategy Pattern - Interface
+// Acil durum alertlerinin dükkana nasıl iletileceğini tanımlar (log, push, SMS vb.)
+// Alertler dükkan başına toplu (batch) halde verilir
+public interface AlertNotificationStrategy {
+
+    void notifyShop(TireShop shop, List<NearbyAlert> alerts);
+
+    record NearbyAlert(ServiceRequest request, double distanceKm) {
+    }
+}
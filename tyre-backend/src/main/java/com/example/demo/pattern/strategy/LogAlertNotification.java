@@ -0,0 +1,29 @@
+package com.example.demo.pattern.strategy;
+
+import com.example.demo.entity.TireShop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// DESIGN PATTERN: Strategy Pattern - Concrete Strategy
+// Alertleri uygulama loguna yazar; dükkan başına tek satır
+@Component
+public class LogAlertNotification implements AlertNotificationStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(LogAlertNotification.class);
+
+    @Override
+    public void notifyShop(TireShop shop, List<NearbyAlert> alerts) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        String summary = alerts.stream()
+                .map(alert -> "#" + alert.request().getId() + " " + alert.request().getPriority()
+                        + " (" + String.format("%.1f", alert.distanceKm()) + " km)")
+                .collect(Collectors.joining(", "));
+        log.info("EMERGENCY ALERT -> {} [{}]: {}", shop.getShopName(), shop.getId(), summary);
+    }
+}
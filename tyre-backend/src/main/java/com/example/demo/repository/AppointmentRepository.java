@@ -1,13 +1,76 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.AppointmentResponse;
 import com.example.demo.entity.Appointment;
+import com.example.demo.entity.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
     List<Appointment> findByTireShopId(int shopId);
     List<Appointment> findByUserId(Integer userId);
+
+    // Liste ekranları için: dükkan, hizmet, araç ve müşteri tek JOIN sorgusuyla DTO'ya doldurulur (N+1 yok)
+    String RESPONSE_PROJECTION = "SELECT new com.example.demo.dto.AppointmentResponse("
+            + "a.id, a.appointmentDate, s.shopName, s.address, "
+            + "sv.id, sv.serviceName, sv.price, "
+            + "v.brand, v.model, v.licensePlate, "
+            + "a.status, u.name, u.phone) "
+            + "FROM Appointment a "
+            + "LEFT JOIN a.tireShop s "
+            + "LEFT JOIN a.service sv "
+            + "LEFT JOIN a.vehicle v "
+            + "LEFT JOIN a.user u ";
+
+    @Query(RESPONSE_PROJECTION)
+    List<AppointmentResponse> findAllResponses();
+
+    @Query(RESPONSE_PROJECTION + "WHERE s.id = :shopId")
+    List<AppointmentResponse> findResponsesByShopId(@Param("shopId") int shopId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.id = :userId")
+    List<AppointmentResponse> findResponsesByUserId(@Param("userId") Integer userId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :id")
+    Optional<AppointmentResponse> findResponseById(@Param("id") int id);
+
+    // Keyset (seek) sayfalama: en yeniden eskiye, (appointmentDate, id) imlecinden sonrası okunur.
+    // OFFSET kullanılmadığı için geçmiş büyüdükçe sayfa maliyeti artmaz. İlk sayfada imleç = (to'dan sonraki gün
+    // 00:00, 0): o andan önceki her randevu alınır, to verilmezse tarih üst sınırı yoktur.
+    String PAGE_FILTER = " AND a.appointmentDate >= :from"
+            + " AND (a.appointmentDate < :cursorDate OR (a.appointmentDate = :cursorDate AND a.id < :cursorId))"
+            + " AND (:status IS NULL OR a.status = :status)"
+            + " ORDER BY a.appointmentDate DESC, a.id DESC";
+
+    @Query(RESPONSE_PROJECTION + "WHERE s.id = :shopId" + PAGE_FILTER)
+    List<AppointmentResponse> findResponsePageByShopId(@Param("shopId") int shopId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                                       @Param("cursorId") int cursorId,
+                                                       @Param("status") AppointmentStatus status,
+                                                       Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.id = :userId" + PAGE_FILTER)
+    List<AppointmentResponse> findResponsePageByUserId(@Param("userId") Integer userId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                                       @Param("cursorId") int cursorId,
+                                                       @Param("status") AppointmentStatus status,
+                                                       Pageable pageable);
+
+    // Slot takvimini doldurmak için: günün iptal edilmemiş randevularının saati ve hizmet süresi
+    @Query("SELECT a.appointmentDate, sv.durationMinutes FROM Appointment a LEFT JOIN a.service sv "
+            + "WHERE a.tireShop.id = :shopId AND a.appointmentDate >= :start AND a.appointmentDate < :end "
+            + "AND a.status <> com.example.demo.entity.AppointmentStatus.CANCELLED")
+    List<Object[]> findOccupiedSlots(@Param("shopId") int shopId,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
 }
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AppointmentSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot, Integer> {
+
+    // Toplu silme hemen çalışır; aynı transaction'da yeni slot insert'inden önce eski satırlar kalkmış olur
+    @Modifying
+    @Query("DELETE FROM AppointmentSlot s WHERE s.appointmentId = :appointmentId")
+    int deleteByAppointmentId(@Param("appointmentId") int appointmentId);
+}
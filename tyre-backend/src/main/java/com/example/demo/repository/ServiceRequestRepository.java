@@ -1,9 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.RequestStatus;
 import com.example.demo.entity.ServiceRequest;
+import com.example.demo.entity.TireShop;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 
 // DESIGN PATTERN: Repository Pattern
@@ -11,5 +20,47 @@ import java.util.List;
 // Custom query method ile status'e göre filtreleme
 @Repository
 public interface ServiceRequestRepository extends JpaRepository<ServiceRequest, Integer> {
-    List<ServiceRequest> findByStatus(com.example.demo.entity.RequestStatus status);
+    List<ServiceRequest> findByStatus(RequestStatus status);
+
+    // idx_service_requests_status_lat_lon indeksini kullanan bounding-box ön filtresi
+    List<ServiceRequest> findByStatusAndLatitudeBetweenAndLongitudeBetween(RequestStatus status,
+                                                                           double minLatitude, double maxLatitude,
+                                                                           double minLongitude, double maxLongitude);
+
+    // Koşullu tek UPDATE: sadece beklenen durumdaki satır değişir, etkilenen satır sayısı kazananı belirler
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ServiceRequest r SET r.status = :to, r.tireShop = :shop "
+            + "WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") int id, @Param("from") RequestStatus from,
+                   @Param("to") RequestStatus to, @Param("shop") TireShop shop);
+
+    // Tamamlama sadece işi alan dükkan tarafından (eski kayıtlarda dükkan boş olabilir)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ServiceRequest r SET r.status = :to, r.tireShop = :shop "
+            + "WHERE r.id = :id AND r.status = :from AND (r.tireShop IS NULL OR r.tireShop = :shop)")
+    int transitionOwned(@Param("id") int id, @Param("from") RequestStatus from,
+                        @Param("to") RequestStatus to, @Param("shop") TireShop shop);
+
+    // Expiry taraması: süresi dolmuş bekleyen taleplerin id'leri, parça parça (idx_service_requests_status_priority_created)
+    @Query("SELECT r.id FROM ServiceRequest r "
+            + "WHERE r.status = :status AND r.priority = :priority AND r.createdAt < :cutoff ORDER BY r.createdAt")
+    List<Integer> findIdsCreatedBefore(@Param("status") RequestStatus status, @Param("priority") Priority priority,
+                                       @Param("cutoff") Timestamp cutoff, Pageable pageable);
+
+    // Önceliği boş eski kayıtlar MEDIUM süresiyle taranır
+    @Query("SELECT r.id FROM ServiceRequest r "
+            + "WHERE r.status = :status AND r.priority IS NULL AND r.createdAt < :cutoff ORDER BY r.createdAt")
+    List<Integer> findIdsWithoutPriorityCreatedBefore(@Param("status") RequestStatus status,
+                                                      @Param("cutoff") Timestamp cutoff, Pageable pageable);
+
+    // Toplu durum geçişi; bu arada kabul edilmiş talepler "from" koşulu sayesinde etkilenmez
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ServiceRequest r SET r.status = :to WHERE r.id IN :ids AND r.status = :from")
+    int transitionAll(@Param("ids") Collection<Integer> ids, @Param("from") RequestStatus from,
+                      @Param("to") RequestStatus to);
+
+    // Olay yayını için: kullanıcı ve dükkan aynı sorguda (EAGER ilişkiler için satır başı ek select olmaz)
+    @Query("SELECT r FROM ServiceRequest r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.tireShop "
+            + "WHERE r.id IN :ids AND r.status = :status")
+    List<ServiceRequest> findAllByIdInAndStatus(@Param("ids") Collection<Integer> ids, @Param("status") RequestStatus status);
 }
@@ -2,8 +2,23 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.ShopRating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ShopRatingRepository extends JpaRepository<ShopRating, Integer> {
+
+    // Harita kümeleri için dükkan başına en yüksek puan (shopId, rating)
+    @Query("SELECT r.shop.id, MAX(r.rating) FROM ShopRating r WHERE r.shop IS NOT NULL GROUP BY r.shop.id")
+    List<Object[]> findBestRatingPerShop();
+
+    @Query("SELECT r.shop.id, MAX(r.rating) FROM ShopRating r WHERE r.shop.id IN :shopIds GROUP BY r.shop.id")
+    List<Object[]> findBestRatingPerShopIn(@Param("shopIds") Collection<Integer> shopIds);
+
+    @Query("SELECT MAX(r.rating) FROM ShopRating r WHERE r.shop.id = :shopId")
+    Double findBestRatingByShopId(@Param("shopId") int shopId);
 }
@@ -1,9 +1,42 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireSize;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TireRepository extends JpaRepository<Tire, Integer> {
+
+    String CATALOG_ROW = "SELECT t.id, t.brand, t.model, t.price, s.size FROM Tire t LEFT JOIN t.tireSize s ";
+
+    // Katalog indeksini doldurmak için (id, marka, model, fiyat, ebat); entity hydrate etmez
+    @Query(CATALOG_ROW + "ORDER BY t.id")
+    List<Object[]> findAllCatalogRows();
+
+    @Query(CATALOG_ROW + "WHERE t.id = :id")
+    List<Object[]> findCatalogRowsById(@Param("id") int id);
+
+    // Katalog indeksi hazır değilken arama ön filtresi: marka, fiyat aralığı ve bir sorgu kelimesinin geçtiği satırlar.
+    // Kelimenin önek eşleşmesi ve jant filtresi satırlar üzerinde indeksle aynı kurallarla uygulanır
+    @Query(CATALOG_ROW + "WHERE (:brand IS NULL OR LOWER(TRIM(t.brand)) = :brand) "
+            + "AND (:minPrice IS NULL OR t.price >= :minPrice) AND (:maxPrice IS NULL OR t.price <= :maxPrice) "
+            + "AND (:word IS NULL OR LOWER(CONCAT(COALESCE(t.brand, ''), ' ', COALESCE(t.model, ''), ' ', "
+            + "COALESCE(s.size, ''))) LIKE CONCAT('%', :word, '%')) ORDER BY t.id")
+    List<Object[]> findCatalogRowsMatching(@Param("brand") String brand, @Param("minPrice") Double minPrice,
+                                           @Param("maxPrice") Double maxPrice, @Param("word") String word);
+
+    // Ebat yeniden adlandırılınca o ebattaki lastikler indekste güncellenir
+    @Query(CATALOG_ROW + "WHERE s.id = :sizeId")
+    List<Object[]> findCatalogRowsBySizeId(@Param("sizeId") int sizeId);
+
+    // Mükerrer ebat satırı birleştirilirken lastikleri kalan satıra taşır
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Tire t SET t.tireSize = :to WHERE t.tireSize = :from")
+    int reassignTireSize(@Param("from") TireSize from, @Param("to") TireSize to);
 }
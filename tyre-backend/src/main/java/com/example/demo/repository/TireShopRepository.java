@@ -1,9 +1,15 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TireShopDetail;
+import com.example.demo.dto.TireShopSummary;
 import com.example.demo.entity.TireShop;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 // DESIGN PATTERN: Repository Pattern
@@ -11,5 +17,43 @@ import java.util.Optional;
 // Spring Data JPA ile otomatik implementation
 @Repository
 public interface TireShopRepository extends JpaRepository<TireShop, Integer> {
+
+    String SUMMARY_PROJECTION = "SELECT new com.example.demo.dto.TireShopSummary("
+            + "s.id, s.shopName, s.email, s.phone, s.address, s.latitude, s.longitude, s.openingHour, s.closingHour) "
+            + "FROM TireShop s ";
+
     Optional<TireShop> findByEmail(String email);
+
+    // Liste uçları için tek SELECT; koleksiyonlar ve konum yüklenmez
+    @Query(SUMMARY_PROJECTION)
+    List<TireShopSummary> findAllSummaries();
+
+    @Query(SUMMARY_PROJECTION + "WHERE s.id IN :ids")
+    List<TireShopSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // idx_tireshops_lat_lon indeksini kullanan bounding-box ön filtresi (indeks hazır değilken)
+    @Query(SUMMARY_PROJECTION + "WHERE s.latitude BETWEEN :minLatitude AND :maxLatitude "
+            + "AND s.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<TireShopSummary> findSummariesInBox(@Param("minLatitude") double minLatitude,
+                                             @Param("maxLatitude") double maxLatitude,
+                                             @Param("minLongitude") double minLongitude,
+                                             @Param("maxLongitude") double maxLongitude);
+
+    @Query("SELECT new com.example.demo.dto.TireShopDetail("
+            + "s.id, s.shopName, s.email, s.phone, s.address, s.latitude, s.longitude, s.openingHour, s.closingHour, "
+            + "l.id, l.address) FROM TireShop s LEFT JOIN s.location l WHERE s.id = :id")
+    Optional<TireShopDetail> findDetailById(@Param("id") int id);
+
+    // Konum indeksini doldurmak için sadece id, koordinatlar ve çalışma saatlerini çeker (entity hydrate etmez)
+    @Query("SELECT s.id, s.latitude, s.longitude, s.weeklyOpenMask, s.openingHour, s.closingHour FROM TireShop s "
+            + "WHERE s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+
+    // Küme grid'i hazır değilken: kutu içindeki dükkanların (id, enlem, boylam) satırları
+    @Query("SELECT s.id, s.latitude, s.longitude FROM TireShop s WHERE s.latitude BETWEEN :minLatitude AND :maxLatitude "
+            + "AND s.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<Object[]> findCoordinatesInBox(@Param("minLatitude") double minLatitude,
+                                        @Param("maxLatitude") double maxLatitude,
+                                        @Param("minLongitude") double minLongitude,
+                                        @Param("maxLongitude") double maxLongitude);
 }
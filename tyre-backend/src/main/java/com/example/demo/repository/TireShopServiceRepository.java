@@ -1,12 +1,32 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TireShopDetail;
 import com.example.demo.entity.TireShopService;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TireShopServiceRepository extends JpaRepository<TireShopService, Integer> {
     List<TireShopService> findByTireShopId(int shopId);
+
+    // Dükkan detayında expand=services
+    @Query("SELECT new com.example.demo.dto.TireShopDetail$ServiceDto(s.id, s.serviceName, s.price, s.durationMinutes) "
+            + "FROM TireShopService s WHERE s.tireShop.id = :shopId ORDER BY s.id")
+    List<TireShopDetail.ServiceDto> findDtosByShopId(@Param("shopId") int shopId);
+
+    // Harita kümeleri için dükkan başına en düşük hizmet fiyatı (shopId, minPrice)
+    @Query("SELECT s.tireShop.id, MIN(s.price) FROM TireShopService s WHERE s.tireShop IS NOT NULL GROUP BY s.tireShop.id")
+    List<Object[]> findMinPricePerShop();
+
+    @Query("SELECT s.tireShop.id, MIN(s.price) FROM TireShopService s WHERE s.tireShop.id IN :shopIds "
+            + "GROUP BY s.tireShop.id")
+    List<Object[]> findMinPricePerShopIn(@Param("shopIds") Collection<Integer> shopIds);
+
+    @Query("SELECT MIN(s.price) FROM TireShopService s WHERE s.tireShop.id = :shopId")
+    Double findMinPriceByShopId(@Param("shopId") int shopId);
 }
@@ -1,12 +1,47 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.TireSize;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TireSizeRepository extends JpaRepository<TireSize, Integer> {
     Optional<TireSize> findBySize(String size);
+
+    Optional<TireSize> findByNormalizedSize(String normalizedSize);
+
+    // Ebat sözlüğünü doldurmak için (normalizedSize, id, size); entity hydrate etmez
+    @Query("SELECT s.normalizedSize, s.id, s.size FROM TireSize s WHERE s.normalizedSize IS NOT NULL")
+    List<Object[]> findAllDictionaryRows();
+
+    // (normalizedSize, id) — backfill'de parçadaki anahtarların zaten sahibi olan satırlar
+    @Query("SELECT s.normalizedSize, s.id FROM TireSize s WHERE s.normalizedSize IN :keys")
+    List<Object[]> findIdsByNormalizedSizeIn(@Param("keys") Collection<String> keys);
+
+    // idx_tiresizes_rim_width_aspect üzerinden aralık taraması; boş filtreler çağıran tarafta uç değerlere çevrilir
+    @Query("SELECT s FROM TireSize s WHERE s.rimDiameter BETWEEN :minRim AND :maxRim "
+            + "AND s.width BETWEEN :minWidth AND :maxWidth AND s.aspectRatio BETWEEN :minAspect AND :maxAspect "
+            + "ORDER BY s.rimDiameter, s.width, s.aspectRatio")
+    List<TireSize> findInRange(@Param("minRim") int minRim, @Param("maxRim") int maxRim,
+                               @Param("minWidth") int minWidth, @Param("maxWidth") int maxWidth,
+                               @Param("minAspect") int minAspect, @Param("maxAspect") int maxAspect);
+
+    // idx_tiresizes_overall_diameter üzerinden eşdeğer dış çaplı ebatlar
+    @Query("SELECT s FROM TireSize s WHERE s.overallDiameterMm BETWEEN :minDiameter AND :maxDiameter "
+            + "AND s.rimDiameter BETWEEN :minRim AND :maxRim")
+    List<TireSize> findByOverallDiameterInRange(@Param("minDiameter") int minDiameter,
+                                                @Param("maxDiameter") int maxDiameter,
+                                                @Param("minRim") int minRim, @Param("maxRim") int maxRim);
+
+    // Türetilmiş kolonları henüz doldurulmamış eski kayıtlar; id sırasıyla parça parça (keyset)
+    @Query("SELECT s.id FROM TireSize s WHERE s.id > :afterId AND s.normalizedSize IS NULL AND s.size IS NOT NULL "
+            + "ORDER BY s.id")
+    List<Integer> findUnparsedIdsAfter(@Param("afterId") int afterId, Pageable pageable);
 }
@@ -1,7 +1,13 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TireShopDetail;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireShop;
 import com.example.demo.entity.TireStock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +15,55 @@ import java.util.List;
 @Repository
 public interface TireStockRepository extends JpaRepository<TireStock, Integer> {
     List<TireStock> findByTireShopId(int shopId);
+
+    // Dükkan detayında expand=stocks
+    @Query("SELECT new com.example.demo.dto.TireShopDetail$StockDto(st.id, t.id, t.brand, t.model, t.price, st.stockQuantity) "
+            + "FROM TireStock st LEFT JOIN st.tire t WHERE st.tireShop.id = :shopId ORDER BY st.id")
+    List<TireShopDetail.StockDto> findDtosByShopId(@Param("shopId") int shopId);
+
+    String INDEX_ROW = "SELECT st.id, sh.id, t.id, ts.size, st.stockQuantity "
+            + "FROM TireStock st JOIN st.tireShop sh JOIN st.tire t LEFT JOIN t.tireSize ts ";
+
+    // Ebat -> dükkan stok indeksi için (stockId, shopId, tireId, ebat, adet); entity hydrate etmez
+    @Query(INDEX_ROW)
+    List<Object[]> findAllIndexRows();
+
+    // Liste döner: Optional<Object[]> çok kolonlu satırı bir dizi daha sarar
+    @Query(INDEX_ROW + "WHERE st.id = :id")
+    List<Object[]> findIndexRowsById(@Param("id") int id);
+
+    @Query(INDEX_ROW + "WHERE t.id = :tireId")
+    List<Object[]> findIndexRowsByTireId(@Param("tireId") int tireId);
+
+    @Query(INDEX_ROW + "WHERE ts.id = :sizeId")
+    List<Object[]> findIndexRowsBySizeId(@Param("sizeId") int sizeId);
+
+    // Koşullu düşüm: yeterli adet yoksa 0 satır döner, okuma-yazma arası yarış yok ve stok hiçbir zaman eksiye inmez
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStock st SET st.stockQuantity = st.stockQuantity - :quantity "
+            + "WHERE st.id = :id AND st.stockQuantity >= :quantity")
+    int decrementIfAvailable(@Param("id") int id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStock st SET st.stockQuantity = st.stockQuantity + :quantity WHERE st.id = :id")
+    int increment(@Param("id") int id, @Param("quantity") int quantity);
+
+    // Sayım düzeltmesi: adet okunduğundan beri (rezervasyon/iade ile) değişmediyse yazılır, değiştiyse 0 döner
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStock st SET st.tire = :tire, st.tireShop = :tireShop, st.stockQuantity = :quantity "
+            + "WHERE st.id = :id AND st.stockQuantity = :expected")
+    int updateIfQuantityUnchanged(@Param("id") int id, @Param("expected") int expected, @Param("tire") Tire tire,
+                                  @Param("tireShop") TireShop tireShop, @Param("quantity") int quantity);
+
+    // Stok indeksi hazır değilken: kutu içindeki dükkanların bu ebattaki toplam adedi (shopId, toplam)
+    @Query("SELECT sh.id, SUM(st.stockQuantity) FROM TireStock st JOIN st.tireShop sh JOIN st.tire t "
+            + "JOIN t.tireSize ts WHERE ts.normalizedSize = :sizeKey "
+            + "AND sh.latitude BETWEEN :minLatitude AND :maxLatitude "
+            + "AND sh.longitude BETWEEN :minLongitude AND :maxLongitude "
+            + "GROUP BY sh.id HAVING SUM(st.stockQuantity) >= :minQuantity")
+    List<Object[]> findShopQuantitiesInBox(@Param("sizeKey") String sizeKey, @Param("minQuantity") long minQuantity,
+                                           @Param("minLatitude") double minLatitude,
+                                           @Param("maxLatitude") double maxLatitude,
+                                           @Param("minLongitude") double minLongitude,
+                                           @Param("maxLongitude") double maxLongitude);
 }
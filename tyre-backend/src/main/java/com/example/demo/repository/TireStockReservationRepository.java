@@ -0,0 +1,43 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReservationStatus;
+import com.example.demo.entity.TireStockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TireStockReservationRepository extends JpaRepository<TireStockReservation, Integer> {
+
+    // Durum geçişi sadece "from" durumundaysa olur; iki eşzamanlı bırakma stoğu iki kez geri eklemez
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") int id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+
+    // Satış sadece süresi dolmamış rezervasyonda; taramanın henüz geçmediği süresi dolmuş satır da reddedilir
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStockReservation r SET r.status = com.example.demo.entity.ReservationStatus.COMMITTED "
+            + "WHERE r.id = :id AND r.status = com.example.demo.entity.ReservationStatus.HELD AND r.expiresAt > :now")
+    int commitHeld(@Param("id") int id, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TireStockReservation r SET r.appointmentId = :appointmentId, r.expiresAt = :expiresAt "
+            + "WHERE r.id = :id AND r.status = com.example.demo.entity.ReservationStatus.HELD")
+    int linkToAppointment(@Param("id") int id, @Param("appointmentId") int appointmentId,
+                          @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT r.id FROM TireStockReservation r WHERE r.appointmentId = :appointmentId AND r.status = :status")
+    List<Integer> findIdsByAppointmentIdAndStatus(@Param("appointmentId") int appointmentId,
+                                                  @Param("status") ReservationStatus status);
+
+    // Expiry taraması, parça parça (idx_stock_reservations_status_expires)
+    @Query("SELECT r FROM TireStockReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt, r.id")
+    List<TireStockReservation> findExpiring(@Param("status") ReservationStatus status, @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+}
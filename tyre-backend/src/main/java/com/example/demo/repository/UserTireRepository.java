@@ -1,9 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.entity.TireSize;
 import com.example.demo.entity.UserTire;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserTireRepository extends JpaRepository<UserTire, Integer> {
+
+    // Mükerrer ebat satırı birleştirilirken kullanıcı lastiklerini kalan satıra taşır
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserTire t SET t.tireSize = :to WHERE t.tireSize = :from")
+    int reassignTireSize(@Param("from") TireSize from, @Param("to") TireSize to);
 }
@@ -1,11 +1,20 @@
 package com.example.demo.repository;
 
+import com.example.demo.entity.TireSize;
 import com.example.demo.entity.UserVehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface UserVehicleRepository extends JpaRepository<UserVehicle, Integer> {
     List<UserVehicle> findByUserId(Integer userId);
+
+    // Mükerrer ebat satırı birleştirilirken araçları kalan satıra taşır
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserVehicle v SET v.tireSize = :to WHERE v.tireSize = :from")
+    int reassignTireSize(@Param("from") TireSize from, @Param("to") TireSize to);
 }
@@ -2,8 +2,6 @@ package com.example.demo.security;
 
 import com.example.demo.entity.User;
 import com.example.demo.entity.TireShop;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.TireShopRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -29,13 +27,11 @@ import java.util.List;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
-    private final TireShopRepository tireShopRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtFilter(JwtUtil jwtUtil, UserRepository userRepository, TireShopRepository tireShopRepository) {
+    public JwtFilter(JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
-        this.tireShopRepository = tireShopRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -80,36 +76,16 @@ public class JwtFilter extends OncePerRequestFilter {
                 Object principal = null;
                 boolean isValidUser = false;
 
-                if ("USER".equalsIgnoreCase(role)) {
-                    System.out.println("Looking for USER with ID: " + userId);
-                    User user = userRepository.findById(userId).orElse(null);
-                    if (user != null) {
-                        System.out.println("Found user: " + user.getEmail() + ", Expected: " + email);
-                        if (user.getEmail().equals(email)) {
-                            principal = user;
-                            isValidUser = true;
-                            System.out.println("Valid USER found: " + user.getEmail());
-                        } else {
-                            System.out.println("Email mismatch - DB: " + user.getEmail() + ", Token: " + email);
-                        }
-                    } else {
-                        System.out.println("USER not found with ID: " + userId);
-                    }
-                } else if ("SHOP".equalsIgnoreCase(role)) {
-                    System.out.println("Looking for SHOP with ID: " + userId);
-                    TireShop tireShop = tireShopRepository.findById(userId).orElse(null);
-                    if (tireShop != null) {
-                        System.out.println("Found shop: " + tireShop.getEmail() + ", Expected: " + email);
-                        if (tireShop.getEmail().equals(email)) {
-                            principal = tireShop;
-                            isValidUser = true;
-                            System.out.println("Valid SHOP found: " + tireShop.getEmail());
-                        } else {
-                            System.out.println("Email mismatch - DB: " + tireShop.getEmail() + ", Token: " + email);
-                        }
-                    } else {
-                        System.out.println("SHOP not found with ID: " + userId);
-                    }
+                // Kullanıcı/lastikçi önce önbellekten okunur; sadece ıska durumunda DB sorgusu atılır
+                Object cached = principalCache.get(role, userId);
+                if (cached instanceof User user && email.equals(user.getEmail())) {
+                    principal = user;
+                    isValidUser = true;
+                } else if (cached instanceof TireShop tireShop && email.equals(tireShop.getEmail())) {
+                    principal = tireShop;
+                    isValidUser = true;
+                } else {
+                    System.out.println("No valid " + role + " principal for ID: " + userId);
                 }
 
                 if (isValidUser && principal != null) {
@@ -0,0 +1,121 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// DESIGN PATTERN: Registry Pattern (Key Ring)
+// JWT imzalama/doğrulama anahtarlarını kid (key id) ile tutar
+// Tüm node'lar aynı dosyayı okur: aktif anahtarla imzalar, dosyadaki her anahtarla doğrular.
+// Dosya periyodik olarak yeniden okunur; yeni anahtar eklenip "active" değiştirilerek rotasyon yapılır.
+//
+// Dosya formatı (properties):
+//   active=2025-10
+//   key.2025-09=<base64, en az 32 byte>
+//   key.2025-10=<base64, en az 32 byte>
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String EPHEMERAL_KID = "local";
+
+    private final Path path;
+    private volatile Snapshot snapshot;
+    private volatile FileTime loadedModifiedTime;
+
+    public JwtKeyRing(@Value("${jwt.keyring.path:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        if (this.path == null) {
+            // Tek node geliştirme ortamı: her açılışta yeni anahtar, eski oturumlar geçersiz olur
+            log.warn("jwt.keyring.path is not set, using an ephemeral signing key; tokens will not survive restarts or work across nodes");
+            SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            this.snapshot = new Snapshot(EPHEMERAL_KID, Map.of(EPHEMERAL_KID, key));
+        } else {
+            reload();
+        }
+    }
+
+    private record Snapshot(String activeKid, Map<String, SecretKey> keys) {
+    }
+
+    public record SigningKey(String kid, SecretKey key) {
+    }
+
+    // kid ve anahtar aynı snapshot'tan okunur; rotasyon anında uyumsuz çift oluşmaz
+    public SigningKey signingKey() {
+        Snapshot current = snapshot;
+        return new SigningKey(current.activeKid(), current.keys().get(current.activeKid()));
+    }
+
+    // Bilinmeyen kid için null döner; kid'siz eski token'lar aktif anahtarla doğrulanır
+    public SecretKey verificationKey(String kid) {
+        Snapshot current = snapshot;
+        return current.keys().get(kid == null ? current.activeKid() : kid);
+    }
+
+    public boolean hasKey(String kid) {
+        return snapshot.keys().containsKey(kid);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keyring.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (path == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (!modified.equals(loadedModifiedTime)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Bozuk/eksik dosyada mevcut anahtarlarla devam edilir
+            log.error("JWT key ring reload failed, keeping previous keys", e);
+        }
+    }
+
+    private synchronized void reload() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+
+            Map<String, SecretKey> keys = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith("key.")) {
+                    byte[] secret = Base64.getDecoder().decode(properties.getProperty(name).trim());
+                    keys.put(name.substring(4), Keys.hmacShaKeyFor(secret));
+                }
+            }
+            String active = properties.getProperty("active", "").trim();
+            if (!keys.containsKey(active)) {
+                throw new IllegalStateException("Active JWT key '" + active + "' is not present in " + path);
+            }
+
+            Snapshot previous = snapshot;
+            snapshot = new Snapshot(active, Map.copyOf(keys));
+            loadedModifiedTime = modified;
+            if (previous == null || !previous.activeKid().equals(active) || !previous.keys().keySet().equals(keys.keySet())) {
+                log.info("JWT key ring loaded: active={}, verification keys={}", active, keys.keySet());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key ring " + path, e);
+        }
+    }
+}
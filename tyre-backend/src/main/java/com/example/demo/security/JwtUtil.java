@@ -1,22 +1,59 @@
 package com.example.demo.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // DESIGN PATTERN: Utility Pattern
 // JWT token oluşturma ve doğrulama işlemlerini encapsulate eder
+// Parser tek sefer oluşturulur; doğrulanmış claim'ler token'ın exp anına kadar önbellekte tutulur
+// Anahtarlar JwtKeyRing'den gelir: header'daki kid ile doğrulama anahtarı seçilir
 @Component
 public class JwtUtil {
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
     private final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 saat
 
+    private final JwtKeyRing keyRing;
+
+    // JwtParser immutable ve thread-safe, her token için yeniden kurmaya gerek yok
+    private final JwtParser parser;
+
+    // Anahtar ham token değil SHA-256 özeti; bellekte kullanılabilir bearer token tutulmaz
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private record VerifiedToken(Claims claims, long expiresAt, String kid) {
+    }
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(String email, int userId, String role) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setSubject(email)
                 .addClaims(Map.of(
                         "userId", userId,
@@ -24,12 +61,38 @@ public class JwtUtil {
                 ))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key)
+                .signWith(signingKey.key())
                 .compact();
     }
 
+    // Aynı token tekrar geldiğinde imza doğrulaması ve Base64/JSON çözümü atlanır
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            // Anahtarı halkadan çıkarılmış token önbellekten de düşer
+            if (cached.expiresAt() > now && (cached.kid() == null || keyRing.hasKey(cached.kid()))) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(cacheKey);
+        }
+
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                evict(now);
+            }
+            verifiedTokens.put(cacheKey, new VerifiedToken(claims, expiration.getTime(), jws.getHeader().getKeyId()));
+        }
+        return claims;
+    }
+
+    // Önbelleksiz tam doğrulama (imza + exp kontrolü)
+    Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token) {
@@ -40,4 +103,20 @@ public class JwtUtil {
             return false;
         }
     }
+
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+            verifiedTokens.clear();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.demo.security;
+
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.support.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// DESIGN PATTERN: Cache-Aside Pattern
+// JWT ile doğrulanan kullanıcı/lastikçi nesnelerini (role, id) anahtarıyla kısa süre bellekte tutar
+// Kalıcı durumda her API çağrısı için veritabanına gidilmez; hesap güncellenince/silinince geçersiz kılınır
+@Component
+public class PrincipalCache {
+
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final TireShopRepository tireShopRepository;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserRepository userRepository, TireShopRepository tireShopRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.tireShopRepository = tireShopRepository;
+        this.hits = Counter.builder("auth.principal.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache.misses").register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    private record Key(String role, int id) {
+    }
+
+    private record Entry(Object principal, long expiresAt) {
+    }
+
+    // Önbellekte yoksa veya süresi dolmuşsa role göre veritabanından yükler; bulunamazsa null
+    public Object get(String role, int id) {
+        Key key = new Key(role.toUpperCase(), id);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+        misses.increment();
+
+        Object principal = load(key);
+        if (principal == null) {
+            entries.remove(key);
+            return null;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            evict(now);
+        }
+        entries.put(key, new Entry(principal, now + TTL_MILLIS));
+        return principal;
+    }
+
+    public void invalidateUser(int userId) {
+        invalidate(new Key("USER", userId));
+    }
+
+    public void invalidateShop(int shopId) {
+        invalidate(new Key("SHOP", shopId));
+    }
+
+    private Object load(Key key) {
+        switch (key.role()) {
+            case "USER":
+                return userRepository.findById(key.id()).orElse(null);
+            case "SHOP":
+                return tireShopRepository.findById(key.id()).orElse(null);
+            default:
+                return null;
+        }
+    }
+
+    // Önce süresi dolanlar, yine de doluysa rastgele bir kısmı atılır (boyut sınırı)
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<Key> iterator = entries.keySet().iterator();
+        int toRemove = entries.size() - MAX_ENTRIES + MAX_ENTRIES / 10;
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // Hemen ve commit sonrası tekrar silinir; commit öncesi araya giren eski okuma kalıcı olmaz
+    private void invalidate(Key key) {
+        entries.remove(key);
+        TransactionHooks.afterCompletion(status -> entries.remove(key));
+    }
+}
@@ -7,38 +7,60 @@ import com.example.demo.entity.TireShopService;
 import com.example.demo.entity.UserVehicle;
 import com.example.demo.entity.AppointmentStatus;
 import com.example.demo.dto.AppointmentCreateRequest;
+import com.example.demo.dto.AppointmentPage;
 import com.example.demo.dto.AppointmentResponse;
 import com.example.demo.repository.AppointmentRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.TireShopRepository;
 import com.example.demo.repository.TireShopServiceRepository;
 import com.example.demo.repository.UserVehicleRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
-public class AppointmentService {    private final AppointmentRepository appointmentRepository;
+public class AppointmentService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    // MySQL DATETIME alt sınırı; from verilmezse tüm geçmiş
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final TireShopRepository tireShopRepository;
     private final TireShopServiceRepository tireShopServiceRepository;
-    private final UserVehicleRepository userVehicleRepository;    public AppointmentService(AppointmentRepository appointmentRepository, 
+    private final UserVehicleRepository userVehicleRepository;
+    private final AvailabilityService availabilityService;
+    private final TireStockReservationService reservationService;
+
+    public AppointmentService(AppointmentRepository appointmentRepository, 
                             UserRepository userRepository,
                             TireShopRepository tireShopRepository,
                             TireShopServiceRepository tireShopServiceRepository,
-                            UserVehicleRepository userVehicleRepository) {
+                            UserVehicleRepository userVehicleRepository,
+                            AvailabilityService availabilityService,
+                            TireStockReservationService reservationService) {
         this.appointmentRepository = appointmentRepository;
         this.userRepository = userRepository;
         this.tireShopRepository = tireShopRepository;
         this.tireShopServiceRepository = tireShopServiceRepository;
         this.userVehicleRepository = userVehicleRepository;
+        this.availabilityService = availabilityService;
+        this.reservationService = reservationService;
     }
 
   
@@ -77,10 +99,10 @@ public class AppointmentService {    private final AppointmentRepository appoint
         
         // Find TireShop
         TireShop tireShop = tireShopRepository.findById(request.getTireShopId())
-                .orElseThrow(() -> new RuntimeException("TireShop not found with id: " + request.getTireShopId()));
+                .orElseThrow(() -> new IllegalArgumentException("TireShop not found with id: " + request.getTireShopId()));
           // Find TireShopService
         TireShopService service = tireShopServiceRepository.findById(request.getServiceId())
-                .orElseThrow(() -> new RuntimeException("Service not found with id: " + request.getServiceId()));
+                .orElseThrow(() -> new IllegalArgumentException("Service not found with id: " + request.getServiceId()));
         
         // Find UserVehicle (only if vehicleId is provided)
         UserVehicle vehicle = null;
@@ -101,8 +123,13 @@ public class AppointmentService {    private final AppointmentRepository appoint
         
         System.out.println("AppointmentService - Saving appointment for user: " + user.getEmail() + 
                           " at shop: " + tireShop.getShopName());
-        
-        return appointmentRepository.save(appointment);
+
+        // Slot doluysa 409; kayıt geri alınırsa slot bırakılır
+        AvailabilityService.Booking booking = availabilityService.bookingOf(appointment);
+        availabilityService.reserve(booking);
+        Appointment saved = appointmentRepository.save(appointment);
+        availabilityService.claim(saved.getId(), booking);
+        return saved;
     }
 
     @Transactional
@@ -128,8 +155,12 @@ public class AppointmentService {    private final AppointmentRepository appoint
             System.out.println("AppointmentService - No authentication found");
             throw new RuntimeException("Authentication required to create appointments");
         }
-        
-        return appointmentRepository.save(appointment);
+
+        AvailabilityService.Booking booking = availabilityService.bookingOf(appointment);
+        availabilityService.reserve(booking);
+        Appointment saved = appointmentRepository.save(appointment);
+        availabilityService.claim(saved.getId(), booking);
+        return saved;
     }
 
   
@@ -137,11 +168,14 @@ public class AppointmentService {    private final AppointmentRepository appoint
     public Appointment updateAppointment(int id, Appointment updatedAppointment) {
         Appointment existingAppointment = appointmentRepository.findById(id).orElse(null);
         if (existingAppointment != null) {
+            availabilityService.replace(id, availabilityService.bookingOf(existingAppointment),
+                    availabilityService.bookingOf(updatedAppointment));
             existingAppointment.setAppointmentDate(updatedAppointment.getAppointmentDate());
             existingAppointment.setUser(updatedAppointment.getUser());
             existingAppointment.setTireShop(updatedAppointment.getTireShop());
             existingAppointment.setService(updatedAppointment.getService());
             existingAppointment.setStatus(updatedAppointment.getStatus());
+            settleReservations(id, updatedAppointment.getStatus());
             return appointmentRepository.save(existingAppointment);
         }
         return null;    }    @Transactional(readOnly = true)
@@ -183,40 +217,55 @@ public class AppointmentService {    private final AppointmentRepository appoint
                 throw new RuntimeException("Unauthorized to update this appointment");
             }
             
+            AppointmentStatus newStatus;
             try {
-                appointment.setStatus(com.example.demo.entity.AppointmentStatus.valueOf(status.toUpperCase()));
-                return appointmentRepository.save(appointment);
+                newStatus = AppointmentStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
                 return null; // Invalid status
             }
+            // İptal slotu boşaltır, iptalden geri alma slotu yeniden ister
+            availabilityService.replace(id, availabilityService.bookingOf(appointment),
+                    availabilityService.bookingOf(appointment, newStatus));
+            appointment.setStatus(newStatus);
+            settleReservations(id, newStatus);
+            return appointmentRepository.save(appointment);
         }
         return null;
     }@Transactional
     public boolean deleteAppointment(int id) {
-        if (appointmentRepository.existsById(id)) {
-            appointmentRepository.deleteById(id);
+        Optional<Appointment> appointment = appointmentRepository.findById(id);
+        if (appointment.isPresent()) {
+            availabilityService.release(id, availabilityService.bookingOf(appointment.get()));
+            reservationService.releaseForAppointment(id);
+            appointmentRepository.delete(appointment.get());
             return true;
         }
         return false;
-    }    // Methods to get appointments as DTOs
+    }
+
+    // Randevuya bağlı stok rezervasyonları: tamamlanınca satılır, iptalde stoğa döner
+    private void settleReservations(int appointmentId, AppointmentStatus status) {
+        if (status == AppointmentStatus.COMPLETED) {
+            reservationService.commitForAppointment(appointmentId);
+        } else if (status == AppointmentStatus.CANCELLED) {
+            reservationService.releaseForAppointment(appointmentId);
+        }
+    }
+
+    // Methods to get appointments as DTOs (tek sorguluk constructor projection)
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getAllAppointmentsAsDTO() {
-        return appointmentRepository.findAll().stream()
-                .map(this::toAppointmentResponse)
-                .collect(Collectors.toList());
+        return appointmentRepository.findAllResponses();
     }
 
     @Transactional(readOnly = true)
     public AppointmentResponse getAppointmentByIdAsDTO(int id) {
-        Appointment appointment = appointmentRepository.findById(id).orElse(null);
-        return appointment != null ? toAppointmentResponse(appointment) : null;
+        return appointmentRepository.findResponseById(id).orElse(null);
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByShopIdAsDTO(int shopId) {
-        return getAppointmentsByShopId(shopId).stream()
-                .map(this::toAppointmentResponse)
-                .collect(Collectors.toList());
+        return appointmentRepository.findResponsesByShopId(shopId);
     }
 
     @Transactional(readOnly = true)
@@ -229,17 +278,11 @@ public class AppointmentService {    private final AppointmentRepository appoint
             if (principal instanceof User) {
                 // Customer: return only their appointments
                 User user = (User) principal;
-                List<Appointment> appointments = appointmentRepository.findByUserId(user.getId());
-                return appointments.stream()
-                    .map(this::toAppointmentResponse)
-                    .collect(Collectors.toList());
+                return appointmentRepository.findResponsesByUserId(user.getId());
             } else if (principal instanceof TireShop) {
                 // Shop: return only their appointments
                 TireShop shop = (TireShop) principal;
-                List<Appointment> appointments = appointmentRepository.findByTireShopId(shop.getId());
-                return appointments.stream()
-                    .map(this::toAppointmentResponse)
-                    .collect(Collectors.toList());
+                return appointmentRepository.findResponsesByShopId(shop.getId());
             }
         }
         
@@ -272,58 +315,99 @@ public class AppointmentService {    private final AppointmentRepository appoint
           return false;
     }
 
-    // Helper method to find appointments by user ID
+    // İmleç tabanlı sayfalama: from/to gün olarak dahil, status opsiyonel, en yeni randevu önce
     @Transactional(readOnly = true)
-    public List<Appointment> findByUserId(Integer userId) {
-        return appointmentRepository.findByUserId(userId);
+    public AppointmentPage getAppointmentPageByShopId(int shopId, LocalDate from, LocalDate to,
+                                                      String status, String cursor, Integer limit) {
+        PageQuery query = new PageQuery(from, to, status, cursor, limit);
+        return query.toPage(appointmentRepository.findResponsePageByShopId(shopId, query.from, query.cursorDate,
+                query.cursorId, query.status, PageRequest.of(0, query.limit + 1)));
     }
 
-    // Helper method to map Appointment entity to AppointmentResponse DTO
-    private AppointmentResponse toAppointmentResponse(Appointment appointment) {
-        AppointmentResponse response = new AppointmentResponse();
-        
-        response.setId(appointment.getId());
-        
-        // Format date and time
-        if (appointment.getAppointmentDate() != null) {
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-            response.setDate(appointment.getAppointmentDate().format(dateFormatter));
-            response.setTime(appointment.getAppointmentDate().format(timeFormatter));
+    @Transactional(readOnly = true)
+    public AppointmentPage getAppointmentPageForAuthenticatedUser(LocalDate from, LocalDate to,
+                                                                  String status, String cursor, Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+
+        if (principal instanceof TireShop shop) {
+            return getAppointmentPageByShopId(shop.getId(), from, to, status, cursor, limit);
         }
-        
-        // Shop information
-        if (appointment.getTireShop() != null) {
-            response.setShopName(appointment.getTireShop().getShopName());
-            response.setAddress(appointment.getTireShop().getAddress());
+        if (principal instanceof User user) {
+            PageQuery query = new PageQuery(from, to, status, cursor, limit);
+            return query.toPage(appointmentRepository.findResponsePageByUserId(user.getId(), query.from,
+                    query.cursorDate, query.cursorId, query.status, PageRequest.of(0, query.limit + 1)));
         }
-        
-        // Service information
-        if (appointment.getService() != null) {
-            AppointmentResponse.ServiceDto serviceDto = new AppointmentResponse.ServiceDto(
-                appointment.getService().getId(),
-                appointment.getService().getServiceName(),
-                appointment.getService().getPrice()
-            );
-            response.setService(serviceDto);
+        return new AppointmentPage(new ArrayList<>(), null);
+    }
+
+    // Sayfa parametrelerini çözer; bir fazla satır okunarak sonraki sayfanın olup olmadığı anlaşılır
+    private static final class PageQuery {
+        private final LocalDateTime from;
+        private final LocalDateTime cursorDate;
+        private final int cursorId;
+        private final AppointmentStatus status;
+        private final int limit;
+
+        private PageQuery(LocalDate from, LocalDate to, String status, String cursor, Integer limit) {
+            this.from = from != null ? from.atStartOfDay() : MIN_DATE;
+            this.status = parseStatus(status);
+            this.limit = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            if (cursor != null && !cursor.isBlank()) {
+                String[] parts = decodeCursor(cursor);
+                this.cursorDate = LocalDateTime.parse(parts[0]);
+                this.cursorId = Integer.parseInt(parts[1]);
+            } else {
+                // İlk sayfa: to gününün sonuna kadar (ertesi gün 00:00 hariç)
+                this.cursorDate = to != null ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+                this.cursorId = 0;
+            }
         }
-        
-        // Vehicle information
-        if (appointment.getVehicle() != null) {
-            UserVehicle vehicle = appointment.getVehicle();
-            response.setVehicle(vehicle.getBrand() + " " + vehicle.getModel() + " (" + vehicle.getLicensePlate() + ")");
-        } else {
-            response.setVehicle("Araç bilgisi mevcut değil");
+
+        private static AppointmentStatus parseStatus(String status) {
+            if (status == null || status.isBlank()) {
+                return null;
+            }
+            try {
+                return AppointmentStatus.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Geçersiz randevu durumu: " + status, e);
+            }
         }
-        
-        // Customer information
-        if (appointment.getUser() != null) {
-            response.setCustomerName(appointment.getUser().getName());
-            response.setCustomerPhone(appointment.getUser().getPhone());
+
+        private AppointmentPage toPage(List<AppointmentResponse> rows) {
+            if (rows.size() <= limit) {
+                return new AppointmentPage(rows, null);
+            }
+            List<AppointmentResponse> items = new ArrayList<>(rows.subList(0, limit));
+            AppointmentResponse last = items.get(limit - 1);
+            return new AppointmentPage(items, encodeCursor(last.getAppointmentDate(), last.getId()));
         }
-        
-        response.setStatus(appointment.getStatus());
-        
-        return response;
+    }
+
+    static String encodeCursor(LocalDateTime appointmentDate, int id) {
+        String raw = appointmentDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Geçersiz sayfa imleci");
+            }
+            LocalDateTime.parse(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Geçersiz sayfa imleci", e);
+        }
+    }
+
+    // Helper method to find appointments by user ID
+    @Transactional(readOnly = true)
+    public List<Appointment> findByUserId(Integer userId) {
+        return appointmentRepository.findByUserId(userId);
     }
 }
@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.availability.DaySlots;
+import com.example.demo.availability.SlotCalendar;
+import com.example.demo.availability.WeeklyHours;
+import com.example.demo.dto.AvailabilityResponse;
+import com.example.demo.entity.Appointment;
+import com.example.demo.entity.AppointmentSlot;
+import com.example.demo.entity.AppointmentStatus;
+import com.example.demo.entity.TireShop;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.AppointmentSlotRepository;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireShopServiceRepository;
+import com.example.demo.support.TransactionHooks;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// DESIGN PATTERN: Service Layer Pattern
+// Randevu kapasite modeli: çalışma saatleri + hizmet süresi + SlotCalendar doluluk maskesi
+// Boş saat sorgusu bellekteki bit maskeleriyle cevaplanır; randevu kaydı öncesi slotlar atomik olarak ayrılır,
+// transaction geri alınırsa bırakılır. Node içi yarışı CAS, node'lar arası yarışı AppointmentSlots unique index'i çözer.
+@Service
+public class AvailabilityService {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSlotRepository appointmentSlotRepository;
+    private final TireShopRepository tireShopRepository;
+    private final TireShopServiceRepository tireShopServiceRepository;
+    private final SlotCalendar calendar;
+
+    // Sık sorulan ama nadiren değişen veriler: dükkanın haftalık saatleri ve hizmet süresi
+    private final Map<Integer, WeeklyHours> openHours = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> serviceDurations = new ConcurrentHashMap<>();
+
+    public AvailabilityService(AppointmentRepository appointmentRepository,
+                               AppointmentSlotRepository appointmentSlotRepository,
+                               TireShopRepository tireShopRepository,
+                               TireShopServiceRepository tireShopServiceRepository,
+                               SlotCalendar calendar) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentSlotRepository = appointmentSlotRepository;
+        this.tireShopRepository = tireShopRepository;
+        this.tireShopServiceRepository = tireShopServiceRepository;
+        this.calendar = calendar;
+    }
+
+    // Bir randevunun takvimde kapladığı yer; iptal edilmiş/eksik randevular yer kaplamaz (null)
+    public record Booking(SlotCalendar.Key key, long mask) {
+    }
+
+    // Dükkan ya da hizmet yoksa null (404)
+    public AvailabilityResponse getAvailability(int shopId, LocalDate date, Integer serviceId) {
+        Integer durationMinutes = serviceId != null ? serviceDuration(serviceId) : DaySlots.DEFAULT_DURATION_MINUTES;
+        WeeklyHours hours = weeklyHours(shopId);
+        if (durationMinutes == null || hours == null) {
+            return null;
+        }
+        long open = DaySlots.openMask(hours, date.getDayOfWeek());
+        SlotCalendar.Key key = new SlotCalendar.Key(shopId, date);
+        long occupied = calendar.occupied(key, loader(key));
+
+        // Bugün için geçmiş saatler önerilmez
+        int firstSlot = 0;
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) {
+            firstSlot = DaySlots.SLOTS_PER_DAY;
+        } else if (date.equals(today)) {
+            firstSlot = DaySlots.slotOf(LocalTime.now()) + 1;
+        }
+
+        List<String> times = new ArrayList<>();
+        for (int slot = firstSlot; slot < DaySlots.SLOTS_PER_DAY; slot++) {
+            long mask = DaySlots.cover(DaySlots.timeOf(slot), durationMinutes);
+            if (mask != 0 && (mask & open) == mask && (mask & occupied) == 0) {
+                times.add(DaySlots.timeOf(slot).format(TIME_FORMATTER));
+            }
+        }
+        return new AvailabilityResponse(date.toString(), DaySlots.SLOT_MINUTES, durationMinutes, times);
+    }
+
+    public Booking bookingOf(Appointment appointment) {
+        return bookingOf(appointment, appointment.getStatus());
+    }
+
+    // Durum değişikliği öncesi yeni durumla kaplanacak yer
+    public Booking bookingOf(Appointment appointment, AppointmentStatus status) {
+        LocalDateTime date = appointment.getAppointmentDate();
+        TireShop shop = appointment.getTireShop();
+        if (date == null || shop == null || status == AppointmentStatus.CANCELLED) {
+            return null;
+        }
+        Integer duration = appointment.getService() != null ? appointment.getService().getDurationMinutes() : null;
+        return new Booking(new SlotCalendar.Key(shop.getId(), date.toLocalDate()),
+                DaySlots.cover(date.toLocalTime(), duration));
+    }
+
+    // Kayıttan önce çağrılır; dolu slotta ConflictException, çalışma saati dışında IllegalArgumentException
+    public void reserve(Booking booking) {
+        if (booking == null) {
+            return;
+        }
+        checkWithinOpeningHours(booking);
+        if (!calendar.tryReserve(booking.key(), booking.mask(), loader(booking.key()))) {
+            throw new ConflictException("Seçilen randevu saati dolu. Lütfen başka bir saat seçin.");
+        }
+        TransactionHooks.onRollback(() -> calendar.release(booking.key(), booking.mask()));
+    }
+
+    // Kaydedilen randevunun slot satırlarını yazar; başka node aynı slotu almışsa unique index reddeder
+    public void claim(int appointmentId, Booking booking) {
+        if (booking == null) {
+            return;
+        }
+        List<AppointmentSlot> rows = new ArrayList<>();
+        long mask = booking.mask();
+        while (mask != 0) {
+            int slot = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            rows.add(new AppointmentSlot(booking.key().shopId(),
+                    booking.key().date().atTime(DaySlots.timeOf(slot)), appointmentId));
+        }
+        try {
+            appointmentSlotRepository.saveAllAndFlush(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Bu node'un takvimi eski: gün, transaction bittikten sonra veritabanından yeniden yüklenir
+            TransactionHooks.afterCompletion(status -> calendar.evict(booking.key()));
+            throw new ConflictException("Seçilen randevu saati dolu. Lütfen başka bir saat seçin.");
+        }
+    }
+
+    // Silinen/iptal edilen randevunun slotları: satırlar transaction içinde, bellek commit sonrası boşalır
+    public void release(int appointmentId, Booking booking) {
+        if (booking == null) {
+            return;
+        }
+        appointmentSlotRepository.deleteByAppointmentId(appointmentId);
+        TransactionHooks.afterCommit(() -> calendar.release(booking.key(), booking.mask()));
+    }
+
+    // Tarih/hizmet/durum değişikliği: eski yer bırakılır, yeni yer ayrılır.
+    // Entity değiştirilmeden önce çağrılmalı; aksi halde takvim yüklenirken flush edilen yeni hali kendisiyle çakışır.
+    public void replace(int appointmentId, Booking previous, Booking next) {
+        if (previous == null) {
+            reserve(next);
+            claim(appointmentId, next);
+            return;
+        }
+        if (next == null) {
+            release(appointmentId, previous);
+            return;
+        }
+        if (previous.equals(next)) {
+            return;
+        }
+        if (!previous.key().equals(next.key())) {
+            reserve(next);
+            TransactionHooks.afterCommit(() -> calendar.release(previous.key(), previous.mask()));
+        } else {
+            checkWithinOpeningHours(next);
+            if (!calendar.tryMove(next.key(), previous.mask(), next.mask(), loader(next.key()))) {
+                throw new ConflictException("Seçilen randevu saati dolu. Lütfen başka bir saat seçin.");
+            }
+            TransactionHooks.onRollback(() -> calendar.tryMove(next.key(), next.mask(), previous.mask(),
+                    loader(next.key())));
+        }
+        appointmentSlotRepository.deleteByAppointmentId(appointmentId);
+        claim(appointmentId, next);
+    }
+
+    public void invalidateShop(int shopId) {
+        openHours.remove(shopId);
+    }
+
+    public void invalidateService(int serviceId) {
+        serviceDurations.remove(serviceId);
+    }
+
+    private void checkWithinOpeningHours(Booking booking) {
+        WeeklyHours hours = weeklyHours(booking.key().shopId());
+        if (hours == null) {
+            throw new IllegalArgumentException("Lastikçi bulunamadı: " + booking.key().shopId());
+        }
+        long open = DaySlots.openMask(hours, booking.key().date().getDayOfWeek());
+        if (booking.mask() == 0 || (booking.mask() & open) != booking.mask()) {
+            throw new IllegalArgumentException("Seçilen saat dükkanın çalışma saatleri dışında.");
+        }
+    }
+
+    // Konum/harita indeksleriyle aynı kaynak: saklanan haftalık maske, yoksa metin saatler WeeklyHours ile.
+    // Dükkan yoksa null (önbelleğe yazılmaz)
+    private WeeklyHours weeklyHours(int shopId) {
+        return openHours.computeIfAbsent(shopId, id -> tireShopRepository.findById(id)
+                .map(shop -> WeeklyHours.of(shop.getWeeklyOpenMask(), shop.getOpeningHour(), shop.getClosingHour()))
+                .orElse(null));
+    }
+
+    // Hizmet yoksa null
+    private Integer serviceDuration(int serviceId) {
+        return serviceDurations.computeIfAbsent(serviceId, id -> tireShopServiceRepository.findById(id)
+                .map(service -> Optional.ofNullable(service.getDurationMinutes()).orElse(DaySlots.DEFAULT_DURATION_MINUTES))
+                .orElse(null));
+    }
+
+    private LongSupplier loader(SlotCalendar.Key key) {
+        return () -> {
+            LocalDateTime start = key.date().atStartOfDay();
+            long mask = 0L;
+            for (Object[] row : appointmentRepository.findOccupiedSlots(key.shopId(), start, start.plusDays(1))) {
+                LocalDateTime date = (LocalDateTime) row[0];
+                mask |= DaySlots.cover(date.toLocalTime(), (Integer) row[1]);
+            }
+            return mask;
+        };
+    }
+}
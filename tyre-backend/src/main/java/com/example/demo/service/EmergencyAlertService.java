@@ -2,74 +2,173 @@ package com.example.demo.service;
 
 import com.example.demo.entity.TireShop;
 import com.example.demo.entity.ServiceRequest;
+import com.example.demo.geo.TireShopGeoIndex;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import com.example.demo.pattern.strategy.AlertNotificationStrategy;
+import com.example.demo.pattern.strategy.AlertNotificationStrategy.NearbyAlert;
 import com.example.demo.repository.TireShopRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-// DESIGN PATTERN: Service Layer Pattern + Strategy Pattern
+// DESIGN PATTERN: Service Layer Pattern + Strategy Pattern + Producer/Consumer
 // Acil durum alert sistemi - yakındaki dükkanları bulur ve bildirim gönderir
+// Talep commit edildikten sonra sınırlı bir kuyruğa alınır, arka plan thread'i toplu (batch) dağıtır
 // Farklı bildirim stratejileri için genişletilebilir
 @Service
 public class EmergencyAlertService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmergencyAlertService.class);
+
+    static final double ALERT_RADIUS_KM = 15.0;
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final TireShopRepository tireShopRepository;
+    private final TireShopGeoIndex geoIndex;
+    private final List<AlertNotificationStrategy> notificationStrategies;
+
+    private final BlockingQueue<PendingAlert> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Counter rejectedAlerts;
+    private final Timer fanOutLatency;
+    private final DistributionSummary shopsNotified;
+    private volatile Thread worker;
 
-    public EmergencyAlertService(TireShopRepository tireShopRepository) {
+    public EmergencyAlertService(TireShopRepository tireShopRepository, TireShopGeoIndex geoIndex,
+                                 List<AlertNotificationStrategy> notificationStrategies, MeterRegistry meterRegistry) {
         this.tireShopRepository = tireShopRepository;
+        this.geoIndex = geoIndex;
+        this.notificationStrategies = notificationStrategies;
+
+        Gauge.builder("emergency.alerts.queue.depth", queue, BlockingQueue::size)
+            .description("Dağıtılmayı bekleyen acil durum alertleri")
+            .register(meterRegistry);
+        this.rejectedAlerts = Counter.builder("emergency.alerts.rejected")
+            .description("Kuyruk dolu olduğu için reddedilen alertler")
+            .register(meterRegistry);
+        this.fanOutLatency = Timer.builder("emergency.alerts.fanout.latency")
+            .description("Commit anından dükkanlara iletilene kadar geçen süre")
+            .register(meterRegistry);
+        this.shopsNotified = DistributionSummary.builder("emergency.alerts.shops.notified")
+            .description("Alert başına bildirim alan dükkan sayısı")
+            .register(meterRegistry);
+    }
+
+    private record PendingAlert(ServiceRequest request, long enqueuedAtNanos) {
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::runWorker, "emergency-alert-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
     }
 
     public List<TireShop> findNearbyShops(double userLatitude, double userLongitude, double radiusKm) {
-        List<TireShop> allShops = tireShopRepository.findAll();
-        
-        return allShops.stream()
-            .filter(shop -> shop.getLatitude() != null && shop.getLongitude() != null)
-            .filter(shop -> {
-                double distance = calculateDistance(
-                    userLatitude, userLongitude,
-                    shop.getLatitude(), shop.getLongitude()
-                );
-                return distance <= radiusKm;
-            })
+        List<Integer> ids = geoIndex.findWithin(userLatitude, userLongitude, radiusKm).stream()
+            .map(TireShopGeoIndex.Hit::shopId)
             .collect(Collectors.toList());
+        return ids.isEmpty() ? List.of() : tireShopRepository.findAllById(ids);
+    }
+
+    // Sadece yeni talepler alert üretir; istek thread'i kuyruğa ekleyip hemen döner
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onServiceRequestEvent(ServiceRequestEvent event) {
+        if (event.getType() == ServiceRequestEvent.Type.CREATED) {
+            sendEmergencyAlert(event.getRequest());
+        }
     }
 
     public void sendEmergencyAlert(ServiceRequest serviceRequest) {
-        List<TireShop> nearbyShops = findNearbyShops(
-            serviceRequest.getLatitude(), 
-            serviceRequest.getLongitude(), 
-            15.0
-        );
-
-        System.out.println("🚨 EMERGENCY ALERT 🚨");
-        System.out.println("Service Request ID: " + serviceRequest.getId());
-        System.out.println("Title: " + serviceRequest.getTitle());
-        System.out.println("Priority: " + serviceRequest.getPriority());
-        System.out.println("Location: " + serviceRequest.getLatitude() + ", " + serviceRequest.getLongitude());
-        System.out.println("Nearby shops to notify: " + nearbyShops.size());
-        
-        for (TireShop shop : nearbyShops) {
-            double distance = calculateDistance(
-                serviceRequest.getLatitude(), serviceRequest.getLongitude(),
-                shop.getLatitude(), shop.getLongitude()
-            );
-            System.out.println("- " + shop.getShopName() + " (" + String.format("%.1f", distance) + " km away)");
+        if (!queue.offer(new PendingAlert(serviceRequest, System.nanoTime()))) {
+            // Backpressure: kuyruk doluysa istek thread'ini bloklamak yerine reddet ve say
+            rejectedAlerts.increment();
+            log.warn("Emergency alert queue full, dropping alert for request {}", serviceRequest.getId());
+        }
+    }
+
+    private void runWorker() {
+        List<PendingAlert> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (worker != null) {
+            try {
+                PendingAlert first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Emergency alert batch failed", e);
+            } finally {
+                batch.clear();
+            }
         }
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371;
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c;
+    // Batch içindeki tüm alertler dükkan bazında gruplanır, her dükkana tek bildirim gider
+    private void dispatch(List<PendingAlert> batch) {
+        Map<Integer, List<NearbyAlert>> alertsByShop = new LinkedHashMap<>();
+        for (PendingAlert pending : batch) {
+            ServiceRequest request = pending.request();
+            List<TireShopGeoIndex.Hit> hits = geoIndex.findWithin(request.getLatitude(), request.getLongitude(), ALERT_RADIUS_KM);
+            for (TireShopGeoIndex.Hit hit : hits) {
+                alertsByShop.computeIfAbsent(hit.shopId(), id -> new ArrayList<>())
+                    .add(new NearbyAlert(request, hit.distanceKm()));
+            }
+            shopsNotified.record(hits.size());
+        }
+
+        Map<Integer, TireShop> shops = alertsByShop.isEmpty() ? new HashMap<>() : tireShopRepository
+            .findAllById(alertsByShop.keySet())
+            .stream()
+            .collect(Collectors.toMap(TireShop::getId, Function.identity()));
+
+        for (Map.Entry<Integer, List<NearbyAlert>> entry : alertsByShop.entrySet()) {
+            TireShop shop = shops.get(entry.getKey());
+            if (shop == null) {
+                continue;
+            }
+            for (AlertNotificationStrategy strategy : notificationStrategies) {
+                strategy.notifyShop(shop, entry.getValue());
+            }
+        }
+
+        long now = System.nanoTime();
+        for (PendingAlert pending : batch) {
+            fanOutLatency.record(now - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
     }
-} 
\ No newline at end of file
+}
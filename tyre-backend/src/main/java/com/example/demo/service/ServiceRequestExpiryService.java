@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.RequestStatus;
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import com.example.demo.repository.ServiceRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// DESIGN PATTERN: Service Layer Pattern + Scheduler
+// Hiçbir lastikçinin kabul etmediği eski PENDING talepleri önceliğe göre ayarlanabilir süre sonunda EXPIRED yapar
+// Satırlar tek tek kaydedilmez: id'ler parça parça okunur, her parça tek bir UPDATE ile kendi kısa transaction'ında geçirilir.
+// Her parça için EXPIRED olayı yayınlanır; dağıtım kuyruğu ve canlı akış talebi düşürür.
+@Service
+public class ServiceRequestExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRequestExpiryService.class);
+
+    // null: önceliği girilmemiş eski kayıtlar
+    private static final List<Priority> SWEEP_ORDER = Arrays.asList(Priority.HIGH, Priority.MEDIUM, Priority.LOW, null);
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Priority, Long> ttlMinutes = new EnumMap<>(Priority.class);
+    private final int chunkSize;
+
+    private final Counter expiredRequests;
+    private final Timer sweepDuration;
+
+    public ServiceRequestExpiryService(ServiceRequestRepository serviceRequestRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${service-requests.expiry.ttl-minutes.high:120}") long highTtlMinutes,
+                                       @Value("${service-requests.expiry.ttl-minutes.medium:240}") long mediumTtlMinutes,
+                                       @Value("${service-requests.expiry.ttl-minutes.low:720}") long lowTtlMinutes,
+                                       @Value("${service-requests.expiry.chunk-size:500}") int chunkSize) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMinutes.put(Priority.HIGH, highTtlMinutes);
+        this.ttlMinutes.put(Priority.MEDIUM, mediumTtlMinutes);
+        this.ttlMinutes.put(Priority.LOW, lowTtlMinutes);
+        this.chunkSize = Math.max(1, chunkSize);
+
+        this.expiredRequests = Counter.builder("service.requests.expired")
+            .description("Süresi dolduğu için EXPIRED yapılan talepler")
+            .register(meterRegistry);
+        this.sweepDuration = Timer.builder("service.requests.expiry.sweep")
+            .description("Bir expiry taramasının toplam süresi")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${service-requests.expiry.sweep-interval-ms:60000}",
+            initialDelayString = "${service-requests.expiry.sweep-interval-ms:60000}")
+    public void sweepOnSchedule() {
+        try {
+            sweep(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Service request expiry sweep failed", e);
+        }
+    }
+
+    // nowMillis'e göre süresi dolan tüm talepleri geçirir, toplam EXPIRED sayısını döner
+    public int sweep(long nowMillis) {
+        long started = System.nanoTime();
+        int expired = 0;
+        int chunks = 0;
+        for (Priority priority : SWEEP_ORDER) {
+            // Önceliği boş eski kayıtlar MEDIUM süresiyle
+            long ttl = ttlMinutes.get(priority != null ? priority : Priority.MEDIUM);
+            Timestamp cutoff = new Timestamp(nowMillis - TimeUnit.MINUTES.toMillis(ttl));
+            int processed;
+            do {
+                ChunkResult result = expireChunk(priority, cutoff);
+                processed = result.selected();
+                expired += result.expired();
+                chunks += processed > 0 ? 1 : 0;
+            } while (processed == chunkSize);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        sweepDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        expiredRequests.increment(expired);
+        if (expired > 0) {
+            log.info("Expired {} pending service requests in {} chunk(s), {} ms", expired, chunks,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return expired;
+    }
+
+    private record ChunkResult(int selected, int expired) {
+    }
+
+    private ChunkResult expireChunk(Priority priority, Timestamp cutoff) {
+        return transactionTemplate.execute(status -> {
+            PageRequest page = PageRequest.of(0, chunkSize);
+            List<Integer> ids = priority != null
+                    ? serviceRequestRepository.findIdsCreatedBefore(RequestStatus.PENDING, priority, cutoff, page)
+                    : serviceRequestRepository.findIdsWithoutPriorityCreatedBefore(RequestStatus.PENDING, cutoff, page);
+            if (ids.isEmpty()) {
+                return new ChunkResult(0, 0);
+            }
+            int updated = serviceRequestRepository.transitionAll(ids, RequestStatus.PENDING, RequestStatus.EXPIRED);
+            if (updated > 0) {
+                // Sadece gerçekten geçirilenler için olay: bu arada kabul edilenler atlanır
+                for (ServiceRequest request : serviceRequestRepository.findAllByIdInAndStatus(ids, RequestStatus.EXPIRED)) {
+                    eventPublisher.publishEvent(new ServiceRequestEvent(ServiceRequestEvent.Type.EXPIRED, request));
+                }
+            }
+            return new ChunkResult(ids.size(), updated);
+        });
+    }
+}
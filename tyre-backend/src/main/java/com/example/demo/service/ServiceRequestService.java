@@ -1,21 +1,36 @@
 package com.example.demo.service;
 
+import com.example.demo.entity.Priority;
 import com.example.demo.entity.RequestStatus;
 import com.example.demo.entity.ServiceRequest;
 import com.example.demo.entity.TireShop;
 import com.example.demo.entity.User;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.ForbiddenException;
+import com.example.demo.dispatch.RecentRequestIndex;
+import com.example.demo.dispatch.ServiceRequestDispatchQueue;
+import com.example.demo.geo.BoundingBox;
+import com.example.demo.geo.GeoDistance;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
 import com.example.demo.repository.ServiceRequestRepository;
 import com.example.demo.repository.TireShopRepository;
 import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // DESIGN PATTERN: Service Layer Pattern
 // Acil yardım talebi iş mantığını yönetir
@@ -23,18 +38,39 @@ import java.util.stream.Collectors;
 @Service
 public class ServiceRequestService {
 
+    // Veritabanı yolunda da kuyrukla aynı sıra: HIGH önce, aynı öncelikte eski talep önce
+    private static final Comparator<ServiceRequest> PENDING_ORDER = Comparator
+            .comparing((ServiceRequest request) -> request.getPriority() != null ? request.getPriority() : Priority.MEDIUM,
+                    Comparator.reverseOrder())
+            .thenComparing(ServiceRequest::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final ServiceRequestRepository serviceRequestRepository;
     private final TireShopRepository tireShopRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ServiceRequestDispatchQueue dispatchQueue;
+    private final RecentRequestIndex recentRequestIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter coalescedRequests;
 
-    public ServiceRequestService(ServiceRequestRepository serviceRequestRepository, TireShopRepository tireShopRepository, UserRepository userRepository) {
+    public ServiceRequestService(ServiceRequestRepository serviceRequestRepository, TireShopRepository tireShopRepository,
+                                 UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                                 ServiceRequestDispatchQueue dispatchQueue, RecentRequestIndex recentRequestIndex,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.serviceRequestRepository = serviceRequestRepository;
         this.tireShopRepository = tireShopRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.dispatchQueue = dispatchQueue;
+        this.recentRequestIndex = recentRequestIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coalescedRequests = Counter.builder("service.requests.coalesced")
+            .description("Aynı kullanıcının pencere içindeki tekrar talepleri (mevcut talebe birleştirildi)")
+            .register(meterRegistry);
     }
 
-    // Yeni yardım isteği oluştur
-    @Transactional
+    // Yeni yardım isteği oluştur. Transaction'sız: tekrar basış ilk talebin commit'ini bağlantı tutmadan bekler,
+    // sadece yeni talebin kaydı kendi kısa transaction'ında yapılır
     public ServiceRequest createServiceRequest(ServiceRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         System.out.println("ServiceRequestService - Authentication: " + authentication);
@@ -59,8 +95,20 @@ public class ServiceRequestService {
         
         request.setStatus(RequestStatus.PENDING);
         request.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
-        System.out.println("ServiceRequestService - Saving request with user: " + request.getUser().getEmail());
-        return serviceRequestRepository.save(request);
+        // Aynı kullanıcı yakın noktadan tekrar basarsa mevcut açık talep döner: yeni satır ve yeni alarm yok
+        RecentRequestIndex.Result result = recentRequestIndex.findOrCreate(request.getUser().getId(),
+            request.getLatitude(), request.getLongitude(), request.getCreatedAt().getTime(), () -> {
+                System.out.println("ServiceRequestService - Saving request with user: " + request.getUser().getEmail());
+                return transactionTemplate.execute(status -> {
+                    ServiceRequest saved = serviceRequestRepository.save(request);
+                    eventPublisher.publishEvent(new ServiceRequestEvent(ServiceRequestEvent.Type.CREATED, saved));
+                    return saved;
+                });
+            });
+        if (!result.created()) {
+            coalescedRequests.increment();
+        }
+        return result.request();
     }
 
     // Tüm istekleri getir
@@ -69,67 +117,94 @@ public class ServiceRequestService {
         return serviceRequestRepository.findAll();
     }
 
-    // Sadece bekleyen (PENDING) istekleri getir
+    // Sadece bekleyen (PENDING) istekleri getir: öncelik, sonra yaş sırasında
     @Transactional(readOnly = true)
     public List<ServiceRequest> getPendingRequests() {
-        return serviceRequestRepository.findByStatus(RequestStatus.PENDING);
+        if (dispatchQueue.isReady()) {
+            return dispatchQueue.pending(Integer.MAX_VALUE);
+        }
+        return serviceRequestRepository.findByStatus(RequestStatus.PENDING).stream()
+            .sorted(PENDING_ORDER)
+            .collect(Collectors.toList());
     }
 
-    // İsteği kabul et (status'u ACCEPTED yap)
+    // İsteği kabul et (status'u ACCEPTED yap, işi alan dükkanı kaydet)
+    // Aynı talebe yarışan dükkanlardan sadece birinin UPDATE'i satır etkiler; diğerleri 409 alır
     @Transactional
     public ServiceRequest acceptRequest(int requestId) {
-        ServiceRequest request = serviceRequestRepository.findById(requestId).orElse(null);
-        if (request != null && request.getStatus() == RequestStatus.PENDING) {
-            request.setStatus(RequestStatus.ACCEPTED);
-            return serviceRequestRepository.save(request);
-        }
-        return null;
+        TireShop shop = currentShop();
+        int updated = serviceRequestRepository.transition(requestId, RequestStatus.PENDING, RequestStatus.ACCEPTED, shop);
+        return afterTransition(requestId, updated, ServiceRequestEvent.Type.ACCEPTED,
+                "Bu talep başka bir lastikçi tarafından kabul edildi.");
     }
 
     // İsteği tamamla (status'u COMPLETED yap)
     @Transactional
     public ServiceRequest completeRequest(int requestId) {
-        ServiceRequest request = serviceRequestRepository.findById(requestId).orElse(null);
-        if (request != null && request.getStatus() == RequestStatus.ACCEPTED) {
-            request.setStatus(RequestStatus.COMPLETED);
-            return serviceRequestRepository.save(request);
+        TireShop shop = currentShop();
+        int updated = serviceRequestRepository.transitionOwned(requestId, RequestStatus.ACCEPTED, RequestStatus.COMPLETED, shop);
+        return afterTransition(requestId, updated, ServiceRequestEvent.Type.COMPLETED,
+                "Bu talep tamamlanamaz: kabul edilmemiş veya başka bir lastikçiye ait.");
+    }
+
+    // Etkilenen satır yoksa: talep hiç yoksa null (404), varsa yarış kaybedildi (409)
+    private ServiceRequest afterTransition(int requestId, int updated, ServiceRequestEvent.Type type, String conflictMessage) {
+        if (updated == 0) {
+            if (!serviceRequestRepository.existsById(requestId)) {
+                return null;
+            }
+            throw new ConflictException(conflictMessage);
+        }
+        ServiceRequest saved = serviceRequestRepository.findById(requestId).orElseThrow();
+        eventPublisher.publishEvent(new ServiceRequestEvent(type, saved));
+        return saved;
+    }
+
+    private TireShop currentShop() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TireShop shop) {
+            return shop;
         }
-        return null;
+        throw new ForbiddenException("Bu işlem sadece lastikçiler tarafından yapılabilir.");
     }
 
-    // Shop için yakındaki acil talepleri getir
+    // Shop için yakındaki acil talepleri getir: öncelik, yaş, sonra mesafe sırasında ilk limit kadar
     @Transactional(readOnly = true)
-    public List<ServiceRequest> getNearbyRequests(int shopId, double radiusKm) {
+    public List<ServiceRequest> getNearbyRequests(int shopId, double radiusKm, int limit) {
         TireShop shop = tireShopRepository.findById(shopId).orElse(null);
         if (shop == null || shop.getLatitude() == null || shop.getLongitude() == null) {
             return List.of(); // Boş liste döndür
         }
+        if (dispatchQueue.isReady()) {
+            return dispatchQueue.nearby(shop.getLatitude(), shop.getLongitude(), radiusKm, limit);
+        }
 
-        List<ServiceRequest> pendingRequests = serviceRequestRepository.findByStatus(RequestStatus.PENDING);
-        
-        return pendingRequests.stream()
-            .filter(request -> {
-                double distance = calculateDistance(
-                    shop.getLatitude(), shop.getLongitude(),
-                    request.getLatitude(), request.getLongitude()
-                );
-                return distance <= radiusKm;
-            })
-            .collect(Collectors.toList());
-    }
+        // Kuyruk henüz dolmadıysa: SQL'de indeksli bounding-box ile daralt, haversine sadece kutu içindekilere uygulanır
+        BoundingBox box = BoundingBox.around(shop.getLatitude(), shop.getLongitude(), radiusKm);
+        List<ServiceRequest> pendingRequests = serviceRequestRepository.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+            RequestStatus.PENDING,
+            box.getMinLatitude(), box.getMaxLatitude(),
+            box.getMinLongitude(), box.getMaxLongitude()
+        );
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of Earth in km
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c; // Distance in km
+        int count = pendingRequests.size();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = pendingRequests.get(i).getLatitude();
+            longitudes[i] = pendingRequests.get(i).getLongitude();
+        }
+        int[] hits = new int[count];
+        double[] distances = new double[count];
+        int found = GeoDistance.origin(shop.getLatitude(), shop.getLongitude())
+            .within(latitudes, longitudes, count, GeoDistance.radius(radiusKm), hits, distances);
+
+        Comparator<Integer> order = Comparator.<Integer, ServiceRequest>comparing(i -> pendingRequests.get(hits[i]), PENDING_ORDER)
+            .thenComparingDouble(i -> distances[i]);
+        return IntStream.range(0, found).boxed()
+            .sorted(order)
+            .limit(limit)
+            .map(i -> pendingRequests.get(hits[i]))
+            .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,248 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.entity.TireShop;
+import com.example.demo.geo.GeoDistance;
+import com.example.demo.geo.TireShopGeoIndex;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// DESIGN PATTERN: Observer Pattern - Concrete Observer + Publish/Subscribe
+// Lastikçi panellerine acil talepleri Server-Sent Events ile anlık iletir (30 sn polling yerine)
+// Her olay sadece kapsama yarıçapı talebi içeren dükkanların bağlantılarına yönlendirilir
+@Service
+public class ServiceRequestStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRequestStreamService.class);
+
+    static final double COVERAGE_RADIUS_KM = 15.0;
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int CONNECTION_BUFFER_SIZE = 256;
+    private static final int REPLAY_BUFFER_SIZE = 1024;
+
+    private final TireShopGeoIndex geoIndex;
+
+    private final Map<Integer, Set<Connection>> connectionsByShop = new ConcurrentHashMap<>();
+    private final Deque<StreamEvent> replayBuffer = new ArrayDeque<>();
+    // Yeniden başlatmalarda da artan kalması için zaman tabanlı başlangıç
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ExecutorService sender = Executors.newFixedThreadPool(4, new SenderThreadFactory());
+
+    public ServiceRequestStreamService(TireShopGeoIndex geoIndex) {
+        this.geoIndex = geoIndex;
+    }
+
+    private record StreamEvent(long id, String name, double latitude, double longitude, ServiceRequest request) {
+    }
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(-1, "heartbeat", 0, 0, null);
+
+    public SseEmitter subscribe(TireShop shop, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Connection connection = new Connection(shop.getId(), emitter);
+        connectionsByShop.compute(shop.getId(), (id, connections) -> {
+            Set<Connection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        // Last-Event-ID ile yeniden bağlanan istemciye kaçırdığı olayları tekrar gönder
+        Long lastSeen = parseEventId(lastEventId);
+        if (lastSeen != null && shop.getLatitude() != null && shop.getLongitude() != null) {
+            GeoDistance.Origin origin = GeoDistance.origin(shop.getLatitude(), shop.getLongitude());
+            for (StreamEvent event : replaySince(lastSeen)) {
+                if (origin.distanceKm(event.latitude(), event.longitude()) <= COVERAGE_RADIUS_KM) {
+                    connection.enqueue(event);
+                }
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onServiceRequestEvent(ServiceRequestEvent event) {
+        ServiceRequest request = event.getRequest();
+        StreamEvent streamEvent = new StreamEvent(
+                sequence.incrementAndGet(),
+                "request-" + event.getType().name().toLowerCase(),
+                request.getLatitude(),
+                request.getLongitude(),
+                request
+        );
+        remember(streamEvent);
+
+        for (TireShopGeoIndex.Hit hit : geoIndex.findWithin(request.getLatitude(), request.getLongitude(), COVERAGE_RADIUS_KM)) {
+            Set<Connection> connections = connectionsByShop.get(hit.shopId());
+            if (connections != null) {
+                for (Connection connection : connections) {
+                    connection.enqueue(streamEvent);
+                }
+            }
+        }
+    }
+
+    // Proxy/load balancer'ların boşta bağlantıyı kesmemesi için periyodik yorum satırı
+    @Scheduled(fixedRate = 15_000)
+    public void sendHeartbeats() {
+        for (Set<Connection> connections : connectionsByShop.values()) {
+            for (Connection connection : connections) {
+                connection.enqueue(HEARTBEAT);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionsByShop.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void remember(StreamEvent event) {
+        synchronized (replayBuffer) {
+            replayBuffer.addLast(event);
+            if (replayBuffer.size() > REPLAY_BUFFER_SIZE) {
+                replayBuffer.removeFirst();
+            }
+        }
+    }
+
+    private List<StreamEvent> replaySince(long lastSeen) {
+        synchronized (replayBuffer) {
+            List<StreamEvent> missed = new ArrayList<>();
+            for (StreamEvent event : replayBuffer) {
+                if (event.id() > lastSeen) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    private void unregister(Connection connection) {
+        connectionsByShop.computeIfPresent(connection.shopId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Bağlantı başına sınırlı kuyruk: yavaş istemci sunucu belleğini şişiremez.
+    // Kuyruk dolarsa bağlantı kapatılır, istemci Last-Event-ID ile yeniden bağlanıp eksikleri alır.
+    private final class Connection {
+
+        private final int shopId;
+        private final SseEmitter emitter;
+        private final Deque<StreamEvent> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Connection(int shopId, SseEmitter emitter) {
+            this.shopId = shopId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(StreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= CONNECTION_BUFFER_SIZE) {
+                    closed = true;
+                    pending.clear();
+                    log.warn("SSE buffer full for shop {}, closing connection", shopId);
+                    emitter.complete();
+                    return;
+                }
+                if (event == HEARTBEAT && !pending.isEmpty()) {
+                    return; // Zaten gönderilecek veri var, heartbeat gereksiz
+                }
+                pending.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(event.name())
+                                .data(event.request()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        draining = false;
+                    }
+                    unregister(this);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sse-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
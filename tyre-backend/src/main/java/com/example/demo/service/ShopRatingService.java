@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
 import com.example.demo.entity.ShopRating;
+import com.example.demo.entity.TireShop;
+import com.example.demo.geo.ShopClusterGrid;
 import com.example.demo.repository.ShopRatingRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +13,11 @@ import java.util.List;
 public class ShopRatingService {
 
     private final ShopRatingRepository ratingRepository;
+    private final ShopClusterGrid clusterGrid;
 
-    public ShopRatingService(ShopRatingRepository ratingRepository) {
+    public ShopRatingService(ShopRatingRepository ratingRepository, ShopClusterGrid clusterGrid) {
         this.ratingRepository = ratingRepository;
+        this.clusterGrid = clusterGrid;
     }
 
     @Transactional(readOnly = true)
@@ -28,27 +32,42 @@ public class ShopRatingService {
 
     @Transactional
     public ShopRating createRating(ShopRating rating) {
-        return ratingRepository.save(rating);
+        ShopRating saved = ratingRepository.save(rating);
+        refreshShop(saved.getShop());
+        return saved;
     }
 
     @Transactional
     public ShopRating updateRating(int id, ShopRating updated) {
         ShopRating existing = ratingRepository.findById(id).orElse(null);
         if (existing != null) {
+            TireShop previousShop = existing.getShop();
             existing.setRating(updated.getRating());
             existing.setTotalReviews(updated.getTotalReviews());
             existing.setShop(updated.getShop());
-            return ratingRepository.save(existing);
+            ShopRating saved = ratingRepository.save(existing);
+            refreshShop(previousShop);
+            refreshShop(saved.getShop());
+            return saved;
         }
         return null;
     }
 
     @Transactional
     public boolean deleteRating(int id) {
-        if (ratingRepository.existsById(id)) {
-            ratingRepository.deleteById(id);
+        ShopRating existing = ratingRepository.findById(id).orElse(null);
+        if (existing != null) {
+            ratingRepository.delete(existing);
+            refreshShop(existing.getShop());
             return true;
         }
         return false;
     }
+
+    // Harita kümelerindeki en iyi puan
+    private void refreshShop(TireShop shop) {
+        if (shop != null) {
+            clusterGrid.refresh(shop.getId());
+        }
+    }
 }
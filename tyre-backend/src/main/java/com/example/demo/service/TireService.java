@@ -1,11 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.catalog.TireCatalogIndex;
+import com.example.demo.catalog.TireSizeDictionary;
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.dto.TireSearchResult;
 import com.example.demo.entity.Tire;
 import com.example.demo.entity.TireSize;
 import com.example.demo.repository.TireRepository;
-import com.example.demo.repository.TireSizeRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -15,11 +20,19 @@ import java.util.List;
 public class TireService {
 
     private final TireRepository tireRepository;
-    private final TireSizeRepository tireSizeRepository;
+    private final TireSizeDictionary tireSizeDictionary;
+    private final TireCatalogIndex catalogIndex;
+    private final TireStockIndex stockIndex;
+    private final TransactionTemplate transactionTemplate;
 
-    public TireService(TireRepository tireRepository, TireSizeRepository tireSizeRepository) {
+    public TireService(TireRepository tireRepository, TireSizeDictionary tireSizeDictionary,
+                       TireCatalogIndex catalogIndex, TireStockIndex stockIndex,
+                       PlatformTransactionManager transactionManager) {
         this.tireRepository = tireRepository;
-        this.tireSizeRepository = tireSizeRepository;
+        this.tireSizeDictionary = tireSizeDictionary;
+        this.catalogIndex = catalogIndex;
+        this.stockIndex = stockIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional(readOnly = true)
@@ -30,47 +43,74 @@ public class TireService {
     @Transactional(readOnly = true)
     public Tire getTireById(int id) {
         return tireRepository.findById(id).orElse(null);
-    }    @Transactional
+    }
+
+    // Katalog araması bellekteki indeksten; ısınma bitmeden gelirse veritabanı ön filtresiyle aranır
+    @Transactional(readOnly = true)
+    public TireSearchResult searchTires(TireCatalogIndex.Query query) {
+        if (!catalogIndex.isReady()) {
+            return TireCatalogIndex.searchRows(tireRepository.findCatalogRowsMatching(
+                    TireCatalogIndex.normalizedBrand(query.brand()), query.minPrice(), query.maxPrice(),
+                    TireCatalogIndex.longestWord(query.text())), query);
+        }
+        return catalogIndex.search(query);
+    }
+
+    // Ekleme/güncellemede ebat, lastik transaction'ı açılmadan önce sözlükten çözülür: sözlükte olmayan ebadın
+    // kendi kısa INSERT transaction'ı dış transaction'ın bağlantısı tutulurken ikinci bir bağlantı almaz
     public Tire createTire(Tire tire) {
-        // Check if TireSize exists by size, if not create it
-        if (tire.getTireSize() != null && tire.getTireSize().getId() == 0) {
-            String sizeValue = tire.getTireSize().getSize();
-            
-            // Find existing TireSize by size value
-            TireSize existingSize = tireSizeRepository.findBySize(sizeValue).orElse(null);
-            
-            if (existingSize != null) {
-                // Use existing TireSize
-                tire.setTireSize(existingSize);
-            } else {
-                // Create new TireSize
-                TireSize newSize = new TireSize();
-                newSize.setSize(sizeValue);
-                TireSize savedSize = tireSizeRepository.save(newSize);
-                tire.setTireSize(savedSize);
-            }
+        tire.setTireSize(resolveSize(tire.getTireSize()));
+        return transactionTemplate.execute(status -> {
+            Tire saved = tireRepository.save(tire);
+            catalogIndex.index(saved);
+            return saved;
+        });
+    }
+
+    // Toplu stok yüklemesi: ebatlar sözlükten gelir, tek transaction'da sadece lastik INSERT'leri çalışır
+    public List<Tire> createTires(List<Tire> tires) {
+        for (Tire tire : tires) {
+            tire.setTireSize(resolveSize(tire.getTireSize()));
         }
-        
-        return tireRepository.save(tire);
+        return transactionTemplate.execute(status -> {
+            List<Tire> saved = tireRepository.saveAll(tires);
+            saved.forEach(catalogIndex::index);
+            return saved;
+        });
     }
 
-    @Transactional
-    public Tire updateTire(int id, Tire updated) {
-        Tire existing = tireRepository.findById(id).orElse(null);
-        if (existing != null) {
-            existing.setBrand(updated.getBrand());
-            existing.setModel(updated.getModel());
-            existing.setPrice(updated.getPrice()); // ← EKLENDİ
-            existing.setTireSize(updated.getTireSize());
-            return tireRepository.save(existing);
+    // id'siz gelen ebat yazımla sözlükten bulunur ya da eklenir (yarış durumunda da tek satır)
+    private TireSize resolveSize(TireSize size) {
+        if (size == null || size.getId() != 0) {
+            return size;
         }
-        return null;
+        return tireSizeDictionary.intern(size.getSize());
+    }
+
+    public Tire updateTire(int id, Tire updated) {
+        TireSize size = resolveSize(updated.getTireSize());
+        return transactionTemplate.execute(status -> {
+            Tire existing = tireRepository.findById(id).orElse(null);
+            if (existing != null) {
+                existing.setBrand(updated.getBrand());
+                existing.setModel(updated.getModel());
+                existing.setPrice(updated.getPrice()); // ← EKLENDİ
+                existing.setTireSize(size);
+                Tire saved = tireRepository.save(existing);
+                catalogIndex.index(saved);
+                // Bu lastiğin stokları yeni ebadın altında aranır
+                stockIndex.refreshTire(saved.getId());
+                return saved;
+            }
+            return null;
+        });
     }
 
     @Transactional
     public boolean deleteTire(int id) {
         if (tireRepository.existsById(id)) {
             tireRepository.deleteById(id);
+            catalogIndex.unindex(id);
             return true;
         }
         return false;
@@ -1,13 +1,35 @@
 package com.example.demo.service;
 
+import com.example.demo.availability.WeeklyHours;
+import com.example.demo.catalog.TireSizeNotation;
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.dto.ShopCluster;
+import com.example.demo.dto.ShopStockResult;
+import com.example.demo.dto.TireShopDetail;
+import com.example.demo.dto.TireShopSummary;
 import com.example.demo.entity.TireShop;
+import com.example.demo.geo.BoundingBox;
+import com.example.demo.geo.GeoDistance;
+import com.example.demo.geo.ShopClusterGrid;
+import com.example.demo.geo.TireShopGeoIndex;
 import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireShopServiceRepository;
+import com.example.demo.repository.TireStockRepository;
+import com.example.demo.security.PrincipalCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // DESIGN PATTERN: Service Layer Pattern
 // İş mantığını encapsulate eder ve controller ile repository arasında köprü görevi görür
@@ -15,37 +37,202 @@ import java.util.stream.Collectors;
 @Service
 public class TireShopService {
 
+    private static final double NEAREST_MAX_RADIUS_KM = 200.0;
+    private static final int NEAREST_MAX_RESULTS = 100;
+
     private final TireShopRepository tireShopRepository;
+    private final TireShopGeoIndex geoIndex;
+    private final PrincipalCache principalCache;
+    private final AvailabilityService availabilityService;
+    private final ShopClusterGrid clusterGrid;
+    private final TireShopServiceRepository tireShopServiceRepository;
+    private final TireStockRepository tireStockRepository;
+    private final TireStockIndex stockIndex;
 
-    public TireShopService(TireShopRepository tireShopRepository) {
+    public TireShopService(TireShopRepository tireShopRepository, TireShopGeoIndex geoIndex, PrincipalCache principalCache,
+                           AvailabilityService availabilityService, ShopClusterGrid clusterGrid,
+                           TireShopServiceRepository tireShopServiceRepository, TireStockRepository tireStockRepository,
+                           TireStockIndex stockIndex) {
         this.tireShopRepository = tireShopRepository;
+        this.geoIndex = geoIndex;
+        this.principalCache = principalCache;
+        this.availabilityService = availabilityService;
+        this.clusterGrid = clusterGrid;
+        this.tireShopServiceRepository = tireShopServiceRepository;
+        this.tireStockRepository = tireStockRepository;
+        this.stockIndex = stockIndex;
+    }
+
+    // Listeler özet DTO döner: tek SELECT, koleksiyonlar (N+1) ve şifre yok
+    @Transactional(readOnly = true)
+    public List<TireShopSummary> getAllTireShops() {
+        return tireShopRepository.findAllSummaries();
+    }
+
+    // Detay; hizmetler/stoklar sadece expand içinde "services"/"stocks" varsa ayrı projeksiyonlarla yüklenir
+    @Transactional(readOnly = true)
+    public Optional<TireShopDetail> getTireShopDetail(int id, Set<String> expand) {
+        return tireShopRepository.findDetailById(id).map(detail -> {
+            if (expand.contains("services")) {
+                detail.setServices(tireShopServiceRepository.findDtosByShopId(id));
+            }
+            if (expand.contains("stocks")) {
+                detail.setTireStocks(tireStockRepository.findDtosByShopId(id));
+            }
+            return detail;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<TireShopSummary> getNearbyTireShops(double latitude, double longitude, double radiusKm) {
+        return getNearbyTireShops(latitude, longitude, radiusKm, null);
+    }
+
+    // openAt verilirse sadece o an açık olan dükkanlar (haftalık maskede bit testi)
+    @Transactional(readOnly = true)
+    public List<TireShopSummary> getNearbyTireShops(double latitude, double longitude, double radiusKm, LocalDateTime openAt) {
+        int openMinute = openAt != null ? WeeklyHours.minuteOfWeek(openAt) : TireShopGeoIndex.ANY_TIME;
+        if (!geoIndex.isReady()) {
+            return findNearbyInDatabase(latitude, longitude, radiusKm, openMinute);
+        }
+        // Aday dükkanlar konum indeksinden gelir, sadece onlar veritabanından yüklenir
+        List<TireShopGeoIndex.Hit> hits = geoIndex.findWithin(latitude, longitude, radiusKm, openMinute);
+        return loadInOrder(hits.stream().map(TireShopGeoIndex.Hit::shopId).collect(Collectors.toList()));
     }
 
+    // Harita kümeleri: kutu içindeki hücrelerin hazır toplamları (zoom seviyesine göre);
+    // grid ısınırken kutudaki dükkanlar veritabanından okunup toplanır
     @Transactional(readOnly = true)
-    public List<TireShop> getAllTireShops() {
-        return tireShopRepository.findAll();
+    public List<ShopCluster> getClusters(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                         int zoom) {
+        if (!clusterGrid.isReady()) {
+            return clusterGrid.clustersFromDatabase(minLatitude, minLongitude, maxLatitude, maxLongitude, zoom);
+        }
+        return clusterGrid.clusters(minLatitude, minLongitude, maxLatitude, maxLongitude, zoom);
     }
 
+    // En yakın k dükkan; aramayı en fazla NEAREST_MAX_RADIUS_KM'ye kadar genişletir.
+    // openAt verilirse o an kapalı dükkanlar atlanır, en yakın k açık dükkan döner
     @Transactional(readOnly = true)
-    public List<TireShop> getNearbyTireShops(double latitude, double longitude, double radiusKm) {
-        List<TireShop> allShops = tireShopRepository.findAll();
-        return allShops.stream()
-                .filter(shop -> shop.getLatitude() != null && shop.getLongitude() != null)
-                .filter(shop -> calculateDistance(latitude, longitude, shop.getLatitude(), shop.getLongitude()) <= radiusKm)
+    public List<TireShopSummary> getNearestTireShops(double latitude, double longitude, int k, LocalDateTime openAt) {
+        int limit = Math.min(Math.max(k, 1), NEAREST_MAX_RESULTS);
+        int openMinute = openAt != null ? WeeklyHours.minuteOfWeek(openAt) : TireShopGeoIndex.ANY_TIME;
+        if (!geoIndex.isReady()) {
+            return findNearbyInDatabase(latitude, longitude, NEAREST_MAX_RADIUS_KM, openMinute).stream()
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+        List<TireShopGeoIndex.Hit> hits = geoIndex.findNearest(latitude, longitude, limit, NEAREST_MAX_RADIUS_KM,
+                openMinute);
+        return loadInOrder(hits.stream().map(TireShopGeoIndex.Hit::shopId).collect(Collectors.toList()));
+    }
+
+    // Ebadı en az minQuantity adet stokta olan, yarıçap içindeki dükkanlar; en yakın önce, en fazla limit kadar.
+    // Stok indeksinden gelen dükkanlar konum indeksindeki noktalarıyla mesafe filtresinden geçer, sadece
+    // sonuç dükkanlarının özeti tek sorguyla yüklenir
+    @Transactional(readOnly = true)
+    public List<ShopStockResult> getNearbyShopsWithStock(String size, double latitude, double longitude,
+                                                         double radiusKm, int minQuantity, int limit) {
+        if (TireSizeNotation.normalize(size) == null) {
+            throw new IllegalArgumentException("Ebat boş olamaz");
+        }
+        int atLeast = Math.max(1, minQuantity);
+        if (!stockIndex.isReady() || !geoIndex.isReady()) {
+            return findShopsWithStockInDatabase(size, latitude, longitude, radiusKm, atLeast, limit);
+        }
+        GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+        GeoDistance.Radius radius = GeoDistance.radius(radiusKm);
+        List<TireShopGeoIndex.Hit> hits = new ArrayList<>();
+        Map<Integer, Integer> quantities = stockIndex.shopsWithSize(size, atLeast);
+        quantities.forEach((shopId, quantity) -> {
+            TireShopGeoIndex.ShopPoint point = geoIndex.point(shopId);
+            if (point != null) {
+                double distance = origin.distanceWithinKm(point.latitude(), point.longitude(), radius);
+                if (distance >= 0) {
+                    hits.add(new TireShopGeoIndex.Hit(shopId, distance));
+                }
+            }
+        });
+        return toStockResults(hits, quantities, limit);
+    }
+
+    // İndeksler henüz dolmadıysa: kutu içindeki dükkanların ebat toplamları tek GROUP BY sorgusuyla
+    private List<ShopStockResult> findShopsWithStockInDatabase(String size, double latitude, double longitude,
+                                                               double radiusKm, int minQuantity, int limit) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (Object[] row : tireStockRepository.findShopQuantitiesInBox(TireSizeNotation.normalize(size), minQuantity,
+                box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude())) {
+            quantities.put((Integer) row[0], ((Number) row[1]).intValue());
+        }
+        GeoDistance.Origin origin = GeoDistance.origin(latitude, longitude);
+        GeoDistance.Radius radius = GeoDistance.radius(radiusKm);
+        List<TireShopGeoIndex.Hit> hits = new ArrayList<>();
+        for (TireShopSummary shop : tireShopRepository.findSummariesByIdIn(quantities.keySet())) {
+            double distance = origin.distanceWithinKm(shop.getLatitude(), shop.getLongitude(), radius);
+            if (distance >= 0) {
+                hits.add(new TireShopGeoIndex.Hit(shop.getId(), distance));
+            }
+        }
+        return toStockResults(hits, quantities, limit);
+    }
+
+    private List<ShopStockResult> toStockResults(List<TireShopGeoIndex.Hit> hits, Map<Integer, Integer> quantities,
+                                                 int limit) {
+        hits.sort(Comparator.comparingDouble(TireShopGeoIndex.Hit::distanceKm));
+        List<TireShopGeoIndex.Hit> nearest = hits.subList(0, Math.min(limit, hits.size()));
+        List<TireShopSummary> shops = loadInOrder(nearest.stream().map(TireShopGeoIndex.Hit::shopId)
+                .collect(Collectors.toList()));
+        Map<Integer, Double> distances = nearest.stream()
+                .collect(Collectors.toMap(TireShopGeoIndex.Hit::shopId, TireShopGeoIndex.Hit::distanceKm));
+        return shops.stream()
+                .map(shop -> new ShopStockResult(shop, distances.get(shop.getId()), quantities.get(shop.getId())))
                 .collect(Collectors.toList());
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371;
+    // İndeks henüz dolmadıysa: indeksli bounding-box sorgusu + haversine ile daraltma
+    private List<TireShopSummary> findNearbyInDatabase(double latitude, double longitude, double radiusKm,
+                                                       int openMinuteOfWeek) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        List<TireShopSummary> candidates = tireShopRepository.findSummariesInBox(
+                        box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude())
+                .stream()
+                .filter(shop -> openMinuteOfWeek == TireShopGeoIndex.ANY_TIME
+                        || WeeklyHours.parse(shop.getOpeningHour(), shop.getClosingHour()).isOpenAt(openMinuteOfWeek))
+                .collect(Collectors.toList());
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        int count = candidates.size();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = candidates.get(i).getLatitude();
+            longitudes[i] = candidates.get(i).getLongitude();
+        }
+        int[] hits = new int[count];
+        double[] distances = new double[count];
+        int found = GeoDistance.origin(latitude, longitude)
+                .within(latitudes, longitudes, count, GeoDistance.radius(radiusKm), hits, distances);
+        return IntStream.range(0, found).boxed()
+                .sorted(Comparator.comparingDouble(i -> distances[i]))
+                .map(i -> candidates.get(hits[i]))
+                .collect(Collectors.toList());
+    }
 
-        return R * c;
+    // IN sorgusu sırayı korumaz; indeksin verdiği mesafe sırasını geri kur
+    private List<TireShopSummary> loadInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, TireShopSummary> byId = tireShopRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TireShopSummary::getId, Function.identity()));
+        List<TireShopSummary> ordered = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            TireShopSummary shop = byId.get(id);
+            if (shop != null) {
+                ordered.add(shop);
+            }
+        }
+        return ordered;
     }
 
     @Transactional(readOnly = true)
@@ -55,7 +242,11 @@ public class TireShopService {
 
     @Transactional
     public TireShop createTireShop(TireShop tireShop) {
-        return tireShopRepository.save(tireShop);
+        tireShop.setWeeklyOpenMask(WeeklyHours.parse(tireShop.getOpeningHour(), tireShop.getClosingHour()).toBytes());
+        TireShop saved = tireShopRepository.save(tireShop);
+        geoIndex.index(saved);
+        clusterGrid.refresh(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -64,12 +255,17 @@ public class TireShopService {
         if (existingTireShop != null) {
             existingTireShop.setShopName(updatedTireShop.getShopName());
             existingTireShop.setPhone(updatedTireShop.getPhone());
-            existingTireShop.setLocation(updatedTireShop.getLocation());
+            // Detay DTO'su konum nesnesi taşımaz; gövdede konum yoksa mevcut konum korunur
+            if (updatedTireShop.getLocation() != null) {
+                existingTireShop.setLocation(updatedTireShop.getLocation());
+            }
             existingTireShop.setAddress(updatedTireShop.getAddress());
             existingTireShop.setLatitude(updatedTireShop.getLatitude());
             existingTireShop.setLongitude(updatedTireShop.getLongitude());
             existingTireShop.setOpeningHour(updatedTireShop.getOpeningHour());
             existingTireShop.setClosingHour(updatedTireShop.getClosingHour());
+            existingTireShop.setWeeklyOpenMask(
+                    WeeklyHours.parse(updatedTireShop.getOpeningHour(), updatedTireShop.getClosingHour()).toBytes());
             
             if (updatedTireShop.getPassword() != null && !updatedTireShop.getPassword().isEmpty()) {
                 existingTireShop.setPassword(updatedTireShop.getPassword());
@@ -79,7 +275,12 @@ public class TireShopService {
                 existingTireShop.setEmail(updatedTireShop.getEmail());
             }
             
-            return tireShopRepository.save(existingTireShop);
+            TireShop saved = tireShopRepository.save(existingTireShop);
+            geoIndex.index(saved);
+            clusterGrid.refresh(id);
+            principalCache.invalidateShop(id);
+            availabilityService.invalidateShop(id);
+            return saved;
         }
         return null;
     }
@@ -88,6 +289,10 @@ public class TireShopService {
     public boolean deleteTireShop(int id) {
         if (tireShopRepository.existsById(id)) {
             tireShopRepository.deleteById(id);
+            geoIndex.unindex(id);
+            clusterGrid.unindex(id);
+            principalCache.invalidateShop(id);
+            availabilityService.invalidateShop(id);
             return true;
         }
         return false;
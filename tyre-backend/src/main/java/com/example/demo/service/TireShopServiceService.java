@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.entity.TireShop;
 import com.example.demo.entity.TireShopService;
+import com.example.demo.geo.ShopClusterGrid;
 import com.example.demo.repository.TireShopServiceRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +13,14 @@ import java.util.List;
 public class TireShopServiceService {
 
     private final TireShopServiceRepository serviceRepository;
+    private final AvailabilityService availabilityService;
+    private final ShopClusterGrid clusterGrid;
 
-    public TireShopServiceService(TireShopServiceRepository serviceRepository) {
+    public TireShopServiceService(TireShopServiceRepository serviceRepository, AvailabilityService availabilityService,
+                                  ShopClusterGrid clusterGrid) {
         this.serviceRepository = serviceRepository;
+        this.availabilityService = availabilityService;
+        this.clusterGrid = clusterGrid;
     }
 
     @Transactional(readOnly = true)
@@ -31,26 +38,44 @@ public class TireShopServiceService {
 
     @Transactional
     public TireShopService createService(TireShopService service) {
-        return serviceRepository.save(service);
+        TireShopService saved = serviceRepository.save(service);
+        refreshShop(saved.getTireShop());
+        return saved;
     }
 
     @Transactional
     public TireShopService updateService(int id, TireShopService updated) {
         TireShopService existing = serviceRepository.findById(id).orElse(null);
         if (existing != null) {
+            TireShop previousShop = existing.getTireShop();
             existing.setServiceName(updated.getServiceName());
             existing.setTireShop(updated.getTireShop());
-            return serviceRepository.save(existing);
+            existing.setDurationMinutes(updated.getDurationMinutes());
+            availabilityService.invalidateService(id);
+            TireShopService saved = serviceRepository.save(existing);
+            // Hizmet başka dükkana taşındıysa iki dükkanın da en düşük fiyatı değişir
+            refreshShop(previousShop);
+            refreshShop(saved.getTireShop());
+            return saved;
         }
         return null;
     }
 
     @Transactional
     public boolean deleteService(int id) {
-        if (serviceRepository.existsById(id)) {
-            serviceRepository.deleteById(id);
+        TireShopService existing = serviceRepository.findById(id).orElse(null);
+        if (existing != null) {
+            serviceRepository.delete(existing);
+            availabilityService.invalidateService(id);
+            refreshShop(existing.getTireShop());
             return true;
         }
         return false;
     }
+
+    private void refreshShop(TireShop shop) {
+        if (shop != null) {
+            clusterGrid.refresh(shop.getId());
+        }
+    }
 }
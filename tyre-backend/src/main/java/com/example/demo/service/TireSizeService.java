@@ -1,19 +1,37 @@
 package com.example.demo.service;
 
+import com.example.demo.catalog.TireCatalogIndex;
+import com.example.demo.catalog.TireSizeDictionary;
+import com.example.demo.catalog.TireSizeNotation;
+import com.example.demo.catalog.TireStockIndex;
 import com.example.demo.entity.TireSize;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.repository.TireSizeRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class TireSizeService {
 
+    // Plus-size kuralı: dış çap en fazla %3 sapabilir, jant en fazla iki inç büyüyebilir
+    private static final double PLUS_SIZE_DIAMETER_TOLERANCE = 0.03;
+    private static final int PLUS_SIZE_MAX_RIM_STEP = 2;
+
     private final TireSizeRepository tireSizeRepository;
+    private final TireSizeDictionary tireSizeDictionary;
+    private final TireCatalogIndex catalogIndex;
+    private final TireStockIndex stockIndex;
 
-    public TireSizeService(TireSizeRepository tireSizeRepository) {
+    public TireSizeService(TireSizeRepository tireSizeRepository, TireSizeDictionary tireSizeDictionary,
+                           TireCatalogIndex catalogIndex, TireStockIndex stockIndex) {
         this.tireSizeRepository = tireSizeRepository;
+        this.tireSizeDictionary = tireSizeDictionary;
+        this.catalogIndex = catalogIndex;
+        this.stockIndex = stockIndex;
     }
 
     @Transactional(readOnly = true)
@@ -26,25 +44,79 @@ public class TireSizeService {
         return tireSizeRepository.findById(id).orElse(null);
     }
 
-    @Transactional
+    // Boş bırakılan sınırlar uç değer olur; sorgu her zaman indeksteki aralık taramasıdır
+    @Transactional(readOnly = true)
+    public List<TireSize> searchSizes(Integer minRim, Integer maxRim, Integer minWidth, Integer maxWidth,
+                                      Integer minAspect, Integer maxAspect) {
+        return tireSizeRepository.findInRange(
+                minRim != null ? minRim : 0, maxRim != null ? maxRim : Integer.MAX_VALUE,
+                minWidth != null ? minWidth : 0, maxWidth != null ? maxWidth : Integer.MAX_VALUE,
+                minAspect != null ? minAspect : 0, maxAspect != null ? maxAspect : Integer.MAX_VALUE);
+    }
+
+    // Aynı ya da en fazla iki inç büyük jantta, dış çapı %3 içinde kalan ve yük endeksi düşmeyen ebatlar;
+    // dış çapı en yakın olan önce. Ebat bulunamazsa null
+    @Transactional(readOnly = true)
+    public List<TireSize> getPlusSizes(int id) {
+        TireSize original = tireSizeRepository.findById(id).orElse(null);
+        if (original == null) {
+            return null;
+        }
+        if (original.getOverallDiameterMm() == null) {
+            throw new IllegalArgumentException("Ebat çözülemedi: " + original.getSize());
+        }
+        int diameter = original.getOverallDiameterMm();
+        int tolerance = (int) Math.floor(diameter * PLUS_SIZE_DIAMETER_TOLERANCE);
+        Integer loadIndex = original.getLoadIndex();
+        return tireSizeRepository.findByOverallDiameterInRange(diameter - tolerance, diameter + tolerance,
+                        original.getRimDiameter(), original.getRimDiameter() + PLUS_SIZE_MAX_RIM_STEP).stream()
+                .filter(size -> size.getId() != original.getId())
+                .filter(size -> loadIndex == null || size.getLoadIndex() == null || size.getLoadIndex() >= loadIndex)
+                .sorted(Comparator.comparingInt((TireSize size) -> Math.abs(size.getOverallDiameterMm() - diameter))
+                        .thenComparing(TireSize::getRimDiameter))
+                .collect(Collectors.toList());
+    }
+
+    // Aynı ebat (normalize edilmiş yazımla) zaten varsa mevcut satır döner. Transaction'sız: sözlüğün INSERT'i
+    // kendi transaction'ında çalışır, dışarıda ikinci bir bağlantı tutulmaz
     public TireSize createSize(TireSize size) {
-        return tireSizeRepository.save(size);
+        TireSize interned = tireSizeDictionary.intern(size.getSize());
+        if (interned == null) {
+            throw new IllegalArgumentException("Ebat boş olamaz");
+        }
+        return tireSizeRepository.findById(interned.getId()).orElse(interned);
     }
 
     @Transactional
     public TireSize updateSize(int id, TireSize updated) {
         TireSize existing = tireSizeRepository.findById(id).orElse(null);
         if (existing != null) {
+            String key = TireSizeNotation.normalize(updated.getSize());
+            if (key == null) {
+                throw new IllegalArgumentException("Ebat boş olamaz");
+            }
+            tireSizeRepository.findByNormalizedSize(key)
+                    .filter(other -> other.getId() != id)
+                    .ifPresent(other -> {
+                        throw new ConflictException("Bu ebat zaten kayıtlı: " + other.getSize());
+                    });
+            tireSizeDictionary.evict(existing.getSize());
             existing.setSize(updated.getSize());
-            return tireSizeRepository.save(existing);
+            TireSize saved = tireSizeRepository.saveAndFlush(existing);
+            // Bu ebattaki lastikler ve stoklar yeni yazımla aranır
+            catalogIndex.refreshSize(saved.getId());
+            stockIndex.refreshSize(saved.getId());
+            return saved;
         }
         return null;
     }
 
     @Transactional
     public boolean deleteSize(int id) {
-        if (tireSizeRepository.existsById(id)) {
-            tireSizeRepository.deleteById(id);
+        TireSize existing = tireSizeRepository.findById(id).orElse(null);
+        if (existing != null) {
+            tireSizeRepository.delete(existing);
+            tireSizeDictionary.evict(existing.getSize());
             return true;
         }
         return false;
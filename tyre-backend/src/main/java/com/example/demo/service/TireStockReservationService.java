@@ -0,0 +1,224 @@
+package com.example.demo.service;
+
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.entity.ReservationStatus;
+import com.example.demo.entity.TireStockReservation;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.TireStockRepository;
+import com.example.demo.repository.TireStockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// DESIGN PATTERN: Service Layer Pattern + Scheduler
+// Stok ayırma / satış / bırakma. Adet okunup yazılmaz: "stockQuantity >= n" koşullu tek UPDATE ile düşülür,
+// yetmiyorsa 409. Rezervasyonun durumu da koşullu UPDATE ile HELD'den çıkar; aynı rezervasyon iki kez
+// bırakılamaz ya da hem satılıp hem iade edilemez. Süresi dolan HELD rezervasyonlar periyodik taramayla stoğa döner.
+@Service
+public class TireStockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TireStockReservationService.class);
+
+    private final TireStockReservationRepository reservationRepository;
+    private final TireStockRepository tireStockRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TireStockIndex stockIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMinutes;
+    private final long appointmentGraceHours;
+    private final int chunkSize;
+
+    private final Counter expiredReservations;
+
+    public TireStockReservationService(TireStockReservationRepository reservationRepository,
+                                       TireStockRepository tireStockRepository,
+                                       AppointmentRepository appointmentRepository,
+                                       TireStockIndex stockIndex,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${tire-stock.reservations.ttl-minutes:15}") long ttlMinutes,
+                                       @Value("${tire-stock.reservations.appointment-grace-hours:24}") long appointmentGraceHours,
+                                       @Value("${tire-stock.reservations.chunk-size:500}") int chunkSize) {
+        this.reservationRepository = reservationRepository;
+        this.tireStockRepository = tireStockRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.stockIndex = stockIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMinutes = ttlMinutes;
+        this.appointmentGraceHours = appointmentGraceHours;
+        this.chunkSize = Math.max(1, chunkSize);
+
+        this.expiredReservations = Counter.builder("tire.stock.reservations.expired")
+            .description("Süresi dolduğu için stoğa geri dönen rezervasyonlar")
+            .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public TireStockReservation getReservation(int id) {
+        return reservationRepository.findById(id).orElse(null);
+    }
+
+    // Stok satırı yoksa null, yeterli adet yoksa 409. appointmentId verilirse rezervasyon randevuya bağlanır
+    @Transactional
+    public TireStockReservation reserve(int stockId, int quantity, Integer appointmentId) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Adet en az 1 olmalı");
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        if (appointmentId != null) {
+            expiresAt = appointmentHoldUntil(appointmentId);
+        }
+        if (tireStockRepository.decrementIfAvailable(stockId, quantity) == 0) {
+            if (!tireStockRepository.existsById(stockId)) {
+                return null;
+            }
+            throw new ConflictException("Yetersiz stok");
+        }
+        TireStockReservation saved = reservationRepository.save(
+                new TireStockReservation(stockId, quantity, appointmentId, LocalDateTime.now(), expiresAt));
+        stockIndex.addQuantity(stockId, -quantity);
+        return saved;
+    }
+
+    // Satış: adet zaten düşülmüş, sadece durum değişir. Süresi dolmuş ya da bırakılmış rezervasyon 409
+    @Transactional
+    public TireStockReservation commit(int id) {
+        TireStockReservation reservation = reservationRepository.findById(id).orElse(null);
+        if (reservation == null) {
+            return null;
+        }
+        if (reservationRepository.commitHeld(id, LocalDateTime.now()) == 0
+                && currentStatus(id) != ReservationStatus.COMMITTED) {
+            throw new ConflictException("Rezervasyon süresi dolmuş ya da bırakılmış");
+        }
+        return reservationRepository.findById(id).orElse(null);
+    }
+
+    // İptal: adet stoğa geri eklenir. Tekrar bırakma (aynı isteğin yeniden denenmesi) sonucu değiştirmez
+    @Transactional
+    public TireStockReservation release(int id) {
+        TireStockReservation reservation = reservationRepository.findById(id).orElse(null);
+        if (reservation == null) {
+            return null;
+        }
+        if (returnToStock(List.of(reservation), ReservationStatus.RELEASED) == 0
+                && currentStatus(id) == ReservationStatus.COMMITTED) {
+            throw new ConflictException("Satışı tamamlanmış rezervasyon bırakılamaz");
+        }
+        return reservationRepository.findById(id).orElse(null);
+    }
+
+    // Randevuya bağlanan rezervasyon randevu saatinden sonraki bekleme süresine kadar tutulur
+    @Transactional
+    public TireStockReservation linkToAppointment(int id, int appointmentId) {
+        if (!reservationRepository.existsById(id)) {
+            return null;
+        }
+        if (reservationRepository.linkToAppointment(id, appointmentId, appointmentHoldUntil(appointmentId)) == 0) {
+            throw new ConflictException("Rezervasyon artık beklemede değil");
+        }
+        return reservationRepository.findById(id).orElse(null);
+    }
+
+    // Randevu tamamlanınca bağlı rezervasyonlar satışa dönüşür; süresi dolmuş olanlar atlanır
+    @Transactional
+    public int commitForAppointment(int appointmentId) {
+        LocalDateTime now = LocalDateTime.now();
+        int committed = 0;
+        for (Integer id : reservationRepository.findIdsByAppointmentIdAndStatus(appointmentId, ReservationStatus.HELD)) {
+            committed += reservationRepository.commitHeld(id, now);
+        }
+        return committed;
+    }
+
+    // Randevu iptal edilince/silinince bağlı rezervasyonlar stoğa döner
+    @Transactional
+    public int releaseForAppointment(int appointmentId) {
+        List<Integer> ids = reservationRepository.findIdsByAppointmentIdAndStatus(appointmentId, ReservationStatus.HELD);
+        return returnToStock(reservationRepository.findAllById(ids), ReservationStatus.RELEASED);
+    }
+
+    @Scheduled(fixedDelayString = "${tire-stock.reservations.sweep-interval-ms:60000}",
+            initialDelayString = "${tire-stock.reservations.sweep-interval-ms:60000}")
+    public void sweepOnSchedule() {
+        try {
+            sweep(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Tire stock reservation expiry sweep failed", e);
+        }
+    }
+
+    // now'a göre süresi dolan HELD rezervasyonları parça parça EXPIRED yapar, adetleri stoğa geri ekler
+    public int sweep(LocalDateTime now) {
+        int expired = 0;
+        int selected;
+        do {
+            int[] result = transactionTemplate.execute(status -> expireChunk(now));
+            selected = result[0];
+            expired += result[1];
+        } while (selected == chunkSize);
+        expiredReservations.increment(expired);
+        if (expired > 0) {
+            log.info("Returned {} expired tire stock reservation(s) to stock", expired);
+        }
+        return expired;
+    }
+
+    private int[] expireChunk(LocalDateTime now) {
+        List<TireStockReservation> chunk = reservationRepository.findExpiring(ReservationStatus.HELD, now,
+                PageRequest.of(0, chunkSize));
+        return new int[]{chunk.size(), returnToStock(chunk, ReservationStatus.EXPIRED)};
+    }
+
+    // HELD -> to geçişini kazanan taraf adedi stoğa ekler; kaybeden (başka bir bırakma/satış) hiçbir şey yapmaz.
+    // Önce tüm rezervasyon satırları, sonra stok satırları id sırasıyla ve stok başına tek UPDATE ile kilitlenir:
+    // tarama (bitiş zamanı sırası) ve randevu iptali (findAllById sırası) aynı kilit sırasını izler,
+    // stok kilidi tutulurken rezervasyon kilidi beklenmez, eşzamanlı bırakma/tarama birbirini kilitlemez
+    private int returnToStock(Collection<TireStockReservation> reservations, ReservationStatus to) {
+        List<TireStockReservation> ordered = new ArrayList<>(reservations);
+        ordered.sort(Comparator.comparingInt(TireStockReservation::getId));
+        Map<Integer, Integer> returned = new TreeMap<>();
+        int transitioned = 0;
+        for (TireStockReservation reservation : ordered) {
+            if (reservationRepository.transition(reservation.getId(), ReservationStatus.HELD, to) == 1) {
+                returned.merge(reservation.getStockId(), reservation.getQuantity(), Integer::sum);
+                transitioned++;
+            }
+        }
+        returned.forEach((stockId, quantity) -> {
+            tireStockRepository.increment(stockId, quantity);
+            stockIndex.addQuantity(stockId, quantity);
+        });
+        return transitioned;
+    }
+
+    private ReservationStatus currentStatus(int id) {
+        return reservationRepository.findById(id).map(TireStockReservation::getStatus).orElse(null);
+    }
+
+    private LocalDateTime appointmentHoldUntil(int appointmentId) {
+        LocalDateTime date = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Randevu bulunamadı: " + appointmentId))
+                .getAppointmentDate();
+        LocalDateTime holdUntil = date != null ? date.plusHours(appointmentGraceHours) : null;
+        LocalDateTime minimum = LocalDateTime.now().plusMinutes(ttlMinutes);
+        return holdUntil != null && holdUntil.isAfter(minimum) ? holdUntil : minimum;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.catalog.TireStockIndex;
 import com.example.demo.entity.TireStock;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.repository.TireStockRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +13,11 @@ import java.util.List;
 public class TireStockService {
 
     private final TireStockRepository tireStockRepository;
+    private final TireStockIndex stockIndex;
 
-    public TireStockService(TireStockRepository tireStockRepository) {
+    public TireStockService(TireStockRepository tireStockRepository, TireStockIndex stockIndex) {
         this.tireStockRepository = tireStockRepository;
+        this.stockIndex = stockIndex;
     }
 
     @Transactional(readOnly = true)
@@ -31,25 +35,31 @@ public class TireStockService {
 
     @Transactional
     public TireStock createStock(TireStock stock) {
-        return tireStockRepository.save(stock);
+        TireStock saved = tireStockRepository.save(stock);
+        stockIndex.refresh(saved.getId());
+        return saved;
     }
 
+    // Sayım düzeltmesi: istemci okuduğu adedi (expectedQuantity) gönderir. Arada bir rezervasyon/iade adedi
+    // değiştirdiyse yazılmaz, 409 döner; istemci güncel adedi görüp sayımı yeniden girer
     @Transactional
-    public TireStock updateStock(int id, TireStock updated) {
-        TireStock existing = tireStockRepository.findById(id).orElse(null);
-        if (existing != null) {
-            existing.setTire(updated.getTire());
-            existing.setTireShop(updated.getTireShop());
-            existing.setStockQuantity(updated.getStockQuantity());
-            return tireStockRepository.save(existing);
+    public TireStock updateStock(int id, int expectedQuantity, TireStock updated) {
+        if (tireStockRepository.updateIfQuantityUnchanged(id, expectedQuantity, updated.getTire(),
+                updated.getTireShop(), updated.getStockQuantity()) == 0) {
+            if (!tireStockRepository.existsById(id)) {
+                return null;
+            }
+            throw new ConflictException("Stok adedi bu arada değişti, tekrar deneyin");
         }
-        return null;
+        stockIndex.refresh(id);
+        return tireStockRepository.findById(id).orElse(null);
     }
 
     @Transactional
     public boolean deleteStock(int id) {
         if (tireStockRepository.existsById(id)) {
             tireStockRepository.deleteById(id);
+            stockIndex.unindex(id);
             return true;
         }
         return false;
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.PrincipalCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +12,11 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     
@@ -44,7 +47,9 @@ public class UserService {
             if (updatedUser.getUserRole() != null) {
                 existingUser.setUserRole(updatedUser.getUserRole());
             }
-            return userRepository.save(existingUser);
+            User saved = userRepository.save(existingUser);
+            principalCache.invalidateUser(id);
+            return saved;
         }
         return null;
     }
@@ -54,6 +59,7 @@ public class UserService {
     public boolean deleteUser(int id) {
         if (userRepository.existsById(id)) {
             userRepository.deleteById(id);
+            principalCache.invalidateUser(id);
             return true;
         }
         return false;
@@ -0,0 +1,54 @@
+package com.example.demo.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.IntConsumer;
+
+// Bellekteki indeksler veritabanıyla aynı anda değişmeli: transaction içindeyse iş commit sonrasına ertelenir,
+// rollback olursa hiç çalışmaz. Transaction yoksa (testler, ısınma) hemen çalışır.
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Commit ya da rollback sonrası, durumla (TransactionSynchronization.STATUS_*) çağrılır.
+    // Transaction yoksa iş zaten kalıcıdır: hemen STATUS_COMMITTED ile çalışır
+    public static void afterCompletion(IntConsumer action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status);
+                }
+            });
+        } else {
+            action.accept(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    // Sadece transaction geri alınırsa çalışır (bellekte önden yapılan değişikliği geri almak için).
+    // Transaction yoksa geri alınacak bir şey yoktur
+    public static void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCompletion(status -> {
+                if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Isınma, uygulama istek almaya başladıktan sonra (ApplicationReadyEvent) çalışır. Anlık görüntü okunurken commit
+// edilen güncellemeler biriktirilir; görüntüden kurulan yapıya aynı kilit altında aynı sırayla yeniden uygulanır,
+// yoksa rebuild onları siler ve ready olduktan sonra kimse geri getirmez.
+// İndeksler sadece commit sonrası güncellemelerini apply'dan geçirir; put/remove'un kendisi buraya girmez.
+public final class WarmUpBuffer {
+
+    private List<Runnable> pending;
+
+    // Isınma sürüyorsa biriktirir, değilse hemen uygular
+    public void apply(Runnable update) {
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(update);
+                return;
+            }
+        }
+        update.run();
+    }
+
+    // snapshot kilitsiz okunur (uzun sürebilir); install ve biriken güncellemeler tek kilit altında uygulanır.
+    // Okuma başarısız olursa biriktirme bırakılır, indeks hazır sayılmaz
+    public <T> void warmUp(Supplier<T> snapshot, Consumer<T> install) {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        T data;
+        try {
+            data = snapshot.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            List<Runnable> updates = pending;
+            pending = null;
+            install.accept(data);
+            updates.forEach(Runnable::run);
+        }
+    }
+}
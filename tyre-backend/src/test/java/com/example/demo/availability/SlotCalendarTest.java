@@ -0,0 +1,136 @@
+package com.example.demo.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotCalendarTest {
+
+    private static final SlotCalendar.Key DAY = new SlotCalendar.Key(1, LocalDate.of(2025, 1, 1));
+
+    @Test
+    void openMaskCoversWorkingHoursOnly() {
+        long open = DaySlots.openMask(WeeklyHours.parse("09:00", "18:00"), DayOfWeek.WEDNESDAY);
+
+        assertEquals(18, Long.bitCount(open));
+        assertEquals(DaySlots.slotOf(LocalTime.of(9, 0)), Long.numberOfTrailingZeros(open));
+        assertEquals(DaySlots.openMask(WeeklyHours.parse(null, "bozuk"), DayOfWeek.WEDNESDAY), open);
+        // Arama filtresiyle aynı yorum: "0915" okunur, 09:15 açılışında 09:00 slotu kapalı
+        assertEquals(open & ~1L << DaySlots.slotOf(LocalTime.of(9, 0)),
+                DaySlots.openMask(WeeklyHours.parse("0915", "18"), DayOfWeek.WEDNESDAY));
+        assertEquals(-1L >>> (Long.SIZE - DaySlots.SLOTS_PER_DAY),
+                DaySlots.openMask(WeeklyHours.parse("08:00", "08:00"), DayOfWeek.WEDNESDAY));
+    }
+
+    // Gece yarısını aşan saatler: önceki günün devamı sabaha, o günün açılışı gece yarısına kadar
+    @Test
+    void overnightHoursOpenBothEndsOfTheDay() {
+        long open = DaySlots.openMask(WeeklyHours.parse("18:00", "09:00"), DayOfWeek.WEDNESDAY);
+
+        assertEquals(DaySlots.range(0, DaySlots.slotOf(LocalTime.of(9, 0)))
+                | DaySlots.range(DaySlots.slotOf(LocalTime.of(18, 0)), 12), open);
+        WeeklyHours hours = WeeklyHours.parse("18:00", "09:00");
+        for (int slot = 0; slot < DaySlots.SLOTS_PER_DAY; slot++) {
+            LocalTime time = DaySlots.timeOf(slot);
+            assertEquals(hours.isOpenAt(DAY.date().atTime(time)), (open & 1L << slot) != 0, time.toString());
+        }
+    }
+
+    @Test
+    void coverRoundsToTouchedSlots() {
+        assertEquals(1, Long.bitCount(DaySlots.cover(LocalTime.of(10, 0), 30)));
+        assertEquals(2, Long.bitCount(DaySlots.cover(LocalTime.of(10, 0), 45)));
+        assertEquals(2, Long.bitCount(DaySlots.cover(LocalTime.of(10, 15), 30)));
+        assertEquals(1, Long.bitCount(DaySlots.cover(LocalTime.of(10, 0), null)));
+        // Gece yarısını aşan randevu geçersiz
+        assertEquals(0L, DaySlots.cover(LocalTime.of(23, 30), 60));
+    }
+
+    @Test
+    void overlappingReservationIsRejected() {
+        SlotCalendar calendar = new SlotCalendar();
+        long tenToEleven = DaySlots.cover(LocalTime.of(10, 0), 60);
+        long tenThirty = DaySlots.cover(LocalTime.of(10, 30), 30);
+        long eleven = DaySlots.cover(LocalTime.of(11, 0), 30);
+
+        assertTrue(calendar.tryReserve(DAY, tenToEleven, () -> 0L));
+        assertFalse(calendar.tryReserve(DAY, tenThirty, () -> 0L));
+        assertTrue(calendar.tryReserve(DAY, eleven, () -> 0L));
+
+        calendar.release(DAY, tenToEleven);
+        assertTrue(calendar.tryReserve(DAY, tenThirty, () -> 0L));
+    }
+
+    @Test
+    void loaderSeedsExistingAppointmentsOnce() {
+        SlotCalendar calendar = new SlotCalendar();
+        long existing = DaySlots.cover(LocalTime.of(9, 0), 30);
+        int[] loads = {0};
+
+        assertFalse(calendar.tryReserve(DAY, existing, () -> {
+            loads[0]++;
+            return existing;
+        }));
+        assertEquals(existing, calendar.occupied(DAY, () -> {
+            loads[0]++;
+            return 0L;
+        }));
+        assertEquals(1, loads[0]);
+    }
+
+    @Test
+    void moveWithinDayIgnoresOwnSlots() {
+        SlotCalendar calendar = new SlotCalendar();
+        long nine = DaySlots.cover(LocalTime.of(9, 0), 60);
+        long nineThirty = DaySlots.cover(LocalTime.of(9, 30), 60);
+
+        assertTrue(calendar.tryReserve(DAY, nine, () -> 0L));
+        assertTrue(calendar.tryMove(DAY, nine, nineThirty, () -> 0L));
+        assertEquals(nineThirty, calendar.occupied(DAY, () -> 0L));
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlotHaveExactlyOneWinner() throws Exception {
+        SlotCalendar calendar = new SlotCalendar();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                SlotCalendar.Key key = new SlotCalendar.Key(round, LocalDate.of(2025, 1, 1));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    // Her thread 10:00'ı kapsayan farklı uzunlukta bir randevu ister
+                    long mask = DaySlots.cover(LocalTime.of(10, 0).minusMinutes(30L * (t % 3)), 30 * (1 + t % 3));
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return calendar.tryReserve(key, mask, () -> 0L);
+                    }));
+                }
+                start.countDown();
+                int winners = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(5, TimeUnit.SECONDS)) {
+                        winners++;
+                    }
+                }
+                assertEquals(1, winners);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyHoursTest {
+
+    // 2025-01-06 Pazartesi
+    private static LocalDateTime monday(int hour, int minute) {
+        return LocalDateTime.of(2025, 1, 6, hour, minute);
+    }
+
+    @Test
+    void parsesFreeFormTimes() {
+        WeeklyHours expected = WeeklyHours.parse("09:30", "18:00");
+        assertEquals(expected, WeeklyHours.parse(" 9:30 ", "18"));
+        assertEquals(expected, WeeklyHours.parse("09.30", "1800"));
+        assertEquals(WeeklyHours.DEFAULT, WeeklyHours.parse(null, "18:00"));
+        assertEquals(WeeklyHours.DEFAULT, WeeklyHours.parse("sabah", "akşam"));
+        assertEquals(WeeklyHours.DEFAULT, WeeklyHours.parse("25:00", "18:00"));
+    }
+
+    @Test
+    void dayHoursRespectQuarterBoundaries() {
+        WeeklyHours hours = WeeklyHours.parse("09:10", "18:00");
+
+        assertFalse(hours.isOpenAt(monday(9, 10)));
+        assertTrue(hours.isOpenAt(monday(9, 15)));
+        assertTrue(hours.isOpenAt(monday(17, 59)));
+        assertFalse(hours.isOpenAt(monday(18, 0)));
+        assertTrue(hours.isOpenAt(LocalDateTime.of(2025, 1, 12, 12, 0)));
+    }
+
+    @Test
+    void overnightHoursSpillIntoNextDayAndWrapTheWeek() {
+        WeeklyHours hours = WeeklyHours.parse("22:00", "03:00");
+
+        assertTrue(hours.isOpenAt(monday(23, 0)));
+        assertTrue(hours.isOpenAt(monday(2, 45)));
+        assertFalse(hours.isOpenAt(monday(3, 0)));
+        assertFalse(hours.isOpenAt(monday(12, 0)));
+        // Pazar gecesi Pazartesi sabahına taşar
+        assertTrue(hours.isOpenAt(LocalDateTime.of(2025, 1, 12, 23, 30)));
+
+        WeeklyHours allDay = WeeklyHours.parse("00:00", "24:00");
+        assertEquals(allDay, WeeklyHours.parse("08:00", "08:00"));
+        assertTrue(allDay.isOpenAt(monday(4, 0)));
+    }
+
+    @Test
+    void storedMaskRoundTrips() {
+        WeeklyHours hours = WeeklyHours.parse("22:00", "03:00");
+        byte[] mask = hours.toBytes();
+
+        assertEquals(WeeklyHours.BYTES, mask.length);
+        assertEquals(hours, WeeklyHours.of(mask, null, null));
+        assertArrayEquals(mask, WeeklyHours.of(mask, "09:00", "18:00").toBytes());
+        assertEquals(WeeklyHours.parse("10:00", "20:00"), WeeklyHours.of(null, "10:00", "20:00"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.catalog;
+
+import com.example.demo.dto.TireSearchResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TireCatalogIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TireCatalogIndexTest.class);
+
+    private static final String[] BRANDS = {"Michelin", "Bridgestone", "Continental", "Pirelli", "Goodyear",
+            "Lassa", "Petlas", "Hankook", "Dunlop", "Yokohama", "Kumho", "Nokian"};
+    private static final String[] MODELS = {"Primacy 4", "Pilot Sport 5", "Turanza T005", "Potenza Sport",
+            "EcoContact 6", "PremiumContact 7", "Cinturato P7", "P Zero", "EfficientGrip", "Driveways",
+            "Velox Sport", "Ventus Prime 4", "Sport Maxx RT2", "BluEarth GT", "Ecsta HS52", "Hakka Green 3"};
+    private static final int[] WIDTHS = {175, 185, 195, 205, 215, 225, 235, 245, 255};
+    private static final int[] PROFILES = {40, 45, 50, 55, 60, 65};
+    private static final int[] RIMS = {14, 15, 16, 17, 18, 19, 20};
+
+    @Test
+    void prefixTokensAndFiltersNarrowResults() {
+        TireCatalogIndex index = new TireCatalogIndex(null);
+        index.rebuild(List.of(
+                new TireCatalogIndex.TireEntry(1, "Michelin", "Primacy 4", 3200, "205/55R16"),
+                new TireCatalogIndex.TireEntry(2, "Michelin", "Pilot Sport 5", 5400, "225/40ZR18"),
+                new TireCatalogIndex.TireEntry(3, "Pirelli", "P Zero", 6100, "225/40 R18"),
+                new TireCatalogIndex.TireEntry(4, "Lassa", "Driveways", 1800, "205/55/16")));
+
+        assertEquals(List.of(1, 2), ids(index.search(query("mich", null, null))));
+        assertEquals(List.of(1), ids(index.search(query("MICH prim", null, null))));
+        // Ebat bütün halde ve parçalarıyla aranabilir
+        assertEquals(List.of(1), ids(index.search(query("205/55r16", null, null))));
+        assertEquals(List.of(1, 4), ids(index.search(query("205", null, null))));
+        assertEquals(List.of(2, 3), ids(index.search(query(null, null, 18))));
+        assertEquals(List.of(3), ids(index.search(query("p", "pirelli", null))));
+
+        TireSearchResult priced = index.search(new TireCatalogIndex.Query(null, null, null, 2000.0, 6000.0, 0, 10));
+        assertEquals(List.of(1, 2), ids(priced));
+        assertEquals(Map.of("Michelin", 2), priced.getBrands());
+        assertEquals(Map.of("3000-5000", 1, "5000+", 1), priced.getPriceRanges());
+        assertEquals(Map.of(16, 1, 18, 1), priced.getRimSizes());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(17);
+        List<TireCatalogIndex.TireEntry> catalog = new ArrayList<>();
+        TireCatalogIndex incremental = new TireCatalogIndex(null);
+        for (int i = 0; i < 5_000; i++) {
+            TireCatalogIndex.TireEntry entry = randomTire(random, i);
+            catalog.add(entry);
+            incremental.put(entry);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int id = random.nextInt(catalog.size());
+            if (catalog.get(id) == null) {
+                continue;
+            }
+            if (random.nextInt(3) == 0) {
+                catalog.set(id, null);
+                incremental.remove(id);
+            } else {
+                TireCatalogIndex.TireEntry changed = randomTire(random, id);
+                catalog.set(id, changed);
+                incremental.put(changed);
+            }
+        }
+        List<TireCatalogIndex.TireEntry> remaining = catalog.stream().filter(entry -> entry != null)
+                .collect(Collectors.toList());
+        TireCatalogIndex rebuilt = new TireCatalogIndex(null);
+        rebuilt.rebuild(remaining);
+
+        assertEquals(remaining.size(), incremental.size());
+        for (String text : new String[]{null, "mich", "sport", "205/55", "p zero", "eco 17", "velox"}) {
+            for (Integer rim : new Integer[]{null, 17}) {
+                TireSearchResult expected = rebuilt.search(query(text, null, rim));
+                TireSearchResult actual = incremental.search(query(text, null, rim));
+                assertEquals(bruteForce(remaining, text, rim), expected.getTotal(), text);
+                assertEquals(expected.getTotal(), actual.getTotal(), text);
+                assertEquals(expected.getBrands(), actual.getBrands(), text);
+                assertEquals(expected.getRimSizes(), actual.getRimSizes(), text);
+                assertEquals(expected.getPriceRanges(), actual.getPriceRanges(), text);
+            }
+        }
+    }
+
+    @Test
+    void pagesWalkAllMatchesWithoutDuplicates() {
+        TireCatalogIndex index = new TireCatalogIndex(null);
+        Random random = new Random(23);
+        List<TireCatalogIndex.TireEntry> catalog = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            catalog.add(randomTire(random, i));
+        }
+        index.rebuild(catalog);
+
+        int total = index.search(query("sport", null, null)).getTotal();
+        List<Integer> seen = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            TireSearchResult result = index.search(new TireCatalogIndex.Query("sport", null, null, null, null, page, 25));
+            if (result.getItems().isEmpty()) {
+                break;
+            }
+            seen.addAll(ids(result));
+        }
+        assertEquals(total, seen.size());
+        assertEquals(total, seen.stream().distinct().count());
+    }
+
+    @Test
+    void rimSizeIsReadFromCommonNotations() {
+        assertEquals(16, TireCatalogIndex.rimSize("205/55R16"));
+        assertEquals(18, TireCatalogIndex.rimSize("225/40ZR18 94Y"));
+        assertEquals(17, TireCatalogIndex.rimSize("225/45 R 17"));
+        assertEquals(15, TireCatalogIndex.rimSize("195/65/15"));
+        assertEquals(0, TireCatalogIndex.rimSize(null));
+    }
+
+    // JMH build'de yok; 500k SKU üzerinde ısınmadan sonra sorgu başına ortalama süre
+    @Tag("benchmark")
+    @Test
+    void benchmarkSearchOverHalfMillionSkus() {
+        Random random = new Random(29);
+        List<TireCatalogIndex.TireEntry> catalog = new ArrayList<>(500_000);
+        for (int i = 0; i < 500_000; i++) {
+            catalog.add(randomTire(random, i));
+        }
+        TireCatalogIndex index = new TireCatalogIndex(null);
+        long start = System.nanoTime();
+        index.rebuild(catalog);
+        long buildNanos = System.nanoTime() - start;
+
+        TireCatalogIndex.Query selective = query("mich prim 205/55", null, 16);
+        TireCatalogIndex.Query brandOnly = new TireCatalogIndex.Query(null, "pirelli", 18, 3000.0, null, 0, 20);
+        for (int i = 0; i < 2_000; i++) {
+            index.search(selective);
+            index.search(brandOnly);
+        }
+
+        int rounds = 1_000;
+        start = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < rounds; i++) {
+            hits += index.search(selective).getTotal();
+        }
+        long selectiveNanos = (System.nanoTime() - start) / rounds;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hits += index.search(brandOnly).getTotal();
+        }
+        long brandNanos = (System.nanoTime() - start) / rounds;
+
+        assertTrue(hits > 0);
+        log.info(String.format(Locale.ROOT, "TireCatalogIndex (500k SKUs, build %.0f ms): selective text query %.3f ms, "
+                        + "brand + rim + price filter %.3f ms",
+                buildNanos / 1e6, selectiveNanos / 1e6, brandNanos / 1e6));
+    }
+
+    private static TireCatalogIndex.Query query(String text, String brand, Integer rim) {
+        return new TireCatalogIndex.Query(text, brand, rim, null, null, 0, 20);
+    }
+
+    private static List<Integer> ids(TireSearchResult result) {
+        return result.getItems().stream().map(TireSearchResult.TireDto::getId).collect(Collectors.toList());
+    }
+
+    private static TireCatalogIndex.TireEntry randomTire(Random random, int id) {
+        String size = WIDTHS[random.nextInt(WIDTHS.length)] + "/" + PROFILES[random.nextInt(PROFILES.length)]
+                + "R" + RIMS[random.nextInt(RIMS.length)];
+        return new TireCatalogIndex.TireEntry(id, BRANDS[random.nextInt(BRANDS.length)],
+                MODELS[random.nextInt(MODELS.length)], 800 + random.nextInt(7_000), size);
+    }
+
+    // Referans: her kelime, dokümanın en az bir kelimesinin öneki olmalı
+    private static int bruteForce(List<TireCatalogIndex.TireEntry> catalog, String text, Integer rim) {
+        List<String> tokens = TireCatalogIndex.tokenize(text);
+        int count = 0;
+        for (TireCatalogIndex.TireEntry entry : catalog) {
+            List<String> words = new ArrayList<>(TireCatalogIndex.tokenize(entry.brand()));
+            words.addAll(TireCatalogIndex.tokenize(entry.model()));
+            words.addAll(TireCatalogIndex.tokenize(entry.size()));
+            words.add(entry.size().toLowerCase(Locale.ROOT));
+            boolean matches = tokens.stream().allMatch(token -> words.stream().anyMatch(w -> w.startsWith(token)));
+            if (matches && (rim == null || TireCatalogIndex.rimSize(entry.size()) == rim)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
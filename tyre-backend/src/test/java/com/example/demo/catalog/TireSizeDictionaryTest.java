@@ -0,0 +1,161 @@
+package com.example.demo.catalog;
+
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireSize;
+import com.example.demo.repository.TireRepository;
+import com.example.demo.repository.TireSizeRepository;
+import com.example.demo.service.TireService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Sözlük gerçek commit'lerle (REQUIRES_NEW) çalıştığı için test transaction'ı kapalı; veriler her testten sonra silinir
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TireSizeDictionaryTest {
+
+    private static final int SIZE_COUNT = 60;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TireSizeRepository tireSizeRepository;
+
+    @Autowired
+    private TireRepository tireRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        tireRepository.deleteAll();
+        tireSizeRepository.deleteAll();
+    }
+
+    @Test
+    void parallelUploadsCreateOneRowPerSize() throws Exception {
+        TireSizeDictionary dictionary = new TireSizeDictionary(tireSizeRepository, transactionManager);
+        List<String> sizes = sizes();
+        Map<String, Set<Integer>> idsByKey = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    List<String> order = new ArrayList<>(sizes);
+                    Collections.shuffle(order, new Random(thread));
+                    start.await();
+                    for (String size : order) {
+                        // Her yükleme farklı yazımla gönderir
+                        String spelling = thread % 2 == 0 ? size : size.toLowerCase().replace("r", " r ");
+                        TireSize interned = dictionary.intern(spelling);
+                        idsByKey.computeIfAbsent(TireSizeNotation.normalize(size), key -> ConcurrentHashMap.newKeySet())
+                                .add(interned.getId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(SIZE_COUNT, tireSizeRepository.count());
+        assertEquals(SIZE_COUNT, idsByKey.size());
+        assertEquals(Set.of(1), idsByKey.values().stream().map(Set::size).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void warmDictionaryNeedsNoSizeLookupsForBulkCreate() {
+        TireSizeDictionary dictionary = new TireSizeDictionary(tireSizeRepository, transactionManager);
+        List<String> sizes = sizes();
+        sizes.forEach(dictionary::intern);
+        // Yeniden başlatılmış gibi: sözlük veritabanından ısınır
+        dictionary = new TireSizeDictionary(tireSizeRepository, transactionManager);
+        dictionary.warmUp();
+        assertEquals(SIZE_COUNT, dictionary.size());
+
+        TireService tireService = new TireService(tireRepository, dictionary, new TireCatalogIndex(null),
+                new TireStockIndex(null), transactionManager);
+        List<Tire> upload = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TireSize size = new TireSize();
+            size.setSize(sizes.get(i % SIZE_COUNT).toLowerCase());
+            Tire tire = new Tire();
+            tire.setBrand("Petlas");
+            tire.setModel("Velox Sport " + i);
+            tire.setPrice(1500 + i);
+            tire.setTireSize(size);
+            upload.add(tire);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        tireService.createTires(upload);
+
+        // Sadece lastik INSERT'leri: ebat için SELECT ya da INSERT yok
+        assertEquals(upload.size(), statistics.getPrepareStatementCount());
+        assertEquals(upload.size(), statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(SIZE_COUNT, tireSizeRepository.count());
+        Tire stored = tireRepository.findAll().get(0);
+        assertEquals(TireSizeNotation.normalize(upload.get(0).getTireSize().getSize()),
+                tireSizeRepository.findById(stored.getTireSize().getId()).orElseThrow().getNormalizedSize());
+    }
+
+    @Test
+    void blankSizeIsNotInterned() {
+        TireSizeDictionary dictionary = new TireSizeDictionary(tireSizeRepository, transactionManager);
+        assertNull(dictionary.intern("  "));
+        assertNull(dictionary.intern(null));
+        assertEquals(0, tireSizeRepository.count());
+    }
+
+    private static List<String> sizes() {
+        List<String> sizes = new ArrayList<>();
+        int[] widths = {185, 195, 205, 215, 225, 235};
+        int[] profiles = {45, 55};
+        int[] rims = {15, 16, 17, 18, 19};
+        for (int width : widths) {
+            for (int profile : profiles) {
+                for (int rim : rims) {
+                    sizes.add(width + "/" + profile + "R" + rim + " 91V");
+                }
+            }
+        }
+        return sizes;
+    }
+}
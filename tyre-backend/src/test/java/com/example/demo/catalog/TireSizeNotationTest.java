@@ -0,0 +1,49 @@
+package com.example.demo.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TireSizeNotationTest {
+
+    @Test
+    void parsesCommonNotations() {
+        assertEquals(new TireSizeNotation(205, 55, "R", 16, null, null), TireSizeNotation.parse("205/55R16"));
+        assertEquals(new TireSizeNotation(205, 55, "R", 16, 91, "V"), TireSizeNotation.parse("205/55 R16 91V"));
+        assertEquals(new TireSizeNotation(225, 40, "ZR", 18, 92, "Y"), TireSizeNotation.parse("225/40ZR18 92Y XL"));
+        assertEquals(new TireSizeNotation(195, 65, null, 15, null, null), TireSizeNotation.parse("195/65/15"));
+        assertEquals(new TireSizeNotation(215, 65, "R", 16, 109, "T"), TireSizeNotation.parse("215/65R16C 109/107T"));
+        assertEquals(new TireSizeNotation(235, 75, "R", 15, 108, "S"), TireSizeNotation.parse("p235/75r15 108s"));
+    }
+
+    @Test
+    void rejectsUnreadableOrImplausibleSizes() {
+        assertNull(TireSizeNotation.parse(null));
+        assertNull(TireSizeNotation.parse("16 inç"));
+        assertNull(TireSizeNotation.parse("31x10.50R15"));
+        assertNull(TireSizeNotation.parse("205/55R16abc"));
+        assertNull(TireSizeNotation.parse("905/55R16"));
+    }
+
+    @Test
+    void overallDiameterAndCanonicalForm() {
+        TireSizeNotation size = TireSizeNotation.parse("205/55 r 16 91v");
+        // 16 * 25.4 + 2 * 205 * 0.55 = 406.4 + 225.5
+        assertEquals(632, size.overallDiameterMm());
+        assertEquals("205/55R16 91V", size.canonical());
+        assertEquals("195/65R15", TireSizeNotation.parse("195/65/15").canonical());
+    }
+
+    @Test
+    void keyKeepsCommercialLightTruckAndDualLoadMarkers() {
+        assertEquals("205/55R16 91V", TireSizeNotation.normalize("205/55 r 16 91v"));
+        assertEquals("215/65R16C 109/107T", TireSizeNotation.normalize("215/65 r16c 109/107t"));
+        assertEquals("LT235/85R16 120/116Q", TireSizeNotation.normalize("lt235/85r16 120/116q"));
+        assertEquals("P235/75R15 108S", TireSizeNotation.normalize("p235/75r15 108s"));
+        assertEquals("225/40ZR18 92Y XL", TireSizeNotation.normalize("225/40zr18 92y  xl"));
+        assertNotEquals(TireSizeNotation.normalize("215/65R16C 109/107T"), TireSizeNotation.normalize("215/65R16 109T"));
+        assertNotEquals(TireSizeNotation.normalize("225/40ZR18 92Y XL"), TireSizeNotation.normalize("225/40ZR18 92Y"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TireStockIndexTest {
+
+    private static final String[] SIZES = {"205/55R16 91V", "225/45R17 94W", "195/65R15 91H", "235/35R19 91Y"};
+
+    @Test
+    void quantitiesAreSummedPerShopAcrossModels() {
+        TireStockIndex index = new TireStockIndex(null);
+        index.rebuild(List.of(
+                new TireStockIndex.StockEntry(1, 10, 100, "205/55R16 91V", 2),
+                new TireStockIndex.StockEntry(2, 10, 101, "205/55R16 91V", 3),
+                new TireStockIndex.StockEntry(3, 11, 100, "205/55R16 91V", 4),
+                new TireStockIndex.StockEntry(4, 12, 102, "225/45R17 94W", 8)));
+
+        // Yazım farkı önemsiz: aynı anahtara normalize edilir
+        assertEquals(Map.of(10, 5, 11, 4), index.shopsWithSize("205/55 r16 91v", 1));
+        assertEquals(Map.of(10, 5), index.shopsWithSize("205/55R16 91V", 5));
+        assertTrue(index.shopsWithSize("195/65R15 91H", 1).isEmpty());
+
+        index.put(new TireStockIndex.StockEntry(2, 10, 101, "205/55R16 91V", 0));
+        assertEquals(Map.of(11, 4), index.shopsWithSize("205/55R16 91V", 3));
+        index.remove(3);
+        assertEquals(Map.of(10, 2), index.shopsWithSize("205/55R16 91V", 1));
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(31);
+        Map<Integer, TireStockIndex.StockEntry> rows = new HashMap<>();
+        TireStockIndex incremental = new TireStockIndex(null);
+        for (int i = 0; i < 20_000; i++) {
+            int stockId = random.nextInt(5_000);
+            if (random.nextInt(5) == 0) {
+                rows.remove(stockId);
+                incremental.remove(stockId);
+            } else {
+                TireStockIndex.StockEntry entry = new TireStockIndex.StockEntry(stockId, random.nextInt(200),
+                        random.nextInt(50), TireSizeNotation.normalize(SIZES[random.nextInt(SIZES.length)]),
+                        random.nextInt(10));
+                rows.put(stockId, entry);
+                incremental.put(entry);
+            }
+        }
+        TireStockIndex rebuilt = new TireStockIndex(null);
+        rebuilt.rebuild(new ArrayList<>(rows.values()));
+
+        for (String size : SIZES) {
+            for (int minQuantity : new int[]{1, 4, 20}) {
+                Map<Integer, Integer> expected = bruteForce(rows.values(), size, minQuantity);
+                assertEquals(expected, rebuilt.shopsWithSize(size, minQuantity), size);
+                assertEquals(expected, incremental.shopsWithSize(size, minQuantity), size);
+            }
+        }
+    }
+
+    private static Map<Integer, Integer> bruteForce(Iterable<TireStockIndex.StockEntry> rows, String size,
+                                                    int minQuantity) {
+        Map<Integer, Integer> totals = new HashMap<>();
+        for (TireStockIndex.StockEntry row : rows) {
+            if (row.sizeKey().equals(TireSizeNotation.normalize(size))) {
+                totals.merge(row.shopId(), row.quantity(), Integer::sum);
+            }
+        }
+        totals.values().removeIf(total -> total < minQuantity);
+        return totals;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.dispatch;
+
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentRequestIndexTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double LAT = 41.0082;
+    private static final double LON = 28.9784;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Supplier<ServiceRequest> creator = () -> {
+        ServiceRequest request = new ServiceRequest();
+        request.setId(ids.incrementAndGet());
+        return request;
+    };
+
+    @Test
+    void repeatedTapNearbyWithinWindowReturnsExistingRequest() {
+        RecentRequestIndex index = new RecentRequestIndex(500, 600);
+
+        RecentRequestIndex.Result first = index.findOrCreate(1, LAT, LON, NOW, creator);
+        // ~200 m kuzeyde, 2 dakika sonra
+        RecentRequestIndex.Result second = index.findOrCreate(1, LAT + 0.0018, LON, NOW + 120_000, creator);
+
+        assertTrue(first.created());
+        assertFalse(second.created());
+        assertSame(first.request(), second.request());
+        assertEquals(1, ids.get());
+    }
+
+    @Test
+    void farAwayLateOrOtherUserTapsCreateNewRequests() {
+        RecentRequestIndex index = new RecentRequestIndex(500, 600);
+        ServiceRequest first = index.findOrCreate(1, LAT, LON, NOW, creator).request();
+
+        // ~2 km uzakta
+        assertTrue(index.findOrCreate(1, LAT + 0.018, LON, NOW + 1_000, creator).created());
+        // Pencere dışında
+        assertTrue(index.findOrCreate(1, LAT, LON, NOW + 601_000, creator).created());
+        // Başka kullanıcı aynı noktada
+        assertTrue(index.findOrCreate(2, LAT, LON, NOW + 1_000, creator).created());
+        assertEquals(4, ids.get());
+        assertNotSame(first, index.findOrCreate(1, LAT, LON, NOW + 602_000, creator).request());
+    }
+
+    @Test
+    void completedRequestIsNoLongerMergedInto() {
+        RecentRequestIndex index = new RecentRequestIndex(500, 600);
+        ServiceRequest first = index.findOrCreate(1, LAT, LON, NOW, creator).request();
+
+        index.onServiceRequestEvent(new ServiceRequestEvent(ServiceRequestEvent.Type.COMPLETED, first));
+
+        assertEquals(0, index.size());
+        assertTrue(index.findOrCreate(1, LAT, LON, NOW + 1_000, creator).created());
+    }
+
+    @Test
+    void concurrentTapsFromSameUserCreateSingleRequest() throws Exception {
+        RecentRequestIndex index = new RecentRequestIndex(500, 600);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RecentRequestIndex.Result>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return index.findOrCreate(7, LAT, LON, NOW, creator);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<RecentRequestIndex.Result> future : futures) {
+            if (future.get(10, TimeUnit.SECONDS).created()) {
+                created++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, ids.get());
+    }
+
+    // İlk basışın transaction'ı açıkken gelen ikinci basış commit edilmemiş talebi görmez, sonucu bekler
+    @Test
+    void secondTapWaitsForFirstTransaction() throws Exception {
+        for (int status : new int[]{TransactionSynchronization.STATUS_COMMITTED,
+                TransactionSynchronization.STATUS_ROLLED_BACK}) {
+            RecentRequestIndex index = new RecentRequestIndex(500, 600);
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            CountDownLatch saved = new CountDownLatch(1);
+            CountDownLatch finish = new CountDownLatch(1);
+            Future<RecentRequestIndex.Result> first = pool.submit(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    RecentRequestIndex.Result result = index.findOrCreate(1, LAT, LON, NOW, creator);
+                    saved.countDown();
+                    finish.await();
+                    TransactionSynchronizationUtils.invokeAfterCompletion(
+                            TransactionSynchronizationManager.getSynchronizations(), status);
+                    return result;
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            });
+            saved.await(10, TimeUnit.SECONDS);
+            Future<RecentRequestIndex.Result> second = pool.submit(() -> index.findOrCreate(1, LAT, LON, NOW, creator));
+
+            Thread.sleep(200);
+            assertFalse(second.isDone());
+            assertEquals(0, index.size());
+            finish.countDown();
+
+            ServiceRequest created = first.get(10, TimeUnit.SECONDS).request();
+            RecentRequestIndex.Result result = second.get(10, TimeUnit.SECONDS);
+            pool.shutdown();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                assertFalse(result.created());
+                assertSame(created, result.request());
+            } else {
+                assertTrue(result.created());
+                assertNotSame(created, result.request());
+            }
+            assertEquals(1, index.size());
+        }
+    }
+}
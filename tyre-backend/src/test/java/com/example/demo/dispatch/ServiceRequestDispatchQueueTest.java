@@ -0,0 +1,137 @@
+package com.example.demo.dispatch;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.geo.GeoDistance;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServiceRequestDispatchQueueTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRequestDispatchQueueTest.class);
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void highPriorityComesBeforeOlderLowPriority() {
+        ServiceRequestDispatchQueue queue = new ServiceRequestDispatchQueue(null);
+        queue.add(request(1, Priority.LOW, NOW - 3_600_000, 41.0, 29.0));
+        queue.add(request(2, Priority.HIGH, NOW, 41.01, 29.01));
+        queue.add(request(3, Priority.MEDIUM, NOW - 60_000, 41.0, 29.0));
+        queue.add(request(4, Priority.HIGH, NOW - 1_000, 41.05, 29.05));
+
+        assertEquals(List.of(4, 2, 3, 1), ids(queue.pending(10)));
+        assertEquals(List.of(4, 2), ids(queue.nearby(41.0, 29.0, 15, 2)));
+    }
+
+    @Test
+    void sameRankIsOrderedByDistance() {
+        ServiceRequestDispatchQueue queue = new ServiceRequestDispatchQueue(null);
+        queue.add(request(1, Priority.HIGH, NOW, 41.10, 29.0));
+        queue.add(request(2, Priority.HIGH, NOW, 41.01, 29.0));
+        queue.add(request(3, Priority.HIGH, NOW, 41.05, 29.0));
+
+        assertEquals(List.of(2, 3), ids(queue.nearby(41.0, 29.0, 15, 2)));
+    }
+
+    @Test
+    void removedRequestsLeaveTheQueue() {
+        ServiceRequestDispatchQueue queue = new ServiceRequestDispatchQueue(null);
+        queue.add(request(1, Priority.HIGH, NOW, 41.0, 29.0));
+        queue.add(request(2, Priority.LOW, NOW, 41.0, 29.0));
+
+        queue.remove(1);
+
+        assertEquals(1, queue.size());
+        assertEquals(List.of(2), ids(queue.nearby(41.0, 29.0, 15, 10)));
+    }
+
+    @Test
+    void nearbyMatchesFullSortAcrossCells() {
+        Random random = new Random(7);
+        ServiceRequestDispatchQueue queue = new ServiceRequestDispatchQueue(null);
+        List<ServiceRequest> all = fill(queue, random);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 40.6 + random.nextDouble() * 0.8;
+            double lon = 28.6 + random.nextDouble() * 0.8;
+            List<Integer> expected = all.stream()
+                    .filter(r -> GeoDistance.haversineKm(lat, lon, r.getLatitude(), r.getLongitude()) <= 15)
+                    .sorted(Comparator.comparing(ServiceRequest::getPriority, Comparator.reverseOrder())
+                            .thenComparing(ServiceRequest::getCreatedAt)
+                            .thenComparingDouble(r -> GeoDistance.haversineKm(lat, lon, r.getLatitude(), r.getLongitude()))
+                            .thenComparingInt(ServiceRequest::getId))
+                    .limit(25)
+                    .map(ServiceRequest::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(queue.nearby(lat, lon, 15, 25)));
+        }
+    }
+
+    // Karşılaştırma: her çağrıda tüm bekleyenleri filtreleyip sıralamak vs. sıralı hücre birleştirme
+    @Tag("benchmark")
+    @Test
+    void benchmarkNearbyAgainstFullSort() {
+        ServiceRequestDispatchQueue queue = new ServiceRequestDispatchQueue(null);
+        List<ServiceRequest> all = fill(queue, new Random(7));
+
+        int rounds = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            double lat = 40.6 + (i % 80) * 0.01;
+            all.stream()
+                    .filter(r -> GeoDistance.haversineKm(lat, 29.0, r.getLatitude(), r.getLongitude()) <= 15)
+                    .sorted(Comparator.comparing(ServiceRequest::getPriority, Comparator.reverseOrder())
+                            .thenComparing(ServiceRequest::getCreatedAt))
+                    .limit(25)
+                    .collect(Collectors.toList());
+        }
+        long scanNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            queue.nearby(40.6 + (i % 80) * 0.01, 29.0, 15, 25);
+        }
+        long queueNanos = System.nanoTime() - start;
+        log.info(String.format(Locale.ROOT, "Nearby top-25 of %d pending: full sort %.3f ms/query, "
+                        + "dispatch queue %.3f ms/query",
+                all.size(), scanNanos / 1e6 / rounds, queueNanos / 1e6 / rounds));
+    }
+
+    private static List<ServiceRequest> fill(ServiceRequestDispatchQueue queue, Random random) {
+        List<ServiceRequest> all = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            // Saniye hassasiyetinde zaman: aynı öncelik/yaşta çok sayıda eşitlik oluşur
+            ServiceRequest request = request(i, Priority.values()[random.nextInt(3)],
+                    NOW - 1000L * random.nextInt(600), 40.5 + random.nextDouble(), 28.5 + random.nextDouble());
+            all.add(request);
+            queue.add(request);
+        }
+        return all;
+    }
+
+    private static List<Integer> ids(List<ServiceRequest> requests) {
+        return requests.stream().map(ServiceRequest::getId).collect(Collectors.toList());
+    }
+
+    private static ServiceRequest request(int id, Priority priority, long createdAt, double latitude, double longitude) {
+        ServiceRequest request = new ServiceRequest();
+        request.setId(id);
+        request.setPriority(priority);
+        request.setCreatedAt(new Timestamp(createdAt));
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+        return request;
+    }
+}
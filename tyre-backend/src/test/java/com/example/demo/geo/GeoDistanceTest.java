@@ -0,0 +1,163 @@
+package com.example.demo.geo;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoDistanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoDistanceTest.class);
+
+    private static final int POINT_COUNT = 1_000_000;
+    private static final double RADIUS_KM = 15.0;
+
+    private static double[] latitudes;
+    private static double[] longitudes;
+
+    @BeforeAll
+    static void setUp() {
+        // Türkiye sınırları içinde rastgele 1M nokta
+        Random random = new Random(7);
+        latitudes = new double[POINT_COUNT];
+        longitudes = new double[POINT_COUNT];
+        for (int i = 0; i < POINT_COUNT; i++) {
+            latitudes[i] = 36.0 + random.nextDouble() * 6.0;
+            longitudes[i] = 26.0 + random.nextDouble() * 19.0;
+        }
+    }
+
+    @Test
+    void distanceMatchesReferenceHaversine() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = random.nextDouble() * 180.0 - 90.0;
+            double lon1 = random.nextDouble() * 360.0 - 180.0;
+            double lat2 = random.nextDouble() * 180.0 - 90.0;
+            double lon2 = random.nextDouble() * 360.0 - 180.0;
+            assertEquals(reference(lat1, lon1, lat2, lon2), GeoDistance.haversineKm(lat1, lon1, lat2, lon2), 1e-6);
+        }
+        assertEquals(0.0, GeoDistance.haversineKm(41.0, 29.0, 41.0, 29.0), 0.0);
+        assertEquals(Math.PI * GeoDistance.EARTH_RADIUS_KM, GeoDistance.haversineKm(0.0, 0.0, 0.0, 180.0), 1e-6);
+    }
+
+    @Test
+    void batchWithinMatchesScalarFilter() {
+        GeoDistance.Origin origin = GeoDistance.origin(41.0082, 28.9784);
+        GeoDistance.Radius radius = GeoDistance.radius(RADIUS_KM);
+        int[] hits = new int[POINT_COUNT];
+        double[] distances = new double[POINT_COUNT];
+
+        int found = origin.within(latitudes, longitudes, POINT_COUNT, radius, hits, distances);
+
+        int expected = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            double distance = reference(41.0082, 28.9784, latitudes[i], longitudes[i]);
+            // Sınırdaki yuvarlama farkları sayılmaz
+            if (Math.abs(distance - RADIUS_KM) < 1e-9) {
+                continue;
+            }
+            if (distance <= RADIUS_KM) {
+                assertEquals(i, hits[expected]);
+                assertEquals(distance, distances[expected], 1e-6);
+                expected++;
+            }
+        }
+        assertEquals(expected, found);
+        assertTrue(found > 0);
+    }
+
+    @Test
+    void latitudeBandKeepsPointsOnTheRadius() {
+        GeoDistance.Origin origin = GeoDistance.origin(41.0, 29.0);
+        // Aynı meridyende tam 15 km kuzey
+        double north = 41.0 + RADIUS_KM / GeoDistance.KM_PER_DEGREE;
+        assertTrue(origin.distanceWithinKm(north, 29.0, GeoDistance.radius(RADIUS_KM + 1e-9)) >= 0);
+        assertEquals(-1, origin.distanceWithinKm(north + 0.001, 29.0, GeoDistance.radius(RADIUS_KM)));
+        // Yarı çevreden büyük yarıçap her noktayı kapsar
+        assertTrue(origin.distanceWithinKm(-41.0, -151.0, GeoDistance.radius(30_000)) >= 0);
+    }
+
+    // JMH build'de yok; ısınma turlarından sonra basit süre ölçümü
+    @Tag("benchmark")
+    @Test
+    void benchmarkScalarVersusPrecomputedOriginVersusBatchPreCheck() {
+        double lat = 41.0082;
+        double lon = 28.9784;
+        GeoDistance.Origin origin = GeoDistance.origin(lat, lon);
+        GeoDistance.Radius radius = GeoDistance.radius(RADIUS_KM);
+        int[] hits = new int[POINT_COUNT];
+        double[] distances = new double[POINT_COUNT];
+
+        long scalarHits = 0;
+        long originHits = 0;
+        long batchHits = 0;
+        for (int i = 0; i < 3; i++) {
+            scalarHits = runScalar(lat, lon);
+            originHits = runOrigin(origin);
+            batchHits = origin.within(latitudes, longitudes, POINT_COUNT, radius, hits, distances);
+        }
+
+        int rounds = 5;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            scalarHits = runScalar(lat, lon);
+        }
+        long scalarNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            originHits = runOrigin(origin);
+        }
+        long originNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            batchHits = origin.within(latitudes, longitudes, POINT_COUNT, radius, hits, distances);
+        }
+        long batchNanos = System.nanoTime() - start;
+
+        assertEquals(scalarHits, originHits);
+        assertEquals(scalarHits, batchHits);
+        log.info(String.format(Locale.ROOT, "GeoDistance benchmark (%d points, r=%.0fkm): scalar %.2f ms, "
+                        + "precomputed origin %.2f ms, batch + latitude band %.2f ms",
+                POINT_COUNT, RADIUS_KM, scalarNanos / 1e6 / rounds, originNanos / 1e6 / rounds, batchNanos / 1e6 / rounds));
+    }
+
+    private static long runScalar(double lat, double lon) {
+        long hits = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            if (reference(lat, lon, latitudes[i], longitudes[i]) <= RADIUS_KM) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static long runOrigin(GeoDistance.Origin origin) {
+        long hits = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            if (origin.distanceKm(latitudes[i], longitudes[i]) <= RADIUS_KM) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    // Servislerdeki eski kopya: her aday için orijinin radyan/cos değerleri yeniden hesaplanır
+    private static double reference(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return GeoDistance.EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.geo;
+
+import com.example.demo.dto.ShopCluster;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShopClusterGridTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ShopClusterGridTest.class);
+
+    // Türkiye kutusu: batı, güney, doğu, kuzey
+    private static final double[] TURKEY = {26.0, 36.0, 45.0, 42.0};
+
+    @Test
+    void clustersAggregateCountCentroidPriceAndRating() {
+        ShopClusterGrid grid = new ShopClusterGrid(null, null, null);
+        grid.put(new ShopClusterGrid.ShopSummary(1, 41.00, 29.00, 300.0, 4.1));
+        grid.put(new ShopClusterGrid.ShopSummary(2, 41.02, 29.02, 250.0, null));
+        grid.put(new ShopClusterGrid.ShopSummary(3, 39.93, 32.86, null, 4.8));
+
+        List<ShopCluster> country = grid.clusters(TURKEY[1], TURKEY[0], TURKEY[3], TURKEY[2], 0);
+        assertEquals(1, country.size());
+        ShopCluster all = country.get(0);
+        assertEquals(3, all.getCount());
+        assertEquals((41.00 + 41.02 + 39.93) / 3, all.getLatitude(), 1e-9);
+        assertEquals(250.0, all.getMinPrice());
+        assertEquals(4.8, all.getBestRating());
+        assertNull(all.getShopId());
+
+        // Şehir seviyesinde İstanbul ve Ankara ayrı kümeler
+        List<ShopCluster> city = grid.clusters(TURKEY[1], TURKEY[0], TURKEY[3], TURKEY[2], 8);
+        assertEquals(2, city.size());
+        ShopCluster ankara = city.stream().filter(c -> c.getCount() == 1).findFirst().orElseThrow();
+        assertEquals(3, ankara.getShopId());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(3);
+        List<ShopClusterGrid.ShopSummary> shops = new ArrayList<>();
+        ShopClusterGrid incremental = new ShopClusterGrid(null, null, null);
+        for (int i = 0; i < 5_000; i++) {
+            ShopClusterGrid.ShopSummary shop = randomShop(random, i);
+            shops.add(shop);
+            incremental.put(shop);
+        }
+        // Taşı, fiyatını değiştir, sil
+        for (int i = 0; i < 1_000; i++) {
+            int id = random.nextInt(shops.size());
+            if (shops.get(id) == null) {
+                continue;
+            }
+            if (random.nextInt(4) == 0) {
+                shops.set(id, null);
+                incremental.remove(id);
+            } else {
+                ShopClusterGrid.ShopSummary moved = randomShop(random, id);
+                shops.set(id, moved);
+                incremental.put(moved);
+            }
+        }
+
+        ShopClusterGrid rebuilt = new ShopClusterGrid(null, null, null);
+        rebuilt.rebuild(shops.stream().filter(shop -> shop != null).collect(Collectors.toList()));
+
+        assertEquals(rebuilt.size(), incremental.size());
+        for (int zoom = 0; zoom <= 14; zoom += 2) {
+            assertEquals(snapshot(rebuilt, zoom), snapshot(incremental, zoom), "zoom " + zoom);
+        }
+    }
+
+    @Test
+    void countryViewSendsFewClustersForManyShops() {
+        ShopClusterGrid grid = gridOf(50_000);
+
+        List<ShopCluster> clusters = grid.clusters(TURKEY[1], TURKEY[0], TURKEY[3], TURKEY[2], 6);
+
+        assertEquals(50_000, clusters.stream().mapToInt(ShopCluster::getCount).sum());
+        assertTrue(clusters.size() < 500, "clusters: " + clusters.size());
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkCountryView() {
+        ShopClusterGrid grid = gridOf(50_000);
+        for (int i = 0; i < 100; i++) {
+            grid.clusters(TURKEY[1], TURKEY[0], TURKEY[3], TURKEY[2], 6);
+        }
+
+        long start = System.nanoTime();
+        List<ShopCluster> clusters = grid.clusters(TURKEY[1], TURKEY[0], TURKEY[3], TURKEY[2], 6);
+        long nanos = System.nanoTime() - start;
+
+        log.info(String.format(Locale.ROOT, "ShopClusterGrid: %d shops -> %d clusters at zoom 6 in %.3f ms",
+                grid.size(), clusters.size(), nanos / 1e6));
+    }
+
+    @Test
+    void bboxAcrossAntimeridianCoversBothSides() {
+        ShopClusterGrid grid = new ShopClusterGrid(null, null, null);
+        grid.put(new ShopClusterGrid.ShopSummary(1, -17.7, 178.4, null, null));
+        grid.put(new ShopClusterGrid.ShopSummary(2, -14.3, -170.7, null, null));
+        grid.put(new ShopClusterGrid.ShopSummary(3, 41.0, 29.0, null, null));
+
+        List<ShopCluster> clusters = grid.clusters(-20.0, 170.0, -10.0, -165.0, 6);
+        assertEquals(2, clusters.stream().mapToInt(ShopCluster::getCount).sum());
+    }
+
+    private static ShopClusterGrid gridOf(int shopCount) {
+        Random random = new Random(5);
+        List<ShopClusterGrid.ShopSummary> shops = new ArrayList<>();
+        for (int i = 0; i < shopCount; i++) {
+            shops.add(randomShop(random, i));
+        }
+        ShopClusterGrid grid = new ShopClusterGrid(null, null, null);
+        grid.rebuild(shops);
+        return grid;
+    }
+
+    private static ShopClusterGrid.ShopSummary randomShop(Random random, int id) {
+        Double price = random.nextInt(5) == 0 ? null : 100.0 + random.nextInt(900);
+        Double rating = random.nextInt(5) == 0 ? null : 1.0 + random.nextInt(40) / 10.0;
+        return new ShopClusterGrid.ShopSummary(id, 36.0 + random.nextDouble() * 6.0,
+                26.0 + random.nextDouble() * 19.0, price, rating);
+    }
+
+    // Toplama sırası farklı olabileceği için koordinatlar yuvarlanarak karşılaştırılır
+    private static List<String> snapshot(ShopClusterGrid grid, int zoom) {
+        return grid.clusters(-90, -180, 90, 180, zoom).stream()
+                .map(c -> String.format("%.6f,%.6f,%d,%s,%s", c.getLatitude(), c.getLongitude(), c.getCount(),
+                        c.getMinPrice(), c.getBestRating()))
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.demo.geo;
+
+import com.example.demo.availability.WeeklyHours;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TireShopGeoIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TireShopGeoIndexTest.class);
+
+    private static final int SHOP_COUNT = 100_000;
+    private static final int QUERY_COUNT = 500;
+
+    private static double[] latitudes;
+    private static double[] longitudes;
+    private static TireShopGeoIndex index;
+
+    @BeforeAll
+    static void setUp() {
+        // Türkiye sınırları içinde rastgele 100k dükkan
+        Random random = new Random(42);
+        latitudes = new double[SHOP_COUNT];
+        longitudes = new double[SHOP_COUNT];
+        index = new TireShopGeoIndex(null);
+        for (int i = 0; i < SHOP_COUNT; i++) {
+            latitudes[i] = 36.0 + random.nextDouble() * 6.0;
+            longitudes[i] = 26.0 + random.nextDouble() * 19.0;
+            index.put(i, latitudes[i], longitudes[i]);
+        }
+    }
+
+    @Test
+    void radiusQueryMatchesFullScan() {
+        Random random = new Random(7);
+        for (int q = 0; q < 200; q++) {
+            double lat = 36.0 + random.nextDouble() * 6.0;
+            double lon = 26.0 + random.nextDouble() * 19.0;
+            double radius = 1.0 + random.nextDouble() * 30.0;
+
+            List<Integer> expected = scan(lat, lon, radius);
+            List<Integer> actual = index.findWithin(lat, lon, radius).stream()
+                    .map(TireShopGeoIndex.Hit::shopId)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void nearestMatchesSortedScan() {
+        Random random = new Random(3);
+        for (int q = 0; q < 50; q++) {
+            double lat = 36.0 + random.nextDouble() * 6.0;
+            double lon = 26.0 + random.nextDouble() * 19.0;
+            int k = 1 + random.nextInt(50);
+
+            List<Double> expected = new ArrayList<>();
+            for (int i = 0; i < SHOP_COUNT; i++) {
+                expected.add(GeoDistance.haversineKm(lat, lon, latitudes[i], longitudes[i]));
+            }
+            expected.sort(null);
+
+            List<TireShopGeoIndex.Hit> actual = index.findNearest(lat, lon, k, 500.0);
+            assertEquals(k, actual.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(expected.get(i), actual.get(i).distanceKm(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void nearestStopsAtMaxRadius() {
+        TireShopGeoIndex sparse = new TireShopGeoIndex(null);
+        sparse.put(1, 41.0, 29.0);
+        sparse.put(2, 39.9, 32.8);
+        assertEquals(1, sparse.findNearest(41.0, 29.0, 10, 100.0).size());
+        assertEquals(2, sparse.findNearest(41.0, 29.0, 10, 1000.0).size());
+    }
+
+    @Test
+    void removeAndMoveKeepCellsInSync() {
+        TireShopGeoIndex small = new TireShopGeoIndex(null);
+        small.put(1, 41.0082, 28.9784);
+        assertEquals(1, small.findWithin(41.0, 28.97, 5).size());
+
+        small.put(1, 39.9334, 32.8597);
+        assertTrue(small.findWithin(41.0, 28.97, 5).isEmpty());
+        assertEquals(1, small.findWithin(39.93, 32.86, 5).size());
+
+        small.remove(1);
+        assertTrue(small.findWithin(39.93, 32.86, 5).isEmpty());
+        assertEquals(0, small.size());
+    }
+
+    @Test
+    void openAtFilterSkipsClosedShops() {
+        TireShopGeoIndex small = new TireShopGeoIndex(null);
+        small.put(1, 41.0082, 28.9784, WeeklyHours.parse("09:00", "18:00"));
+        small.put(2, 41.0090, 28.9790, WeeklyHours.parse("20:00", "02:00"));
+        small.put(3, 41.0100, 28.9800, WeeklyHours.parse("00:00", "00:00"));
+
+        int wednesdayNoon = WeeklyHours.minuteOfWeek(LocalDateTime.of(2025, 1, 1, 12, 0));
+        int thursdayOneAm = WeeklyHours.minuteOfWeek(LocalDateTime.of(2025, 1, 2, 1, 0));
+        assertEquals(List.of(1, 3), shopIds(small.findWithin(41.0, 28.97, 5, wednesdayNoon)));
+        assertEquals(List.of(2, 3), shopIds(small.findWithin(41.0, 28.97, 5, thursdayOneAm)));
+        assertEquals(3, small.findWithin(41.0, 28.97, 5).size());
+
+        // En yakın (1) kapalıyken k=1 bir sonraki açık dükkanı verir
+        assertEquals(List.of(2), shopIds(small.findNearest(41.0082, 28.9784, 1, 5, thursdayOneAm)));
+        assertEquals(List.of(1), shopIds(small.findNearest(41.0082, 28.9784, 1, 5, wednesdayNoon)));
+        assertEquals(List.of(1, 3), shopIds(small.findNearest(41.0082, 28.9784, 5, 5, wednesdayNoon)));
+    }
+
+    private static List<Integer> shopIds(List<TireShopGeoIndex.Hit> hits) {
+        return hits.stream().map(TireShopGeoIndex.Hit::shopId).sorted().collect(Collectors.toList());
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkAgainstFullScan() {
+        Random random = new Random(11);
+        double[][] queries = new double[QUERY_COUNT][];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            queries[q] = new double[]{36.0 + random.nextDouble() * 6.0, 26.0 + random.nextDouble() * 19.0};
+        }
+
+        // JIT ısınması
+        for (int i = 0; i < 3; i++) {
+            runScan(queries);
+            runIndex(queries);
+        }
+
+        long scanStart = System.nanoTime();
+        long scanHits = runScan(queries);
+        long scanNanos = System.nanoTime() - scanStart;
+
+        long indexStart = System.nanoTime();
+        long indexHits = runIndex(queries);
+        long indexNanos = System.nanoTime() - indexStart;
+
+        assertEquals(scanHits, indexHits);
+        log.info(String.format(Locale.ROOT, "GeoIndex benchmark (%d shops, %d queries, r=10km): "
+                        + "scan %.3f ms/query, index %.3f ms/query",
+                SHOP_COUNT, QUERY_COUNT, scanNanos / 1e6 / QUERY_COUNT, indexNanos / 1e6 / QUERY_COUNT));
+    }
+
+    private static long runScan(double[][] queries) {
+        long hits = 0;
+        for (double[] query : queries) {
+            hits += scan(query[0], query[1], 10.0).size();
+        }
+        return hits;
+    }
+
+    private static long runIndex(double[][] queries) {
+        long hits = 0;
+        for (double[] query : queries) {
+            hits += index.findWithin(query[0], query[1], 10.0).size();
+        }
+        return hits;
+    }
+
+    // Mevcut davranış: her dükkan için haversine
+    private static List<Integer> scan(double lat, double lon, double radiusKm) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < SHOP_COUNT; i++) {
+            if (GeoDistance.haversineKm(lat, lon, latitudes[i], longitudes[i]) <= radiusKm) {
+                ids.add(i);
+            }
+        }
+        return ids;
+    }
+}
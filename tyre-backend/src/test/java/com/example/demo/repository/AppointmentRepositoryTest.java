@@ -0,0 +1,187 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.entity.Appointment;
+import com.example.demo.entity.AppointmentStatus;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireShopService;
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserRole;
+import com.example.demo.entity.UserVehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class AppointmentRepositoryTest {
+
+    private static final int APPOINTMENT_COUNT = 25;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TireShop shop;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        UserRole role = new UserRole();
+        role.setRoleName("USER");
+        entityManager.persist(role);
+
+        shop = new TireShop();
+        shop.setShopName("Test Lastik");
+        shop.setEmail("shop@example.com");
+        shop.setAddress("Kadıköy");
+        entityManager.persist(shop);
+
+        // Her randevu farklı müşteri/araç/hizmet: entity yolunda her biri ayrı select demektir
+        for (int i = 0; i < APPOINTMENT_COUNT; i++) {
+            user = new User();
+            user.setName("Müşteri " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("secret");
+            user.setPhone("555000" + i);
+            user.setUserRole(role);
+            entityManager.persist(user);
+
+            TireShopService service = new TireShopService();
+            service.setServiceName("Balans " + i);
+            service.setPrice(100 + i);
+            service.setTireShop(shop);
+            entityManager.persist(service);
+
+            UserVehicle vehicle = new UserVehicle();
+            vehicle.setBrand("Fiat");
+            vehicle.setModel("Egea");
+            vehicle.setLicensePlate("34 ABC " + i);
+            vehicle.setUser(user);
+            entityManager.persist(vehicle);
+
+            Appointment appointment = new Appointment();
+            appointment.setTireShop(shop);
+            appointment.setUser(user);
+            appointment.setService(service);
+            appointment.setVehicle(i % 5 == 0 ? null : vehicle);
+            appointment.setStatus(i % 2 == 0 ? AppointmentStatus.PENDING : AppointmentStatus.COMPLETED);
+            appointment.setAppointmentDate(LocalDateTime.of(2025, 1, 1, 9, 0).plusDays(i));
+            entityManager.persist(appointment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shopListingIsASingleQuery() {
+        Statistics statistics = statistics();
+
+        List<AppointmentResponse> responses = appointmentRepository.findResponsesByShopId(shop.getId());
+
+        assertEquals(APPOINTMENT_COUNT, responses.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void userAndAllListingsAreSingleQueries() {
+        Statistics statistics = statistics();
+
+        assertEquals(1, appointmentRepository.findResponsesByUserId(user.getId()).size());
+        assertEquals(APPOINTMENT_COUNT, appointmentRepository.findAllResponses().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void projectionFillsNestedServiceAndVehicleFields() {
+        AppointmentResponse response = appointmentRepository.findResponsesByShopId(shop.getId()).stream()
+                .filter(r -> "2025-01-02".equals(r.getDate()))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals("09:00", response.getTime());
+        assertEquals("Test Lastik", response.getShopName());
+        assertEquals("Balans 1", response.getService().getServiceName());
+        assertEquals(101.0, response.getService().getPrice());
+        assertEquals("Fiat Egea (34 ABC 1)", response.getVehicle());
+        assertEquals("Müşteri 1", response.getCustomerName());
+
+        AppointmentResponse withoutVehicle = appointmentRepository.findResponsesByShopId(shop.getId()).stream()
+                .filter(r -> "2025-01-01".equals(r.getDate()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Araç bilgisi mevcut değil", withoutVehicle.getVehicle());
+    }
+
+    @Test
+    void keysetPagesWalkNewestFirstWithoutGapsOrDuplicates() {
+        List<AppointmentResponse> seen = new ArrayList<>();
+        LocalDateTime cursorDate = LocalDateTime.of(9999, 1, 1, 0, 0);
+        int cursorId = 0;
+        int pageSize = 7;
+        while (true) {
+            List<AppointmentResponse> page = appointmentRepository.findResponsePageByShopId(shop.getId(),
+                    LocalDateTime.of(1000, 1, 1, 0, 0), cursorDate, cursorId, null, PageRequest.of(0, pageSize));
+            seen.addAll(page);
+            if (page.size() < pageSize) {
+                break;
+            }
+            AppointmentResponse last = page.get(page.size() - 1);
+            cursorDate = last.getAppointmentDate();
+            cursorId = last.getId();
+        }
+
+        assertEquals(APPOINTMENT_COUNT, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getAppointmentDate().isAfter(seen.get(i).getAppointmentDate()));
+        }
+    }
+
+    @Test
+    void pageFiltersByDateRangeAndStatus() {
+        // 2025-01-03 .. 2025-01-10 (dahil) arası 8 gün, yarısı COMPLETED
+        List<AppointmentResponse> page = appointmentRepository.findResponsePageByShopId(shop.getId(),
+                LocalDateTime.of(2025, 1, 3, 0, 0), LocalDateTime.of(2025, 1, 11, 0, 0), 0,
+                AppointmentStatus.COMPLETED, PageRequest.of(0, 50));
+
+        assertEquals(4, page.size());
+        assertTrue(page.stream().allMatch(r -> r.getStatus() == AppointmentStatus.COMPLETED));
+        assertEquals("2025-01-10", page.get(0).getDate());
+    }
+
+    @Test
+    void compositeIndexesAreCreatedForKeysetScans() {
+        List<?> columns = entityManager.getEntityManager().createNativeQuery(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                        + "WHERE INDEX_NAME = 'IDX_APPOINTMENTS_SHOP_DATE' ORDER BY ORDINAL_POSITION")
+                .getResultList();
+
+        assertEquals(List.of("SHOP_ID", "APPOINTMENT_DATE"), columns);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RequestStatus;
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.entity.TireShop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ServiceRequestRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    private TireShop first;
+    private TireShop second;
+    private ServiceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        first = shop("first@example.com");
+        second = shop("second@example.com");
+        request = new ServiceRequest();
+        request.setTitle("Lastik patladı");
+        request.setLatitude(41.0);
+        request.setLongitude(29.0);
+        entityManager.persist(request);
+        entityManager.flush();
+    }
+
+    @Test
+    void onlyFirstAcceptWinsAndRecordsShop() {
+        assertEquals(1, serviceRequestRepository.transition(request.getId(), RequestStatus.PENDING, RequestStatus.ACCEPTED, first));
+        assertEquals(0, serviceRequestRepository.transition(request.getId(), RequestStatus.PENDING, RequestStatus.ACCEPTED, second));
+
+        ServiceRequest stored = serviceRequestRepository.findById(request.getId()).orElseThrow();
+        assertEquals(RequestStatus.ACCEPTED, stored.getStatus());
+        assertEquals(first.getId(), stored.getTireShop().getId());
+    }
+
+    @Test
+    void onlyAcceptingShopCanComplete() {
+        serviceRequestRepository.transition(request.getId(), RequestStatus.PENDING, RequestStatus.ACCEPTED, first);
+
+        assertEquals(0, serviceRequestRepository.transitionOwned(request.getId(), RequestStatus.ACCEPTED, RequestStatus.COMPLETED, second));
+        assertEquals(1, serviceRequestRepository.transitionOwned(request.getId(), RequestStatus.ACCEPTED, RequestStatus.COMPLETED, first));
+        assertEquals(0, serviceRequestRepository.transitionOwned(request.getId(), RequestStatus.ACCEPTED, RequestStatus.COMPLETED, first));
+        assertEquals(RequestStatus.COMPLETED, serviceRequestRepository.findById(request.getId()).orElseThrow().getStatus());
+    }
+
+    private TireShop shop(String email) {
+        TireShop shop = new TireShop();
+        shop.setShopName(email);
+        shop.setEmail(email);
+        return entityManager.persist(shop);
+    }
+}
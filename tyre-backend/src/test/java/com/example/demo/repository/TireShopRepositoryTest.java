@@ -0,0 +1,215 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ShopCluster;
+import com.example.demo.dto.TireShopDetail;
+import com.example.demo.dto.TireShopSummary;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireShopService;
+import com.example.demo.entity.TireStock;
+import com.example.demo.geo.ShopClusterGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TireShopRepositoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TireShopRepositoryTest.class);
+
+    private static final int SHOP_COUNT = 5_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TireShopRepository tireShopRepository;
+
+    @Autowired
+    private TireShopServiceRepository tireShopServiceRepository;
+
+    @Autowired
+    private TireStockRepository tireStockRepository;
+
+    @Autowired
+    private ShopRatingRepository shopRatingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private int firstShopId;
+
+    @BeforeEach
+    void setUp() {
+        Tire tire = new Tire();
+        tire.setBrand("Michelin");
+        tire.setModel("Primacy 4");
+        tire.setPrice(3200.0);
+        entityManager.persist(tire);
+
+        for (int i = 0; i < SHOP_COUNT; i++) {
+            TireShop shop = new TireShop();
+            shop.setShopName("Lastik " + i);
+            shop.setEmail("shop" + i + "@example.com");
+            shop.setPassword("$2a$10$hashedpasswordhashedpasswordhashedpasswordhashe");
+            shop.setPhone("0212 000 " + i);
+            shop.setAddress("Adres " + i);
+            shop.setLatitude(36.0 + (i % 600) / 100.0);
+            shop.setLongitude(26.0 + (i / 600) / 2.0);
+            shop.setOpeningHour("09:00");
+            shop.setClosingHour("18:00");
+            entityManager.persist(shop);
+            if (i == 0) {
+                firstShopId = shop.getId();
+            }
+
+            for (int s = 0; s < 2; s++) {
+                TireShopService service = new TireShopService();
+                service.setServiceName(s == 0 ? "Balans" : "Rot Ayarı");
+                service.setPrice(150.0 + s * 100);
+                service.setDurationMinutes(30);
+                service.setTireShop(shop);
+                entityManager.persist(service);
+            }
+
+            TireStock stock = new TireStock();
+            stock.setTire(tire);
+            stock.setTireShop(shop);
+            stock.setStockQuantity(4 + i % 10);
+            entityManager.persist(stock);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void summaryListingIsASingleQueryWithoutEntities() {
+        Statistics statistics = statistics();
+
+        List<TireShopSummary> summaries = tireShopRepository.findAllSummaries();
+
+        assertEquals(SHOP_COUNT, summaries.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void detailLoadsCollectionsOnlyWhenExpanded() throws Exception {
+        TireShopDetail detail = tireShopRepository.findDetailById(firstShopId).orElseThrow();
+        assertEquals("Lastik 0", detail.getShopName());
+        assertNull(detail.getLocationId());
+        assertNull(detail.getServices());
+        assertFalse(objectMapper.writeValueAsString(detail).contains("services"));
+
+        List<TireShopDetail.ServiceDto> services = tireShopServiceRepository.findDtosByShopId(firstShopId);
+        List<TireShopDetail.StockDto> stocks = tireStockRepository.findDtosByShopId(firstShopId);
+        assertEquals(List.of("Balans", "Rot Ayarı"),
+                services.stream().map(TireShopDetail.ServiceDto::getServiceName).toList());
+        assertEquals(1, stocks.size());
+        assertEquals("Michelin", stocks.get(0).getBrand());
+        assertEquals(4, stocks.get(0).getStockQuantity());
+    }
+
+    @Test
+    void summariesInBoxFilterByCoordinates() {
+        List<TireShopSummary> box = tireShopRepository.findSummariesInBox(36.0, 36.05, 26.0, 26.0);
+        // 36.00..36.05 arası 6 farklı enlem, 26.0 boylamında (i < 600)
+        assertEquals(6, box.size());
+    }
+
+    // JMH build'de yok; entity grafiği ile özet DTO'nun JSON boyutu, SQL sayısı ve süresi karşılaştırılır
+    // Grid ısınmadan gelen küme isteği veritabanından aynı kümeleri üretir
+    @Test
+    void clustersFromDatabaseMatchWarmedGrid() {
+        ShopClusterGrid warmed = new ShopClusterGrid(tireShopRepository, tireShopServiceRepository, shopRatingRepository);
+        warmed.warmUp();
+        ShopClusterGrid cold = new ShopClusterGrid(tireShopRepository, tireShopServiceRepository, shopRatingRepository);
+
+        for (int zoom : new int[]{0, 4, 6, 8}) {
+            assertEquals(clusterKeys(warmed.clusters(36.0, 26.0, 42.0, 45.0, zoom)),
+                    clusterKeys(cold.clustersFromDatabase(36.0, 26.0, 42.0, 45.0, zoom)), "zoom " + zoom);
+        }
+        assertFalse(cold.isReady());
+    }
+
+    private static List<String> clusterKeys(List<ShopCluster> clusters) {
+        return clusters.stream()
+                .map(c -> String.format(Locale.ROOT, "%d %.6f %.6f %s %s %s", c.getCount(), c.getLatitude(),
+                        c.getLongitude(), c.getMinPrice(), c.getBestRating(), c.getShopId()))
+                .sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    void summaryListingIsSmallerThanEntityGraph() throws Exception {
+        Listings listings = listBoth();
+
+        String summary = new String(listings.summaryJson());
+        assertFalse(summary.contains("password"));
+        assertFalse(summary.contains("tireStocks"));
+        assertEquals(1, listings.summaryStatements());
+        assertTrue(listings.entityStatements() > SHOP_COUNT, "entity statements: " + listings.entityStatements());
+        assertTrue(listings.summaryJson().length * 2 < listings.entityJson().length,
+                "summary " + listings.summaryJson().length + " bytes, entities " + listings.entityJson().length + " bytes");
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkEntityGraphVersusSummaryProjection() throws Exception {
+        Listings listings = listBoth();
+        log.info(String.format(Locale.ROOT, "TireShop list (%d shops): entities %d KB / %d statements / %.1f ms, "
+                        + "summaries %d KB / %d statement / %.1f ms",
+                SHOP_COUNT, listings.entityJson().length / 1024, listings.entityStatements(),
+                listings.entityNanos() / 1e6, listings.summaryJson().length / 1024, listings.summaryStatements(),
+                listings.summaryNanos() / 1e6));
+    }
+
+    private record Listings(byte[] entityJson, long entityStatements, long entityNanos, byte[] summaryJson,
+                            long summaryStatements, long summaryNanos) {
+    }
+
+    private Listings listBoth() throws Exception {
+        Statistics statistics = statistics();
+        long start = System.nanoTime();
+        // Controller'ın eski hali: findAll + Jackson her dükkanın services/tireStocks koleksiyonunu gezer
+        byte[] entityJson = objectMapper.writeValueAsBytes(tireShopRepository.findAll());
+        long entityNanos = System.nanoTime() - start;
+        long entityStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        statistics.clear();
+        start = System.nanoTime();
+        byte[] summaryJson = objectMapper.writeValueAsBytes(tireShopRepository.findAllSummaries());
+        long summaryNanos = System.nanoTime() - start;
+        return new Listings(entityJson, entityStatements, entityNanos, summaryJson,
+                statistics.getPrepareStatementCount(), summaryNanos);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.repository;
+
+import com.example.demo.catalog.TireSizeBackfill;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireSize;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TireSizeRepositoryTest {
+
+    private static final String[] SIZES = {"195/65R15 91H", "205/55R16 91V", "215/55R16 97W", "225/45R17 94W",
+            "225/40R18 92Y", "235/35R19 91Y", "185/60R14 82T", "205/60R16 92H", "bilinmeyen"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TireSizeRepository tireSizeRepository;
+
+    @Autowired
+    private TireRepository tireRepository;
+
+    @Autowired
+    private UserTireRepository userTireRepository;
+
+    @Autowired
+    private UserVehicleRepository userVehicleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        for (String value : SIZES) {
+            TireSize size = new TireSize();
+            size.setSize(value);
+            entityManager.persist(size);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void sizesAreParsedOnWrite() {
+        TireSize size = tireSizeRepository.findBySize("225/40R18 92Y").orElseThrow();
+        assertEquals(225, size.getWidth());
+        assertEquals(40, size.getAspectRatio());
+        assertEquals("R", size.getConstruction());
+        assertEquals(18, size.getRimDiameter());
+        assertEquals(92, size.getLoadIndex());
+        assertEquals("Y", size.getSpeedRating());
+        assertNull(tireSizeRepository.findBySize("bilinmeyen").orElseThrow().getWidth());
+    }
+
+    @Test
+    void rangeQueryUsesNumericColumns() {
+        // 16 inç, 195-215 genişlik
+        assertEquals(List.of("205/55R16 91V", "205/60R16 92H", "215/55R16 97W"),
+                sizes(tireSizeRepository.findInRange(16, 16, 195, 215, 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void overallDiameterFindsPlusSizes() {
+        // 205/55R16 ~632 mm; %3 içinde ve 16-18 inç jantta
+        assertEquals(List.of("205/55R16 91V", "215/55R16 97W", "225/40R18 92Y", "225/45R17 94W"),
+                sizes(tireSizeRepository.findByOverallDiameterInRange(632 - 18, 632 + 18, 16, 18)).stream()
+                        .sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void backfillParsesLegacyRowsInChunks() {
+        // Unique kısıt öncesinden kalan mükerrer yazım ve ona bağlı bir lastik
+        TireSize duplicate = new TireSize();
+        duplicate.setSize("gecici");
+        entityManager.persist(duplicate);
+        Tire tire = new Tire();
+        tire.setBrand("Lassa");
+        tire.setTireSize(duplicate);
+        entityManager.persist(tire);
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("UPDATE TireSize s SET s.size = '205/55 r16 91v' "
+                + "WHERE s.size = 'gecici'").executeUpdate();
+
+        // Kolonlar eklenmeden önce kaydedilmiş satırlar: toplu UPDATE entity callback'lerini çalıştırmaz
+        entityManager.getEntityManager().createQuery("UPDATE TireSize s SET s.normalizedSize = NULL, s.width = NULL, "
+                + "s.aspectRatio = NULL, s.construction = NULL, s.rimDiameter = NULL, s.loadIndex = NULL, "
+                + "s.speedRating = NULL, s.overallDiameterMm = NULL").executeUpdate();
+        entityManager.clear();
+        assertEquals(0, tireSizeRepository.findInRange(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0,
+                Integer.MAX_VALUE).size());
+
+        TireSizeBackfill backfill = new TireSizeBackfill(tireSizeRepository, tireRepository, userTireRepository,
+                userVehicleRepository, transactionManager, 3, false);
+        int parsed = backfill.backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(SIZES.length - 1, parsed);
+        assertEquals(SIZES.length - 1, tireSizeRepository.findInRange(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0,
+                Integer.MAX_VALUE).size());
+        // Mükerrer satır açılışta silinmez, anahtarsız kalır
+        assertEquals(SIZES.length + 1, tireSizeRepository.count());
+        assertEquals(duplicate.getId(), tireRepository.findById(tire.getId()).orElseThrow().getTireSize().getId());
+
+        // Birleştirme ayrı, açıkça çağrılan adım
+        assertEquals(1, backfill.mergeDuplicates());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(SIZES.length, tireSizeRepository.count());
+        TireSize kept = tireSizeRepository.findByNormalizedSize("205/55R16 91V").orElseThrow();
+        assertEquals("205/55R16 91V", kept.getSize());
+        assertEquals(kept.getId(), tireRepository.findById(tire.getId()).orElseThrow().getTireSize().getId());
+    }
+
+    // Hafif ticari / LT / çift yük endeksli ebat binek ebadıyla aynı anahtara düşmemeli
+    @Test
+    void commercialAndLightTruckSizesKeepTheirOwnRows() {
+        for (String value : new String[]{"215/65R16C 109/107T", "215/65R16 109T", "LT235/85R16 120/116Q",
+                "235/85R16 120Q", "225/40ZR18 92Y XL", "225/40ZR18 92Y"}) {
+            TireSize size = new TireSize();
+            size.setSize(value);
+            entityManager.persist(size);
+        }
+        entityManager.flush();
+
+        assertEquals("215/65R16C 109/107T",
+                tireSizeRepository.findByNormalizedSize("215/65R16C 109/107T").orElseThrow().getSize());
+        assertEquals("215/65R16 109T", tireSizeRepository.findByNormalizedSize("215/65R16 109T").orElseThrow().getSize());
+        assertEquals("LT235/85R16 120/116Q",
+                tireSizeRepository.findByNormalizedSize("LT235/85R16 120/116Q").orElseThrow().getSize());
+        assertEquals("225/40ZR18 92Y XL",
+                tireSizeRepository.findByNormalizedSize("225/40ZR18 92Y XL").orElseThrow().getSize());
+    }
+
+    @Test
+    void normalizedSizeIsUnique() {
+        TireSize sameSize = new TireSize();
+        sameSize.setSize("205/55 r 16 91v");
+
+        // IDENTITY anahtarı yüzünden INSERT persist anında çalışır
+        assertThrows(PersistenceException.class, () -> entityManager.persist(sameSize));
+    }
+
+    @Test
+    void compositeIndexIsCreatedForRangeScans() {
+        List<?> columns = entityManager.getEntityManager().createNativeQuery(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                        + "WHERE INDEX_NAME = 'IDX_TIRESIZES_RIM_WIDTH_ASPECT' ORDER BY ORDINAL_POSITION")
+                .getResultList();
+
+        assertEquals(List.of("RIM_DIAMETER", "WIDTH", "ASPECT_RATIO"), columns);
+    }
+
+    private static List<String> sizes(List<TireSize> result) {
+        return result.stream().map(TireSize::getSize).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.repository;
+
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireSize;
+import com.example.demo.entity.TireStock;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TireStockRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TireStockRepository tireStockRepository;
+
+    private Statistics statistics;
+    private int kadikoy;
+    private int besiktas;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        TireSize common = size("205/55R16 91V");
+        TireSize other = size("225/45R17 94W");
+        Tire primacy = tire("Michelin", "Primacy 4", common);
+        Tire turanza = tire("Bridgestone", "Turanza T005", common);
+        Tire sport = tire("Michelin", "Pilot Sport 5", other);
+
+        TireShop first = shop("Kadıköy", 40.99, 29.03);
+        TireShop second = shop("Beşiktaş", 41.04, 29.00);
+        TireShop farAway = shop("Ankara", 39.93, 32.86);
+        kadikoy = first.getId();
+        besiktas = second.getId();
+
+        stock(first, primacy, 2);
+        stock(first, turanza, 3);
+        stock(first, sport, 10);
+        stock(second, primacy, 1);
+        stock(farAway, turanza, 20);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void boxQuerySumsQuantitiesPerShopInOneStatement() {
+        statistics.clear();
+        Map<Integer, Integer> found = quantities(tireStockRepository.findShopQuantitiesInBox("205/55R16 91V", 1,
+                40.5, 41.5, 28.5, 29.5));
+
+        assertEquals(Map.of(kadikoy, 5, besiktas, 1), found);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Map.of(kadikoy, 5), quantities(tireStockRepository.findShopQuantitiesInBox("205/55R16 91V",
+                4, 40.5, 41.5, 28.5, 29.5)));
+    }
+
+    @Test
+    void indexBuiltFromRowsAgreesWithDatabase() {
+        TireStockIndex index = new TireStockIndex(tireStockRepository);
+        index.warmUp();
+
+        Map<Integer, Integer> inBox = quantities(tireStockRepository.findShopQuantitiesInBox("205/55R16 91V", 1,
+                40.5, 41.5, 28.5, 29.5));
+        Map<Integer, Integer> indexed = index.shopsWithSize("205/55R16 91V", 1);
+        indexed.keySet().retainAll(inBox.keySet());
+        assertEquals(inBox, indexed);
+        assertEquals(3, index.shopsWithSize("205/55r16 91v", 1).size());
+        assertEquals(Map.of(kadikoy, 10), index.shopsWithSize("225/45R17 94W", 1));
+    }
+
+    // Tek satır okuması da (stockId, shopId, tireId, ebat, adet) döner; refresh satırı transaction içinde çözer
+    @Test
+    void singleIndexRowHasSameShapeAsWarmUpRows() {
+        TireStock stock = tireStockRepository.findByTireShopId(besiktas).get(0);
+
+        List<Object[]> rows = tireStockRepository.findIndexRowsById(stock.getId());
+        assertEquals(1, rows.size());
+        assertEquals(stock.getId(), rows.get(0)[0]);
+        assertEquals(besiktas, rows.get(0)[1]);
+        assertEquals("205/55R16 91V", rows.get(0)[3]);
+        assertEquals(1, rows.get(0)[4]);
+        new TireStockIndex(tireStockRepository).refresh(stock.getId());
+        assertEquals(0, tireStockRepository.findIndexRowsById(-1).size());
+    }
+
+    // Sayım okunduktan sonra bir rezervasyon adedi düşürdüyse eski okumaya dayalı yazım uygulanmaz
+    @Test
+    void countUpdateIsRejectedWhenQuantityChangedSinceRead() {
+        TireStock stock = tireStockRepository.findByTireShopId(besiktas).get(0);
+        int read = stock.getStockQuantity();
+        assertEquals(1, tireStockRepository.decrementIfAvailable(stock.getId(), 1));
+
+        assertEquals(0, tireStockRepository.updateIfQuantityUnchanged(stock.getId(), read, stock.getTire(),
+                stock.getTireShop(), 7));
+        assertEquals(read - 1, tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity());
+        assertEquals(1, tireStockRepository.updateIfQuantityUnchanged(stock.getId(), read - 1, stock.getTire(),
+                stock.getTireShop(), 7));
+        assertEquals(7, tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private static Map<Integer, Integer> quantities(List<Object[]> rows) {
+        Map<Integer, Integer> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put((Integer) row[0], ((Number) row[1]).intValue());
+        }
+        return result;
+    }
+
+    private TireSize size(String value) {
+        TireSize size = new TireSize();
+        size.setSize(value);
+        return entityManager.persist(size);
+    }
+
+    private Tire tire(String brand, String model, TireSize size) {
+        Tire tire = new Tire();
+        tire.setBrand(brand);
+        tire.setModel(model);
+        tire.setPrice(3000);
+        tire.setTireSize(size);
+        return entityManager.persist(tire);
+    }
+
+    private TireShop shop(String name, double latitude, double longitude) {
+        TireShop shop = new TireShop();
+        shop.setShopName("Lastik " + name);
+        shop.setEmail(name.toLowerCase() + "@example.com");
+        shop.setPassword("$2a$10$hashedpasswordhashedpasswordhashedpasswordhashe");
+        shop.setPhone("0212 000 00 00");
+        shop.setAddress(name);
+        shop.setLatitude(latitude);
+        shop.setLongitude(longitude);
+        shop.setOpeningHour("09:00");
+        shop.setClosingHour("18:00");
+        return entityManager.persist(shop);
+    }
+
+    private void stock(TireShop shop, Tire tire, int quantity) {
+        TireStock stock = new TireStock();
+        stock.setTireShop(shop);
+        stock.setTire(tire);
+        stock.setStockQuantity(quantity);
+        entityManager.persist(stock);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtUtilTest.class);
+
+    private final JwtUtil jwtUtil = new JwtUtil(new JwtKeyRing(null));
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = jwtUtil.generateToken("shop@example.com", 7, "SHOP");
+
+        Claims first = jwtUtil.extractClaims(token);
+        Claims second = jwtUtil.extractClaims(token);
+
+        assertSame(first, second);
+        assertEquals("shop@example.com", first.getSubject());
+        assertEquals(7, first.get("userId", Integer.class));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        String token = jwtUtil.generateToken("user@example.com", 1, "USER");
+        assertTrue(jwtUtil.isTokenValid(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(tampered));
+        assertFalse(jwtUtil.isTokenValid(tampered));
+    }
+
+    @Test
+    void tokenFromAnotherKeyIsRejected() {
+        String foreign = new JwtUtil(new JwtKeyRing(null)).generateToken("user@example.com", 1, "USER");
+        assertFalse(jwtUtil.isTokenValid(foreign));
+    }
+
+    @Test
+    void nodesSharingKeyRingAcceptEachOthersTokensAcrossRotation(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys.properties");
+        String oldKey = randomKey();
+        String newKey = randomKey();
+        Files.writeString(file, "active=k1\nkey.k1=" + oldKey + "\n");
+
+        JwtKeyRing ringA = new JwtKeyRing(file.toString());
+        JwtKeyRing ringB = new JwtKeyRing(file.toString());
+        JwtUtil nodeA = new JwtUtil(ringA);
+        JwtUtil nodeB = new JwtUtil(ringB);
+
+        String oldToken = nodeA.generateToken("user@example.com", 3, "USER");
+        assertTrue(nodeB.isTokenValid(oldToken));
+
+        // Rotasyon: yeni anahtar aktif, eski anahtar sadece doğrulama için kalır
+        Files.writeString(file, "active=k2\nkey.k1=" + oldKey + "\nkey.k2=" + newKey + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        ringA.reloadIfChanged();
+        ringB.reloadIfChanged();
+
+        String newToken = nodeA.generateToken("user@example.com", 3, "USER");
+        assertTrue(nodeB.isTokenValid(newToken));
+        assertTrue(nodeB.isTokenValid(oldToken));
+
+        // Eski anahtar halkadan çıkınca önbellekteki claim'ler de geçersiz olur
+        Files.writeString(file, "active=k2\nkey.k2=" + newKey + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        ringB.reloadIfChanged();
+        assertFalse(nodeB.isTokenValid(oldToken));
+        assertTrue(nodeB.isTokenValid(newToken));
+    }
+
+    private static String randomKey() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    // JMH projede yok; JIT ısınmasından sonra kaba bir istek başı maliyet karşılaştırması
+    @Tag("benchmark")
+    @Test
+    void benchmarkCachedVersusFullVerification() {
+        String token = jwtUtil.generateToken("bench@example.com", 42, "SHOP");
+        int iterations = 50_000;
+        for (int i = 0; i < iterations; i++) {
+            jwtUtil.verify(token);
+            jwtUtil.extractClaims(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            jwtUtil.verify(token);
+        }
+        long verifyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            jwtUtil.extractClaims(token);
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        log.info(String.format(Locale.ROOT, "JWT auth cost: full verify %.2f us/request, cached %.2f us/request",
+                verifyNanos / 1e3 / iterations, cachedNanos / 1e3 / iterations));
+    }
+}
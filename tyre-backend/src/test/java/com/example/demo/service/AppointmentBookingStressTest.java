@@ -0,0 +1,246 @@
+package com.example.demo.service;
+
+import com.example.demo.availability.DaySlots;
+import com.example.demo.availability.SlotCalendar;
+import com.example.demo.dto.AppointmentCreateRequest;
+import com.example.demo.entity.Appointment;
+import com.example.demo.entity.AppointmentStatus;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireShopService;
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserRole;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.AppointmentSlotRepository;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireShopServiceRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.UserRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Gerçek servis + H2 ile eşzamanlı randevu denemeleri: hiçbir slot iki kez satılmamalı
+@SpringBootTest(properties = "test.db-name=booking")
+@ActiveProfiles("test")
+class AppointmentBookingStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentBookingStressTest.class);
+
+    private static final int SHOPS = 4;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4000;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotCalendar slotCalendar;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Autowired
+    private TireShopRepository tireShopRepository;
+
+    @Autowired
+    private TireShopServiceRepository tireShopServiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    private final List<TireShop> shops = new ArrayList<>();
+    private final List<TireShopService> services = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        appointmentSlotRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        shops.clear();
+        services.clear();
+        users.clear();
+        day = LocalDate.now().plusDays(30);
+
+        UserRole role = userRoleRepository.findByRoleName("USER").orElseGet(() -> {
+            UserRole created = new UserRole();
+            created.setRoleName("USER");
+            return userRoleRepository.save(created);
+        });
+        for (int i = 0; i < THREADS; i++) {
+            User user = new User();
+            user.setName("Müşteri " + i);
+            user.setEmail("stress" + System.nanoTime() + "-" + i + "@example.com");
+            user.setPassword("secret");
+            user.setUserRole(role);
+            users.add(userRepository.save(user));
+        }
+        for (int i = 0; i < SHOPS; i++) {
+            TireShop shop = new TireShop();
+            shop.setShopName("Lastikçi " + i);
+            shop.setEmail("shop" + System.nanoTime() + "-" + i + "@example.com");
+            shop.setOpeningHour("09:00");
+            shop.setClosingHour("18:00");
+            shop = tireShopRepository.save(shop);
+            shops.add(shop);
+
+            // Yarım saatlik ve bir saatlik hizmetler: çakışmalar kısmi örtüşmeyle de oluşur
+            for (int minutes : new int[]{30, 60}) {
+                TireShopService service = new TireShopService();
+                service.setServiceName(minutes + " dk");
+                service.setPrice(100);
+                service.setDurationMinutes(minutes);
+                service.setTireShop(shop);
+                services.add(tireShopServiceRepository.save(service));
+            }
+        }
+    }
+
+    @Test
+    void parallelBookingsNeverOverbook() throws Exception {
+        Result result = run(false);
+        assertNoOverbooking(result);
+    }
+
+    // Bellek takvimi sürekli silinir (başka node'un bilmediği kayıtlar gibi); tek koruma veritabanı unique index'i kalır
+    @Test
+    void databaseGuardHoldsWhenInMemoryCalendarIsStale() throws Exception {
+        Result result = run(true);
+        assertNoOverbooking(result);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkBookingThroughput() throws Exception {
+        for (boolean evict : new boolean[]{false, true}) {
+            setUp();
+            Result result = run(evict);
+            double seconds = result.elapsedNanos() / 1e9;
+            log.info(String.format(Locale.ROOT, "Booking stress (evict=%s): %d attempts, %d booked, %d conflicts, "
+                            + "%d rejected in %.2f s (%.0f attempts/s)",
+                    evict, ATTEMPTS, result.booked(), result.conflicts(), result.errors(), seconds, ATTEMPTS / seconds));
+        }
+    }
+
+    private Result run(boolean evictCalendar) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        if (evictCalendar) {
+            executor.submit(() -> {
+                while (running.get()) {
+                    for (TireShop shop : shops) {
+                        slotCalendar.evict(new SlotCalendar.Key(shop.getId(), day));
+                    }
+                    Thread.onSpinWait();
+                }
+            });
+        }
+
+        for (int t = 0; t < THREADS; t++) {
+            User user = users.get(t);
+            workers.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, List.of()));
+                start.await();
+                int attempt;
+                while ((attempt = next.getAndIncrement()) < ATTEMPTS) {
+                    TireShopService service = services.get(attempt % services.size());
+                    int slot = 18 + (attempt * 7) % 18; // 09:00 - 17:30
+                    AppointmentCreateRequest request = new AppointmentCreateRequest();
+                    request.setTireShopId(service.getTireShop().getId());
+                    request.setServiceId(service.getId());
+                    request.setAppointmentDate(day.atTime(DaySlots.timeOf(slot)));
+                    try {
+                        appointmentService.createAppointment(request);
+                        booked.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Çalışma saati dışına taşan 1 saatlik randevu vb.
+                        errors.incrementAndGet();
+                    }
+                }
+                SecurityContextHolder.clearContext();
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - started;
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        return new Result(booked.get(), conflicts.get(), errors.get(), elapsed);
+    }
+
+    private void assertNoOverbooking(Result result) {
+        assertEquals(ATTEMPTS, result.booked() + result.conflicts() + result.errors());
+        assertTrue(result.booked() > 0);
+
+        // Her dükkan günü 18 slot: kaydedilen randevuların kapladığı slotlar hiçbir yerde üst üste binmemeli
+        List<Appointment> appointments = appointmentRepository.findAll();
+        assertEquals(result.booked(), appointments.size());
+        Set<String> taken = new HashSet<>();
+        int occupiedSlots = 0;
+        for (Appointment appointment : appointments) {
+            assertEquals(AppointmentStatus.PENDING, appointment.getStatus());
+            LocalDateTime date = appointment.getAppointmentDate();
+            long mask = DaySlots.cover(date.toLocalTime(), appointment.getService().getDurationMinutes());
+            while (mask != 0) {
+                int slot = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                assertTrue(taken.add(appointment.getTireShop().getId() + "@" + slot), "double-booked slot " + slot);
+                occupiedSlots++;
+            }
+        }
+        assertTrue(occupiedSlots <= SHOPS * 18);
+        assertEquals(occupiedSlots, appointmentSlotRepository.count());
+    }
+
+    private record Result(int booked, int conflicts, int errors, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.RequestStatus;
+import com.example.demo.entity.ServiceRequest;
+import com.example.demo.pattern.observer.ServiceRequestEvent;
+import com.example.demo.repository.ServiceRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ServiceRequestExpiryServiceTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+    private ServiceRequestExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        events.clear();
+        // HIGH 2 saat, MEDIUM 4 saat, LOW 12 saat; küçük parça boyutu ile birden çok UPDATE
+        expiryService = new ServiceRequestExpiryService(serviceRequestRepository, events::add, transactionManager,
+                new SimpleMeterRegistry(), 120, 240, 720, 3);
+    }
+
+    @Test
+    void expiresOnlyStalePendingRequestsPerPriority() {
+        int staleHigh = persist(Priority.HIGH, RequestStatus.PENDING, 3);
+        int freshHigh = persist(Priority.HIGH, RequestStatus.PENDING, 1);
+        int freshLow = persist(Priority.LOW, RequestStatus.PENDING, 5);
+        int staleLow = persist(Priority.LOW, RequestStatus.PENDING, 13);
+        int staleWithoutPriority = persist(null, RequestStatus.PENDING, 5);
+        int acceptedOld = persist(Priority.HIGH, RequestStatus.ACCEPTED, 48);
+
+        assertEquals(3, expiryService.sweep(NOW));
+
+        assertEquals(RequestStatus.EXPIRED, status(staleHigh));
+        assertEquals(RequestStatus.EXPIRED, status(staleLow));
+        assertEquals(RequestStatus.EXPIRED, status(staleWithoutPriority));
+        assertEquals(RequestStatus.PENDING, status(freshHigh));
+        assertEquals(RequestStatus.PENDING, status(freshLow));
+        assertEquals(RequestStatus.ACCEPTED, status(acceptedOld));
+        assertEquals(3, events.size());
+        assertTrue(events.stream().allMatch(e -> ((ServiceRequestEvent) e).getType() == ServiceRequestEvent.Type.EXPIRED));
+    }
+
+    @Test
+    void largeBacklogIsProcessedInChunks() {
+        for (int i = 0; i < 10; i++) {
+            persist(Priority.MEDIUM, RequestStatus.PENDING, 24);
+        }
+
+        assertEquals(10, expiryService.sweep(NOW));
+        assertEquals(0, expiryService.sweep(NOW));
+        assertEquals(0, serviceRequestRepository.findByStatus(RequestStatus.PENDING).size());
+        assertEquals(10, events.size());
+    }
+
+    private int persist(Priority priority, RequestStatus status, int hoursOld) {
+        ServiceRequest request = new ServiceRequest();
+        request.setTitle("Talep");
+        request.setLatitude(41.0);
+        request.setLongitude(29.0);
+        request.setPriority(priority);
+        request.setStatus(status);
+        request.setCreatedAt(new Timestamp(NOW - TimeUnit.HOURS.toMillis(hoursOld)));
+        entityManager.persistAndFlush(request);
+        return request.getId();
+    }
+
+    private RequestStatus status(int id) {
+        entityManager.clear();
+        return serviceRequestRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.catalog.TireCatalogIndex;
+import com.example.demo.catalog.TireSizeDictionary;
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.dto.TireSearchResult;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireSize;
+import com.example.demo.entity.TireStock;
+import com.example.demo.repository.TireRepository;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireSizeRepository;
+import com.example.demo.repository.TireStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// İndeksler commit sonrası güncellendiği için test transaction'ı kapalı; veriler her testten sonra silinir
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TireIndexRefreshTest {
+
+    @Autowired
+    private TireRepository tireRepository;
+
+    @Autowired
+    private TireSizeRepository tireSizeRepository;
+
+    @Autowired
+    private TireShopRepository tireShopRepository;
+
+    @Autowired
+    private TireStockRepository tireStockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private TireCatalogIndex catalogIndex;
+    private TireStockIndex stockIndex;
+    private TireService tireService;
+    private TireSizeService tireSizeService;
+    private TireSize summer;
+    private TireSize winter;
+    private Tire tire;
+    private TireShop shop;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        catalogIndex = new TireCatalogIndex(tireRepository);
+        stockIndex = new TireStockIndex(tireStockRepository);
+        TireSizeDictionary dictionary = new TireSizeDictionary(tireSizeRepository, transactionManager);
+        tireService = new TireService(tireRepository, dictionary, catalogIndex, stockIndex, transactionManager);
+        tireSizeService = new TireSizeService(tireSizeRepository, dictionary, catalogIndex, stockIndex);
+
+        summer = tireSizeRepository.save(size("205/55R16 91V"));
+        winter = tireSizeRepository.save(size("225/45R17 94W"));
+        tire = new Tire();
+        tire.setBrand("Lassa");
+        tire.setModel("Driveways");
+        tire.setPrice(2000);
+        tire.setTireSize(summer);
+        tire = tireRepository.save(tire);
+        shop = new TireShop();
+        shop.setShopName("Lastikçi");
+        shop.setEmail("refresh@example.com");
+        shop = tireShopRepository.save(shop);
+        TireStock stock = new TireStock();
+        stock.setTire(tire);
+        stock.setTireShop(shop);
+        stock.setStockQuantity(4);
+        tireStockRepository.save(stock);
+
+        catalogIndex.warmUp();
+        stockIndex.warmUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tireStockRepository.deleteAll();
+        tireShopRepository.deleteAll();
+        tireRepository.deleteAll();
+        tireSizeRepository.deleteAll();
+    }
+
+    // Ebat sadece id ile gönderilir ({"tireSize":{"id":..}}); yazım veritabanından okunmalı
+    @Test
+    void tireUpdateWithSizeIdOnlyMovesStockAndCatalogEntry() {
+        Tire updated = new Tire();
+        updated.setBrand("Lassa");
+        updated.setModel("Driveways");
+        updated.setPrice(2000);
+        TireSize sizeRef = new TireSize();
+        sizeRef.setId(winter.getId());
+        updated.setTireSize(sizeRef);
+
+        transaction.executeWithoutResult(status -> tireService.updateTire(tire.getId(), updated));
+
+        assertTrue(stockIndex.shopsWithSize("205/55R16 91V", 1).isEmpty());
+        assertEquals(Map.of(shop.getId(), 4), stockIndex.shopsWithSize("225/45R17 94W", 1));
+        assertEquals(1, search("225/45r17").getTotal());
+        assertEquals(0, search("205/55r16").getTotal());
+    }
+
+    @Test
+    void renamedSizeIsSearchedUnderItsNewKey() {
+        transaction.executeWithoutResult(status -> tireSizeService.updateSize(summer.getId(), size("205/55R16 94V")));
+
+        assertTrue(stockIndex.shopsWithSize("205/55R16 91V", 1).isEmpty());
+        assertEquals(Map.of(shop.getId(), 4), stockIndex.shopsWithSize("205/55R16 94V", 1));
+        assertEquals(1, search("205/55r16 94v").getTotal());
+    }
+
+    // Isınma bitmeden gelen arama indeksi istek thread'inde kurmaz; veritabanı ön filtresiyle aynı sonucu verir
+    @Test
+    void searchBeforeWarmUpFallsBackToDatabase() {
+        Tire other = new Tire();
+        other.setBrand("Michelin");
+        other.setModel("Pilot Sport 5");
+        other.setPrice(5400);
+        other.setTireSize(winter);
+        tireRepository.save(other);
+        catalogIndex.warmUp();
+        TireCatalogIndex cold = new TireCatalogIndex(tireRepository);
+        TireService coldService = new TireService(tireRepository,
+                new TireSizeDictionary(tireSizeRepository, transactionManager), cold, stockIndex, transactionManager);
+
+        for (TireCatalogIndex.Query query : List.of(
+                new TireCatalogIndex.Query("driv 205/55", null, null, null, null, 0, 20),
+                new TireCatalogIndex.Query(null, " MICHELIN ", 17, null, null, 0, 20),
+                new TireCatalogIndex.Query("sport", null, null, 5000.0, 6000.0, 0, 20),
+                new TireCatalogIndex.Query(null, null, null, null, null, 0, 1))) {
+            TireSearchResult expected = catalogIndex.search(query);
+            TireSearchResult actual = transaction.execute(status -> coldService.searchTires(query));
+            assertEquals(expected.getTotal(), actual.getTotal());
+            assertEquals(ids(expected), ids(actual));
+            assertEquals(expected.getBrands(), actual.getBrands());
+            assertEquals(expected.getRimSizes(), actual.getRimSizes());
+        }
+        assertFalse(cold.isReady());
+    }
+
+    private static List<Integer> ids(TireSearchResult result) {
+        return result.getItems().stream().map(TireSearchResult.TireDto::getId).collect(Collectors.toList());
+    }
+
+    private TireSearchResult search(String text) {
+        return catalogIndex.search(new TireCatalogIndex.Query(text, null, null, null, null, 0, 20));
+    }
+
+    private static TireSize size(String value) {
+        TireSize size = new TireSize();
+        size.setSize(value);
+        return size;
+    }
+}
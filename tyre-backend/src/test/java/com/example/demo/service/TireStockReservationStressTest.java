@@ -0,0 +1,272 @@
+package com.example.demo.service;
+
+import com.example.demo.catalog.TireStockIndex;
+import com.example.demo.entity.ReservationStatus;
+import com.example.demo.entity.Tire;
+import com.example.demo.entity.TireShop;
+import com.example.demo.entity.TireSize;
+import com.example.demo.entity.TireStock;
+import com.example.demo.entity.TireStockReservation;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.repository.TireRepository;
+import com.example.demo.repository.TireShopRepository;
+import com.example.demo.repository.TireSizeRepository;
+import com.example.demo.repository.TireStockRepository;
+import com.example.demo.repository.TireStockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Gerçek servis + H2 ile eşzamanlı rezervasyonlar: stok hiçbir zaman eksiye inmemeli, hiçbir adet kaybolmamalı
+@SpringBootTest(properties = "test.db-name=stock")
+@ActiveProfiles("test")
+class TireStockReservationStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TireStockReservationStressTest.class);
+
+    private static final String SIZE = "205/55R16 91V";
+    private static final int STOCKS = 4;
+    private static final int INITIAL_QUANTITY = 250;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4000;
+
+    @Autowired
+    private TireStockReservationService reservationService;
+
+    @Autowired
+    private TireStockService tireStockService;
+
+    @Autowired
+    private TireStockIndex stockIndex;
+
+    @Autowired
+    private TireStockRepository tireStockRepository;
+
+    @Autowired
+    private TireStockReservationRepository reservationRepository;
+
+    @Autowired
+    private TireShopRepository tireShopRepository;
+
+    @Autowired
+    private TireRepository tireRepository;
+
+    @Autowired
+    private TireSizeRepository tireSizeRepository;
+
+    private final List<TireStock> stocks = new ArrayList<>();
+    private TireShop shop;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        stocks.forEach(stock -> tireStockService.deleteStock(stock.getId()));
+        stocks.clear();
+
+        TireSize size = tireSizeRepository.findBySize(SIZE).orElseGet(() -> {
+            TireSize created = new TireSize();
+            created.setSize(SIZE);
+            return tireSizeRepository.save(created);
+        });
+        shop = new TireShop();
+        shop.setShopName("Lastikçi");
+        shop.setEmail("stock" + System.nanoTime() + "@example.com");
+        shop.setOpeningHour("09:00");
+        shop.setClosingHour("18:00");
+        shop = tireShopRepository.save(shop);
+        for (int i = 0; i < STOCKS; i++) {
+            Tire tire = new Tire();
+            tire.setBrand("Lassa");
+            tire.setModel("Driveways " + i);
+            tire.setPrice(2000);
+            tire.setTireSize(size);
+            tire = tireRepository.save(tire);
+
+            TireStock stock = new TireStock();
+            stock.setTire(tire);
+            stock.setTireShop(shop);
+            stock.setStockQuantity(INITIAL_QUANTITY);
+            stocks.add(tireStockService.createStock(stock));
+        }
+    }
+
+    // Her başarılı rezervasyonun dördünden biri bırakılır, biri satılır, kalanı beklemede kalır
+    @Test
+    void parallelReservationsNeverOversell() throws Exception {
+        Reservations result = reserveInParallel();
+
+        assertEquals(ATTEMPTS, result.reserved() + result.conflicts());
+        assertTrue(result.conflicts() > 0, "talep stoktan fazla olmalı");
+        assertNoUnitLost();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkReservationThroughput() throws Exception {
+        Reservations result = reserveInParallel();
+        double seconds = result.elapsedNanos() / 1e9;
+        log.info(String.format(Locale.ROOT, "Stock reservation stress: %d attempts, %d reserved, %d out of stock "
+                        + "in %.2f s (%.0f reservations/s)",
+                ATTEMPTS, result.reserved(), result.conflicts(), seconds, result.reserved() / seconds));
+    }
+
+    private record Reservations(int reserved, int conflicts, long elapsedNanos) {
+    }
+
+    private Reservations reserveInParallel() throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        long elapsed = runParallel(() -> {
+            int attempt;
+            while ((attempt = next.getAndIncrement()) < ATTEMPTS) {
+                TireStock stock = stocks.get(attempt % STOCKS);
+                try {
+                    TireStockReservation reservation = reservationService.reserve(stock.getId(), 1 + attempt % 2, null);
+                    reserved.incrementAndGet();
+                    if (attempt % 4 == 0) {
+                        reservationService.release(reservation.getId());
+                    } else if (attempt % 4 == 1) {
+                        reservationService.commit(reservation.getId());
+                    }
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+        return new Reservations(reserved.get(), conflicts.get(), elapsed);
+    }
+
+    // Süresi dolmuş rezervasyonlar tarama ve elle bırakma tarafından aynı anda geri verilir: her biri tek kez dönmeli
+    @Test
+    void sweepAndReleaseReturnEachReservationOnce() throws Exception {
+        List<TireStockReservation> held = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            held.add(reservationService.reserve(stocks.get(i % STOCKS).getId(), 1, null));
+        }
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger swept = new AtomicInteger();
+        AtomicInteger worker = new AtomicInteger();
+        runParallel(() -> {
+            if (worker.getAndIncrement() % 8 == 0) {
+                swept.addAndGet(reservationService.sweep(later));
+                return;
+            }
+            int i;
+            while ((i = next.getAndIncrement()) < held.size()) {
+                if (reservationService.release(held.get(i).getId()).getStatus() == ReservationStatus.RELEASED) {
+                    released.incrementAndGet();
+                }
+            }
+        });
+        swept.addAndGet(reservationService.sweep(later));
+
+        assertEquals(held.size(), released.get() + swept.get());
+        for (TireStock stock : stocks) {
+            assertEquals(INITIAL_QUANTITY, tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity());
+        }
+        assertNoUnitLost();
+    }
+
+    @Test
+    void expiredReservationCannotBeCommitted() {
+        TireStockReservation reservation = reservationService.reserve(stocks.get(0).getId(), 2, null);
+        assertEquals(1, reservationService.sweep(LocalDateTime.now().plusHours(1)));
+
+        try {
+            reservationService.commit(reservation.getId());
+            throw new AssertionError("süresi dolan rezervasyon satılmamalı");
+        } catch (ConflictException expected) {
+            assertEquals(ReservationStatus.EXPIRED, reservationService.getReservation(reservation.getId()).getStatus());
+        }
+        assertEquals(INITIAL_QUANTITY, tireStockRepository.findById(stocks.get(0).getId()).orElseThrow()
+                .getStockQuantity());
+    }
+
+    // Sayım, istemcinin okuduğu adetle yapılır: arada bir rezervasyon düştüyse sayım onu ezmez
+    @Test
+    void countUpdateWithStaleQuantityIsRejected() {
+        TireStock stock = stocks.get(0);
+        reservationService.reserve(stock.getId(), 1, null);
+        TireStock count = new TireStock();
+        count.setTire(stock.getTire());
+        count.setTireShop(shop);
+        count.setStockQuantity(INITIAL_QUANTITY - 10);
+
+        assertThrows(ConflictException.class,
+                () -> tireStockService.updateStock(stock.getId(), INITIAL_QUANTITY, count));
+        assertEquals(INITIAL_QUANTITY - 1, tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity());
+
+        tireStockService.updateStock(stock.getId(), INITIAL_QUANTITY - 1, count);
+        assertEquals(INITIAL_QUANTITY - 10, tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private long runParallel(Work work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                work.run();
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : workers) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return elapsed;
+    }
+
+    // Başlangıç adedi = kalan + beklemede + satılan; stok indeksi de veritabanıyla aynı toplamı görmeli
+    private void assertNoUnitLost() {
+        Map<Integer, Integer> outstanding = new HashMap<>();
+        for (TireStockReservation reservation : reservationRepository.findAll()) {
+            if (reservation.getStatus() == ReservationStatus.HELD
+                    || reservation.getStatus() == ReservationStatus.COMMITTED) {
+                outstanding.merge(reservation.getStockId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+        int total = 0;
+        for (TireStock stock : stocks) {
+            int remaining = tireStockRepository.findById(stock.getId()).orElseThrow().getStockQuantity();
+            assertTrue(remaining >= 0, "negatif stok");
+            assertEquals(INITIAL_QUANTITY, remaining + outstanding.getOrDefault(stock.getId(), 0));
+            total += remaining;
+        }
+        assertEquals(total, stockIndex.shopsWithSize(SIZE, 0).getOrDefault(shop.getId(), 0));
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WarmUpBufferTest {
+
+    // Görüntü okunurken commit edilen güncelleme, görüntüden kurulan yapının üzerine uygulanır
+    @Test
+    void updatesDuringSnapshotAreReplayedAfterInstall() {
+        WarmUpBuffer buffer = new WarmUpBuffer();
+        List<String> structure = new ArrayList<>();
+        buffer.apply(() -> structure.add("before"));
+
+        buffer.warmUp(() -> {
+            buffer.apply(() -> structure.add("during-1"));
+            buffer.apply(() -> structure.add("during-2"));
+            return List.of("snapshot");
+        }, snapshot -> {
+            structure.clear();
+            structure.addAll(snapshot);
+        });
+        buffer.apply(() -> structure.add("after"));
+
+        assertEquals(List.of("snapshot", "during-1", "during-2", "after"), structure);
+    }
+
+    @Test
+    void failedSnapshotStopsBuffering() {
+        WarmUpBuffer buffer = new WarmUpBuffer();
+        List<String> structure = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> buffer.warmUp(() -> {
+            throw new IllegalStateException("db down");
+        }, snapshot -> structure.add("installed")));
+        buffer.apply(() -> structure.add("after"));
+
+        assertEquals(List.of("after"), structure);
+    }
+}
@@ -144,8 +144,12 @@ const ShopInventory: React.FC = () => {
             const stockData = {
                 stockQuantity: item.quantity
             };
+            // Sunucu, okunan adet bu arada değiştiyse (rezervasyon/iade) sayımı reddeder (409)
+            const original = inventory.find(i => i.id === item.id);
             
-            await axiosInstance.put(`/api/tire-stock/${item.id}`, stockData);
+            await axiosInstance.put(`/api/tire-stock/${item.id}`, stockData, {
+                params: { expectedQuantity: original ? original.quantity : item.quantity }
+            });
             
             // Reload inventory to get updated data from server
             await loadInventory();
@@ -154,6 +158,11 @@ const ShopInventory: React.FC = () => {
             alert('Ürün başarıyla güncellendi!');
         } catch (error) {
             console.error('Error updating item:', error);
+            if ((error as any)?.response?.status === 409) {
+                await loadInventory();
+                alert('Stok adedi bu arada değişti. Güncel adedi kontrol edip tekrar deneyin.');
+                return;
+            }
             alert('Ürün güncellenirken hata oluştu.');
         }
     };    const deleteItem = async (itemId: number) => {